@@ -0,0 +1,60 @@
+/**
+ * BCSBenchmark.java
+ *
+ * Created on 18. 10. 2026, 21:41:30 by agent
+ */
+package cz.vutbr.fit.layout.demo.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.bcs.BCSProvider;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Page;
+
+/**
+ * BCS segmentation of a pre-rendered HTML page for several similarity thresholds.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BCSBenchmark
+{
+    @Param({"0.1", "0.3", "0.5"})
+    private float threshold;
+
+    private Page page;
+
+    @Setup
+    public void setup() throws IOException, SAXException
+    {
+        page = Fixtures.renderHTML(Fixtures.getURL(Fixtures.HTML_PAGE), false);
+    }
+
+    @Benchmark
+    public AreaTree bcs()
+    {
+        var bcs = new BCSProvider();
+        bcs.setThreshold(threshold);
+        return bcs.createAreaTree(page);
+    }
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Fixtures.java
+ *
+ * Created on 18. 10. 2026, 21:10:44 by agent
+ */
+package cz.vutbr.fit.layout.demo.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.pdf.PDFBoxTreeProvider;
+import cz.vutbr.fit.layout.provider.VisualBoxTreeProvider;
+
+/**
+ * Local benchmark fixtures bundled with the benchmarks. The fixtures are copied to temporary files
+ * so that the renderers always read them from a local {@code file:} URL.
+ *
+ * @author agent
+ */
+public class Fixtures
+{
+    public static final String HTML_PAGE = "fixtures/page.html";
+    public static final String PDF_DOCUMENT = "fixtures/invoice.pdf";
+
+    public static final int WIDTH = 1200;
+    public static final int HEIGHT = 800;
+
+
+    /**
+     * Copies a bundled fixture to a temporary file and returns its URL.
+     *
+     * @param name the fixture resource name
+     * @return the URL of the temporary file
+     * @throws IOException
+     */
+    public static URL getURL(String name) throws IOException
+    {
+        String suffix = name.substring(name.lastIndexOf('.'));
+        Path file = Files.createTempFile("fitlayout-bench", suffix);
+        file.toFile().deleteOnExit();
+        try (InputStream is = Fixtures.class.getClassLoader().getResourceAsStream(name)) {
+            if (is == null)
+                throw new IOException("Fixture not found: " + name);
+            Files.copy(is, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return file.toUri().toURL();
+    }
+
+    /**
+     * Renders the HTML fixture using CSSBox.
+     *
+     * @param url the fixture URL
+     * @param screenshot include the screenshot?
+     * @return the rendered page
+     */
+    public static Page renderHTML(URL url, boolean screenshot) throws IOException, SAXException
+    {
+        var renderer = new CSSBoxTreeProvider(url, WIDTH, HEIGHT);
+        renderer.setIncludeScreenshot(screenshot);
+        return renderer.getPage();
+    }
+
+    /**
+     * Renders the PDF fixture in the same way as the PDFLayoutAnalyzer demo.
+     *
+     * @param url the fixture URL
+     * @return the rendered page
+     */
+    public static Page renderPDF(URL url) throws IOException, SAXException
+    {
+        var renderer = new PDFBoxTreeProvider(url, true, false, 1.5f, 0, Integer.MAX_VALUE);
+        return renderer.getPage();
+    }
+
+    /**
+     * Renders the PDF fixture and restructures the box tree by visual nesting.
+     *
+     * @param url the fixture URL
+     * @return the visual page
+     */
+    public static Page renderVisualPDF(URL url) throws IOException, SAXException
+    {
+        return (Page) new VisualBoxTreeProvider().process(renderPDF(url));
+    }
+
+}
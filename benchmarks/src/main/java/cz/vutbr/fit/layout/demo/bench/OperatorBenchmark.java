@@ -0,0 +1,74 @@
+/**
+ * OperatorBenchmark.java
+ *
+ * Created on 18. 10. 2026, 21:47:02 by agent
+ */
+package cz.vutbr.fit.layout.demo.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.segm.BasicSegmProvider;
+import cz.vutbr.fit.layout.segm.op.FindLineOperator;
+import cz.vutbr.fit.layout.segm.op.SortByPositionOperator;
+
+/**
+ * The area tree postprocessing operators used by the PDFLayoutAnalyzer demo. The operators modify
+ * the area tree, so a fresh tree is created before each invocation.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OperatorBenchmark
+{
+    private Page visualPage;
+    private AreaTree atree;
+
+    @Setup(Level.Trial)
+    public void setupPage() throws IOException, SAXException
+    {
+        visualPage = Fixtures.renderVisualPDF(Fixtures.getURL(Fixtures.PDF_DOCUMENT));
+    }
+
+    @Setup(Level.Invocation)
+    public void setupTree()
+    {
+        atree = new BasicSegmProvider(true).createAreaTree(visualPage);
+    }
+
+    @Benchmark
+    public AreaTree sortByPosition()
+    {
+        new SortByPositionOperator().apply(atree);
+        return atree;
+    }
+
+    @Benchmark
+    public AreaTree sortAndFindLines()
+    {
+        new SortByPositionOperator().apply(atree);
+        new FindLineOperator(true, false, 0.9f).apply(atree);
+        return atree;
+    }
+
+}
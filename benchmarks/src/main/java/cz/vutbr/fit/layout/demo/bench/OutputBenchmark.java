@@ -0,0 +1,103 @@
+/**
+ * OutputBenchmark.java
+ *
+ * Created on 18. 10. 2026, 21:55:47 by agent
+ */
+package cz.vutbr.fit.layout.demo.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.io.ArtifactStreamOutput;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.rdf.AreaModelBuilder;
+import cz.vutbr.fit.layout.rdf.BoxModelBuilder;
+import cz.vutbr.fit.layout.rdf.DefaultIRIFactory;
+import cz.vutbr.fit.layout.rdf.IRIFactory;
+import cz.vutbr.fit.layout.rdf.Serialization;
+import cz.vutbr.fit.layout.vips.VipsProvider;
+
+/**
+ * Serialization of a pre-rendered page and its area tree to XML, PNG and RDF. The output
+ * is discarded so that only the serialization itself is measured.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OutputBenchmark
+{
+    private IRIFactory iriFactory;
+    private Page page;
+    private AreaTree atree;
+
+    @Setup
+    public void setup() throws IOException, SAXException
+    {
+        page = Fixtures.renderHTML(Fixtures.getURL(Fixtures.HTML_PAGE), true);
+        iriFactory = new DefaultIRIFactory();
+        page.setIri(iriFactory.createArtifactIri(1));
+        var vips = new VipsProvider();
+        vips.setPDoC(9);
+        atree = vips.createAreaTree(page);
+        atree.setIri(iriFactory.createArtifactIri(2));
+    }
+
+    @Benchmark
+    public void pageToXML() throws IOException
+    {
+        ArtifactStreamOutput.outputXML(page, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void areaTreeToXML() throws IOException
+    {
+        ArtifactStreamOutput.outputXML(atree, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void pageToPNG() throws IOException
+    {
+        ArtifactStreamOutput.outputPNG(page, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void areaTreeToPNG() throws IOException
+    {
+        ArtifactStreamOutput.outputPNG(atree, page, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void pageToRDF() throws IOException
+    {
+        Model graph = new BoxModelBuilder(iriFactory).createGraph(page);
+        Serialization.modelToStream(graph, OutputStream.nullOutputStream(), Serialization.TURTLE);
+    }
+
+    @Benchmark
+    public void areaTreeToRDF() throws IOException
+    {
+        Model graph = new AreaModelBuilder(iriFactory).createGraph(atree);
+        Serialization.modelToStream(graph, OutputStream.nullOutputStream(), Serialization.TURTLE);
+    }
+
+}
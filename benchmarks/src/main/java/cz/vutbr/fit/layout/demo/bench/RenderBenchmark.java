@@ -0,0 +1,61 @@
+/**
+ * RenderBenchmark.java
+ *
+ * Created on 18. 10. 2026, 21:24:06 by agent
+ */
+package cz.vutbr.fit.layout.demo.bench;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.model.Page;
+
+/**
+ * Page rendering: CSSBox for HTML and PDFBox for PDF documents.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RenderBenchmark
+{
+    private URL htmlUrl;
+    private URL pdfUrl;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        htmlUrl = Fixtures.getURL(Fixtures.HTML_PAGE);
+        pdfUrl = Fixtures.getURL(Fixtures.PDF_DOCUMENT);
+    }
+
+    @Benchmark
+    public Page renderCSSBox() throws IOException, SAXException
+    {
+        return Fixtures.renderHTML(htmlUrl, false);
+    }
+
+    @Benchmark
+    public Page renderPDF() throws IOException, SAXException
+    {
+        return Fixtures.renderPDF(pdfUrl);
+    }
+
+}
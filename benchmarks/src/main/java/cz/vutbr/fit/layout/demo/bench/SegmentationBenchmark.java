@@ -0,0 +1,74 @@
+/**
+ * SegmentationBenchmark.java
+ *
+ * Created on 18. 10. 2026, 21:31:52 by agent
+ */
+package cz.vutbr.fit.layout.demo.bench;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Artifact;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.provider.VisualBoxTreeProvider;
+import cz.vutbr.fit.layout.segm.BasicSegmProvider;
+
+/**
+ * Visual box tree construction and basic segmentation of pre-rendered pages.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SegmentationBenchmark
+{
+    private Page htmlPage;
+    private Page pdfPage;
+    private Page visualPdfPage;
+
+    @Setup
+    public void setup() throws IOException, SAXException
+    {
+        htmlPage = Fixtures.renderHTML(Fixtures.getURL(Fixtures.HTML_PAGE), false);
+        URL pdfUrl = Fixtures.getURL(Fixtures.PDF_DOCUMENT);
+        pdfPage = Fixtures.renderPDF(pdfUrl);
+        visualPdfPage = Fixtures.renderVisualPDF(pdfUrl);
+    }
+
+    @Benchmark
+    public Artifact visualBoxTreePDF()
+    {
+        return new VisualBoxTreeProvider().process(pdfPage);
+    }
+
+    @Benchmark
+    public AreaTree basicSegmHTML()
+    {
+        return new BasicSegmProvider(true).createAreaTree(htmlPage);
+    }
+
+    @Benchmark
+    public AreaTree basicSegmPDF()
+    {
+        return new BasicSegmProvider(true).createAreaTree(visualPdfPage);
+    }
+
+}
@@ -0,0 +1,60 @@
+/**
+ * VipsBenchmark.java
+ *
+ * Created on 18. 10. 2026, 21:38:15 by agent
+ */
+package cz.vutbr.fit.layout.demo.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.vips.VipsProvider;
+
+/**
+ * VIPS segmentation of a pre-rendered HTML page for several degrees of coherence.
+ *
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VipsBenchmark
+{
+    @Param({"5", "9", "11"})
+    private int pDoC;
+
+    private Page page;
+
+    @Setup
+    public void setup() throws IOException, SAXException
+    {
+        page = Fixtures.renderHTML(Fixtures.getURL(Fixtures.HTML_PAGE), false);
+    }
+
+    @Benchmark
+    public AreaTree vips()
+    {
+        var vips = new VipsProvider();
+        vips.setPDoC(pDoC);
+        return vips.createAreaTree(page);
+    }
+
+}
@@ -5,6 +5,12 @@
  */
 package cz.vutbr.fit.layout.demo;
 
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
 import cz.vutbr.fit.layout.model.Box;
 
 /**
@@ -14,23 +20,50 @@ import cz.vutbr.fit.layout.model.Box;
 public class OutputUtils
 {
 
-    public static void printTextBoxes(Box box)
+    public static void printTextBoxes(Box root)
     {
-        if (box.getType() == Box.Type.TEXT_CONTENT)
-        {
+        var walker = new TreeWalker<Box>()
+                .filter(TreeWalker.textBoxes())
+                .descendInto(box -> box.getType() == Box.Type.ELEMENT);
+        final StringBuilder sb = new StringBuilder();
+        walker.preOrder(root, box -> {
+            sb.setLength(0);
             // box coordinates
-            System.out.print("[" + box.getBounds().getX1() + ":" + box.getBounds().getY1() + "] ");
+            sb.append('[').append(box.getBounds().getX1()).append(':').append(box.getBounds().getY1()).append("] ");
             // box text
-            System.out.print(box.getText());
+            sb.append(box.getText());
             // font size
-            System.out.println(" (" + box.getTextStyle().getFontSize() + "px font)");
-        }
-        else if (box.getType() == Box.Type.ELEMENT)
-        {
-            for (Box child : box.getChildren())
-            {
-                printTextBoxes(child);
-            }
+            sb.append(" (").append(box.getTextStyle().getFontSize()).append("px font)");
+            System.out.println(sb);
+        });
+    }
+
+    /**
+     * Converts a file name to a URL string. URL strings are returned unchanged.
+     */
+    public static String toURLString(String source)
+    {
+        if (!source.contains("://"))
+            return Paths.get(source).toAbsolutePath().toUri().toString();
+        else
+            return source;
+    }
+
+    /**
+     * Computes a short hash of the whole URL (the first 32 bits of SHA-256 in hex). It may be used
+     * for distinguishing the output files of the documents with the same file name.
+     */
+    public static String hashURL(URL url)
+    {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(url.toString().getBytes(StandardCharsets.UTF_8));
+            final StringBuilder ret = new StringBuilder(8);
+            for (int i = 0; i < 4; i++)
+                ret.append(String.format("%02x", digest[i]));
+            return ret.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
     
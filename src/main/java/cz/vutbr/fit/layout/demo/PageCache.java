@@ -0,0 +1,445 @@
+/**
+ * PageCache.java
+ *
+ * Created on 18. 10. 2026, 14:10:27 by agent
+ */
+package cz.vutbr.fit.layout.demo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
+import cz.vutbr.fit.layout.impl.DefaultPage;
+import cz.vutbr.fit.layout.model.Artifact;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.rdf.RDFArtifactRepository;
+
+/**
+ * A cache of pages rendered by the CSSBox renderer. The pages are identified by the source URL,
+ * the viewport size and the screenshot flag. The rendered pages are kept in memory and the least
+ * recently used pages are evicted when the total size of the cached pages exceeds the limit. The size
+ * of a page is estimated as the number of its boxes plus the size of the screenshot in kilobytes.
+ *
+ * Optionally, the rendered pages are stored in a native RDF repository in a local directory,
+ * so that they can be reused by later runs. The repository is shut down by {@link #close()}
+ * (for the default cache, this is done automatically when the JVM exits).
+ *
+ * When several threads request the same page at the same time, the page is loaded or rendered
+ * only once and the other threads wait for the result.
+ *
+ * Each caller obtains its own shallow copy of the cached page: the artifact properties of the copy
+ * (such as the IRI) may be freely modified, while the box tree is shared by all the copies and it must
+ * be treated as read-only.
+ *
+ * The default cache used by the demos is configured using the following system properties:
+ * <ul>
+ * <li>{@code fitlayout.cache.size} - the maximal total size of the pages kept in memory
+ * <li>{@code fitlayout.cache.dir} - the directory of the on-disk tier (none by default)
+ * </ul>
+ *
+ * @author agent
+ */
+public class PageCache implements Closeable
+{
+    public static final long DEFAULT_MAX_SIZE = 1000000;
+
+    private static final String INDEX_FILE = "index.properties";
+    private static final String REPOSITORY_DIR = "repository";
+
+    private static PageCache defaultCache;
+
+    private final long maxSize;
+    private final LinkedHashMap<Key, Entry> pages;
+    private long totalSize;
+    private final Map<Key, CompletableFuture<Page>> loading;
+    private int hits;
+    private int diskHits;
+    private int misses;
+
+    private final Path cacheDir;
+    private final Properties diskIndex;
+    private final Object diskLock = new Object();
+    private RDFArtifactRepository diskRepository;
+
+
+    /**
+     * Creates a memory-only cache.
+     *
+     * @param maxSize the maximal total size of the cached pages (see the class description)
+     */
+    public PageCache(long maxSize)
+    {
+        this(maxSize, null);
+    }
+
+    /**
+     * Creates a cache with an optional on-disk tier.
+     *
+     * @param maxSize the maximal total size of the pages kept in memory (see the class description)
+     * @param cacheDir the directory used for storing the pages or {@code null} for a memory-only cache
+     */
+    public PageCache(long maxSize, Path cacheDir)
+    {
+        this.maxSize = maxSize;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true); // access order for LRU
+        this.loading = new HashMap<>();
+        this.cacheDir = cacheDir;
+        this.diskIndex = new Properties();
+    }
+
+    /**
+     * Obtains the default cache configured by the system properties.
+     *
+     * @return the default cache instance
+     */
+    public static synchronized PageCache getDefault()
+    {
+        if (defaultCache == null)
+        {
+            long size = Long.getLong("fitlayout.cache.size", DEFAULT_MAX_SIZE);
+            String dir = System.getProperty("fitlayout.cache.dir");
+            defaultCache = new PageCache(size, (dir == null) ? null : Paths.get(dir));
+            final PageCache cache = defaultCache;
+            Runtime.getRuntime().addShutdownHook(new Thread(cache::close));
+        }
+        return defaultCache;
+    }
+
+    public long getMaxSize()
+    {
+        return maxSize;
+    }
+
+    public synchronized long getTotalSize()
+    {
+        return totalSize;
+    }
+
+    /**
+     * Returns the number of requests served from memory (including the requests that waited
+     * for the same page being loaded by another thread).
+     */
+    public synchronized int getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests served from the on-disk tier.
+     */
+    public synchronized int getDiskHits()
+    {
+        return diskHits;
+    }
+
+    /**
+     * Returns the number of requests that required rendering the page.
+     */
+    public synchronized int getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Obtains a rendered page from the cache or renders the page using the CSSBox renderer
+     * when it is not available.
+     *
+     * @param url the page URL
+     * @param width the viewport width
+     * @param height the viewport height
+     * @param screenshot include the page screenshot?
+     * @return a copy of the rendered page that shares the read-only box tree with the cached page
+     * @throws IOException
+     * @throws SAXException
+     */
+    public Page getPage(URL url, int width, int height, boolean screenshot) throws IOException, SAXException
+    {
+        final Key key = new Key(url.toString(), width, height, screenshot);
+        final CompletableFuture<Page> pending;
+        final CompletableFuture<Page> result;
+        synchronized (this)
+        {
+            final Entry entry = pages.get(key);
+            if (entry != null)
+            {
+                hits++;
+                return copyPage(entry.page);
+            }
+            pending = loading.get(key);
+            if (pending != null)
+            {
+                hits++;
+                result = null;
+            }
+            else
+            {
+                result = new CompletableFuture<>();
+                loading.put(key, result);
+            }
+        }
+        if (pending != null)
+            return copyPage(await(pending)); // the page is being loaded by another thread
+
+        try {
+            Page page = loadFromDisk(key);
+            if (page != null)
+            {
+                synchronized (this)
+                {
+                    diskHits++;
+                }
+            }
+            else
+            {
+                var renderer = new CSSBoxTreeProvider(url, width, height);
+                renderer.setIncludeScreenshot(screenshot);
+                page = renderer.getPage();
+                synchronized (this)
+                {
+                    misses++;
+                }
+                storeToDisk(key, page);
+            }
+            synchronized (this)
+            {
+                put(key, page);
+                loading.remove(key);
+            }
+            result.complete(page);
+            return copyPage(page);
+        } catch (IOException | SAXException | RuntimeException e) {
+            synchronized (this)
+            {
+                loading.remove(key);
+            }
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes all the pages from memory. The on-disk tier is not affected.
+     */
+    public synchronized void clear()
+    {
+        pages.clear();
+        totalSize = 0;
+    }
+
+    /**
+     * Shuts down the on-disk tier. The in-memory pages remain available; the on-disk tier
+     * is opened again when needed.
+     */
+    @Override
+    public void close()
+    {
+        synchronized (diskLock)
+        {
+            if (diskRepository != null)
+            {
+                diskRepository.disconnect();
+                diskRepository = null;
+            }
+        }
+    }
+
+    //=========================================================================================
+
+    /**
+     * Waits for a page being loaded by another thread.
+     */
+    private static Page await(CompletableFuture<Page> pending) throws IOException, SAXException
+    {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            else if (cause instanceof SAXException)
+                throw (SAXException) cause;
+            else if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            else
+                throw e;
+        }
+    }
+
+    private synchronized void put(Key key, Page page)
+    {
+        Entry entry = new Entry(page, estimateSize(page));
+        Entry old = pages.put(key, entry);
+        if (old != null)
+            totalSize -= old.size;
+        totalSize += entry.size;
+        // evict the least recently used pages; keep at least the new one
+        Iterator<Entry> it = pages.values().iterator();
+        while (totalSize > maxSize && pages.size() > 1)
+        {
+            Entry eldest = it.next();
+            totalSize -= eldest.size;
+            it.remove();
+        }
+    }
+
+    private Page loadFromDisk(Key key) throws IOException
+    {
+        if (cacheDir == null)
+            return null;
+        synchronized (diskLock)
+        {
+            openDiskTier();
+            String iri = diskIndex.getProperty(key.toString());
+            if (iri != null)
+            {
+                Artifact art = diskRepository.getArtifact(SimpleValueFactory.getInstance().createIRI(iri));
+                if (art instanceof Page)
+                    return (Page) art;
+            }
+            return null;
+        }
+    }
+
+    private void storeToDisk(Key key, Page page) throws IOException
+    {
+        if (cacheDir == null)
+            return;
+        synchronized (diskLock)
+        {
+            openDiskTier();
+            // the repository assigns an IRI to the stored artifact, keep the cached page intact
+            final Page stored = copyPage(page);
+            diskRepository.addArtifact(stored);
+            diskIndex.setProperty(key.toString(), stored.getIri().stringValue());
+            try (OutputStream os = Files.newOutputStream(cacheDir.resolve(INDEX_FILE))) {
+                diskIndex.store(os, "FitLayout page cache index");
+            }
+        }
+    }
+
+    private void openDiskTier() throws IOException
+    {
+        if (diskRepository == null)
+        {
+            Files.createDirectories(cacheDir);
+            Path indexFile = cacheDir.resolve(INDEX_FILE);
+            if (Files.exists(indexFile))
+            {
+                try (InputStream is = Files.newInputStream(indexFile)) {
+                    diskIndex.load(is);
+                }
+            }
+            diskRepository = RDFArtifactRepository.createNative(cacheDir.resolve(REPOSITORY_DIR).toString());
+        }
+    }
+
+    /**
+     * Creates a shallow copy of a page. The copy has its own artifact properties and it shares
+     * the box tree and the screenshot data with the source page.
+     */
+    private static Page copyPage(Page page)
+    {
+        URL url = null;
+        try {
+            if (page.getSourceURL() != null)
+                url = new URL(page.getSourceURL());
+        } catch (MalformedURLException e) {
+            // the source URL is informative only
+        }
+        var ret = new DefaultPage(url);
+        ret.setTitle(page.getTitle());
+        ret.setWidth(page.getWidth());
+        ret.setHeight(page.getHeight());
+        ret.setRoot(page.getRoot());
+        ret.setPngImage(page.getPngImage());
+        ret.setCreator(page.getCreator());
+        ret.setCreatorParams(page.getCreatorParams());
+        return ret;
+    }
+
+    /**
+     * Estimates the page size as the number of boxes plus the screenshot size in kilobytes.
+     */
+    private static long estimateSize(Page page)
+    {
+        long size = new TreeWalker<Box>().count(page.getRoot());
+        if (page.getPngImage() != null)
+            size += page.getPngImage().length / 1024;
+        return size;
+    }
+
+    //=========================================================================================
+
+    /**
+     * A cache key: page URL, viewport size and screenshot flag.
+     */
+    public static final class Key
+    {
+        private final String url;
+        private final int width;
+        private final int height;
+        private final boolean screenshot;
+
+        public Key(String url, int width, int height, boolean screenshot)
+        {
+            this.url = url;
+            this.width = width;
+            this.height = height;
+            this.screenshot = screenshot;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(url, width, height, screenshot);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key) obj;
+            return url.equals(other.url) && width == other.width && height == other.height
+                    && screenshot == other.screenshot;
+        }
+
+        @Override
+        public String toString()
+        {
+            return width + "x" + height + (screenshot ? "+s " : " ") + url;
+        }
+    }
+
+    private static final class Entry
+    {
+        public final Page page;
+        public final long size;
+
+        public Entry(Page page, long size)
+        {
+            this.page = page;
+            this.size = size;
+        }
+    }
+
+}
@@ -0,0 +1,255 @@
+/**
+ * TreeWalker.java
+ *
+ * Created on 20. 10. 2026, 18:04:33 by agent
+ */
+package cz.vutbr.fit.layout.demo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.GenericTreeNode;
+
+/**
+ * A non-recursive traversal of box trees and area trees. The walker uses an explicit stack that
+ * is reused among the traversals, so arbitrarily deep trees may be processed and no objects
+ * are created during the traversal (except growing the stack for deeper trees).
+ *
+ * The visited nodes may be restricted by two predicates: the <em>filter</em> decides which nodes
+ * are reported to the visitor, the <em>descend</em> predicate decides whether the children of a node
+ * are traversed. The children are visited in their order in the tree.
+ *
+ * Usage:
+ * <pre>
+ * var walker = new TreeWalker&lt;Box&gt;().filter(TreeWalker.textBoxes());
+ * walker.preOrder(page.getRoot(), box -&gt; ...);
+ * </pre>
+ *
+ * The walker is not thread-safe; use a separate instance in each thread.
+ *
+ * @author agent
+ */
+public class TreeWalker<T extends GenericTreeNode<T>>
+{
+    /**
+     * A visitor notified when a node is entered (pre-order) and left (post-order).
+     */
+    public interface Visitor<T>
+    {
+        public void enter(T node);
+
+        public default void leave(T node)
+        {
+        }
+    }
+
+    /**
+     * A destination that receives the visited nodes in batches.
+     */
+    public interface BatchSink<T>
+    {
+        /**
+         * Processes a batch of nodes. The list is reused for the next batch, the sink must not keep it.
+         *
+         * @param batch the nodes in the pre-order
+         */
+        public void accept(List<T> batch);
+    }
+
+    private Predicate<? super T> filter = node -> true;
+    private Predicate<? super T> descend = node -> true;
+
+    // the stack: the nodes, the next child to visit and the number of children to visit
+    private Object[] nodes = new Object[64];
+    private int[] next = new int[64];
+    private int[] limit = new int[64];
+    private int depth;
+
+
+    public TreeWalker()
+    {
+    }
+
+    /**
+     * Sets the filter that decides which nodes are reported. All nodes are reported by default.
+     *
+     * @param filter the filter predicate
+     * @return this walker
+     */
+    public TreeWalker<T> filter(Predicate<? super T> filter)
+    {
+        this.filter = filter;
+        return this;
+    }
+
+    /**
+     * Sets the predicate that decides whether the children of a node are traversed. All nodes
+     * are descended by default.
+     *
+     * @param descend the predicate
+     * @return this walker
+     */
+    public TreeWalker<T> descendInto(Predicate<? super T> descend)
+    {
+        this.descend = descend;
+        return this;
+    }
+
+    /**
+     * Visits the nodes of a subtree in the pre-order (the parent before its children).
+     *
+     * @param root the subtree root
+     * @param visitor the visitor of the accepted nodes
+     */
+    public void preOrder(T root, Consumer<? super T> visitor)
+    {
+        traverse(root, visitor, null);
+    }
+
+    /**
+     * Visits the nodes of a subtree in the post-order (the children before their parent).
+     *
+     * @param root the subtree root
+     * @param visitor the visitor of the accepted nodes
+     */
+    public void postOrder(T root, Consumer<? super T> visitor)
+    {
+        traverse(root, null, visitor);
+    }
+
+    /**
+     * Visits the nodes of a subtree; the visitor is notified when a node is entered and left.
+     *
+     * @param root the subtree root
+     * @param visitor the visitor of the accepted nodes
+     */
+    public void walk(T root, Visitor<? super T> visitor)
+    {
+        traverse(root, visitor::enter, visitor::leave);
+    }
+
+    /**
+     * Visits the nodes of a subtree in the pre-order and passes them to the sink in batches.
+     *
+     * @param root the subtree root
+     * @param batchSize the maximal number of nodes in a batch
+     * @param sink the destination sink
+     */
+    public void preOrder(T root, int batchSize, BatchSink<T> sink)
+    {
+        final List<T> batch = new ArrayList<>(batchSize);
+        traverse(root, node -> {
+            batch.add(node);
+            if (batch.size() >= batchSize)
+            {
+                sink.accept(batch);
+                batch.clear();
+            }
+        }, null);
+        if (!batch.isEmpty())
+            sink.accept(batch);
+    }
+
+    /**
+     * Collects the accepted nodes of a subtree in the pre-order.
+     *
+     * @param root the subtree root
+     * @return the list of nodes
+     */
+    public List<T> collect(T root)
+    {
+        final List<T> ret = new ArrayList<>();
+        traverse(root, ret::add, null);
+        return ret;
+    }
+
+    /**
+     * Counts the accepted nodes of a subtree.
+     *
+     * @param root the subtree root
+     * @return the number of nodes
+     */
+    public int count(T root)
+    {
+        final int[] ret = new int[1];
+        traverse(root, node -> ret[0]++, null);
+        return ret[0];
+    }
+
+    //=========================================================================================
+
+    /**
+     * Accepts the text content boxes.
+     */
+    public static Predicate<Box> textBoxes()
+    {
+        return box -> box.getType() == Box.Type.TEXT_CONTENT;
+    }
+
+    /**
+     * Accepts the leaf nodes.
+     */
+    public static <T extends GenericTreeNode<T>> Predicate<T> leaves()
+    {
+        return node -> node.isLeaf();
+    }
+
+    /**
+     * Accepts the leaf areas that contain some non-blank text (i.e. skips the separators and empty boxes).
+     */
+    public static Predicate<Area> nonBlankLeafAreas()
+    {
+        return area -> area.isLeaf() && !area.getText().isBlank();
+    }
+
+    //=========================================================================================
+
+    @SuppressWarnings("unchecked")
+    private void traverse(T root, Consumer<? super T> pre, Consumer<? super T> post)
+    {
+        depth = 0;
+        try {
+            push(root, pre);
+            while (depth > 0)
+            {
+                final int top = depth - 1;
+                final T node = (T) nodes[top];
+                if (next[top] < limit[top])
+                    push(node.getChildAt(next[top]++), pre);
+                else
+                {
+                    nodes[top] = null;
+                    depth--;
+                    if (post != null && filter.test(node))
+                        post.accept(node);
+                }
+            }
+        } finally {
+            // do not keep the nodes referenced when the visitor fails
+            Arrays.fill(nodes, 0, depth, null);
+            depth = 0;
+        }
+    }
+
+    private void push(T node, Consumer<? super T> pre)
+    {
+        if (pre != null && filter.test(node))
+            pre.accept(node);
+        if (depth == nodes.length)
+        {
+            nodes = Arrays.copyOf(nodes, depth * 2);
+            next = Arrays.copyOf(next, depth * 2);
+            limit = Arrays.copyOf(limit, depth * 2);
+        }
+        nodes[depth] = node;
+        next[depth] = 0;
+        limit[depth] = descend.test(node) ? node.getChildCount() : 0;
+        depth++;
+    }
+
+}
@@ -0,0 +1,88 @@
+/**
+ * AreaNeighbours.java
+ *
+ * Created on 20. 10. 2026, 14:32:51 by agent
+ */
+package cz.vutbr.fit.layout.demo.index;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.List;
+
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.demo.layout.PDFLayoutAnalyzer;
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.AreaTree;
+
+/**
+ * Analyzes a PDF document and uses a spatial index of the resulting leaf areas for finding
+ * the areas lying in the same row and column and the closest areas.
+ * 
+ * @author agent
+ */
+public class AreaNeighbours
+{
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        if (args.length != 1)
+        {
+            System.out.println("Usage: AreaNeighbours <filename>|<url>");
+            System.exit(1);
+        }
+        String urlString = args[0];
+        if (!urlString.contains("://"))
+            urlString = "file://" + urlString;
+        
+        try {
+            URL url = new URL(urlString);
+            AreaTree atree = PDFLayoutAnalyzer.analyze(url);
+            
+            // build the index of the leaf areas
+            long startTime = System.nanoTime();
+            SpatialIndex<Area> index = SpatialIndex.forAreaTree(atree);
+            System.out.printf("Indexed %d areas in %.2f ms%n", index.size(), (System.nanoTime() - startTime) / 1e6);
+            
+            // find the row and column neighbours of all the areas
+            startTime = System.nanoTime();
+            long rowPairs = 0;
+            long columnPairs = 0;
+            for (Area area : index.getItems())
+            {
+                rowPairs += index.sameRow(area.getBounds(), 0.5f).size() - 1;
+                columnPairs += index.sameColumn(area.getBounds(), 0.5f).size() - 1;
+            }
+            System.out.printf("Found %d row and %d column neighbours in %.2f ms%n",
+                    rowPairs, columnPairs, (System.nanoTime() - startTime) / 1e6);
+            
+            // print the rows of a few areas
+            int cnt = 0;
+            for (Area area : index.getItems())
+            {
+                if (cnt++ >= 10)
+                    break;
+                List<Area> row = index.sameRow(area.getBounds(), 0.5f);
+                System.out.print(area.getText() + " ->");
+                for (Area other : row)
+                {
+                    if (other != area)
+                        System.out.print(" [" + other.getText() + "]");
+                }
+                System.out.println();
+            }
+            
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
@@ -0,0 +1,406 @@
+/**
+ * FlatTree.java
+ *
+ * Created on 20. 10. 2026, 16:47:02 by agent
+ */
+package cz.vutbr.fit.layout.demo.index;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.ContentRect;
+import cz.vutbr.fit.layout.model.GenericTreeNode;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.model.Rectangular;
+import cz.vutbr.fit.layout.model.TextStyle;
+
+/**
+ * An immutable snapshot of a box tree or an area tree stored in parallel primitive arrays.
+ * The nodes are numbered in the pre-order, so that the root has the index 0 and the subtree
+ * of the node {@code i} occupies the indices from {@code i} to {@code getSubtreeEnd(i) - 1}.
+ * The node texts are stored in a single shared character buffer.
+ *
+ * The snapshot is intended for read-heavy processing; the getters and the navigation methods
+ * do not allocate any objects (except {@link #getText(int)}):
+ * <pre>
+ * for (int i = tree.firstLeaf(); i != -1; i = tree.nextLeaf(i))
+ *     if (!tree.isBlank(i))
+ *         sum += tree.getTextLength(i) * tree.getFontSize(i);
+ *
+ * for (int child = tree.getFirstChild(node); child != -1; child = tree.getNextSibling(child))
+ *     ...
+ * </pre>
+ *
+ * For the boxes, the own text of the box is stored; for the areas, the text of the leaf
+ * areas is stored only (the text of the inner areas may be obtained from their leaves).
+ *
+ * @author agent
+ */
+public final class FlatTree
+{
+    /** The box type value used for the areas. */
+    public static final byte NO_TYPE = -1;
+
+    private static final Box.Type[] BOX_TYPES = Box.Type.values();
+
+    private final int size;
+    private final int[] parent, firstChild, nextSibling, subtreeEnd;
+    private final int[] id;
+    private final byte[] type;
+    private final int[] x1, y1, x2, y2;
+    private final float[] fontSize, fontWeight;
+    private final int[] textStart;
+    private final char[] text;
+
+
+    private FlatTree(Builder b)
+    {
+        size = b.size;
+        parent = Arrays.copyOf(b.parent, size);
+        firstChild = Arrays.copyOf(b.firstChild, size);
+        nextSibling = Arrays.copyOf(b.nextSibling, size);
+        id = Arrays.copyOf(b.id, size);
+        type = Arrays.copyOf(b.type, size);
+        x1 = Arrays.copyOf(b.x1, size);
+        y1 = Arrays.copyOf(b.y1, size);
+        x2 = Arrays.copyOf(b.x2, size);
+        y2 = Arrays.copyOf(b.y2, size);
+        fontSize = Arrays.copyOf(b.fontSize, size);
+        fontWeight = Arrays.copyOf(b.fontWeight, size);
+        textStart = Arrays.copyOf(b.textStart, size + 1);
+        textStart[size] = b.textLength;
+        text = Arrays.copyOf(b.text, b.textLength);
+
+        // the subtree of a node ends where the subtree of its last descendant ends
+        subtreeEnd = new int[size];
+        for (int i = size - 1; i >= 0; i--)
+        {
+            subtreeEnd[i] = Math.max(subtreeEnd[i], i + 1);
+            if (parent[i] != -1)
+                subtreeEnd[parent[i]] = Math.max(subtreeEnd[parent[i]], subtreeEnd[i]);
+        }
+    }
+
+    /**
+     * Creates a snapshot of the box tree of a page.
+     *
+     * @param page the page
+     * @return the snapshot
+     */
+    public static FlatTree of(Page page)
+    {
+        return build(page.getRoot(), box -> box.getOwnText(), box -> box.getType());
+    }
+
+    /**
+     * Creates a snapshot of an area tree.
+     *
+     * @param atree the area tree
+     * @return the snapshot
+     */
+    public static FlatTree of(AreaTree atree)
+    {
+        return build(atree.getRoot(), area -> area.isLeaf() ? area.getText() : null, area -> null);
+    }
+
+    private static <T extends ContentRect & GenericTreeNode<T>> FlatTree build(T root,
+            Function<T, String> textFn, Function<T, Box.Type> typeFn)
+    {
+        final Builder b = new Builder();
+        final ArrayDeque<T> stack = new ArrayDeque<>();
+        final ArrayDeque<Integer> parents = new ArrayDeque<>();
+        stack.push(root);
+        parents.push(-1);
+        while (!stack.isEmpty())
+        {
+            final T node = stack.pop();
+            final int index = b.add(node, parents.pop(), textFn.apply(node), typeFn.apply(node));
+            final int cnt = node.getChildCount();
+            for (int i = cnt - 1; i >= 0; i--) // push in the reverse order to preserve the child order
+            {
+                stack.push(node.getChildAt(i));
+                parents.push(index);
+            }
+        }
+        return new FlatTree(b);
+    }
+
+    /**
+     * Returns the number of nodes.
+     *
+     * @return the number of nodes
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the parent of a node.
+     *
+     * @param node the node index
+     * @return the parent index or -1 for the root node
+     */
+    public int getParent(int node)
+    {
+        return parent[node];
+    }
+
+    /**
+     * Returns the first child of a node.
+     *
+     * @param node the node index
+     * @return the first child index or -1 for the leaf nodes
+     */
+    public int getFirstChild(int node)
+    {
+        return firstChild[node];
+    }
+
+    /**
+     * Returns the next sibling of a node.
+     *
+     * @param node the node index
+     * @return the next sibling index or -1 for the last child
+     */
+    public int getNextSibling(int node)
+    {
+        return nextSibling[node];
+    }
+
+    /**
+     * Returns the end of the subtree of the node in the pre-order numbering.
+     *
+     * @param node the node index
+     * @return the index following the last descendant of the node
+     */
+    public int getSubtreeEnd(int node)
+    {
+        return subtreeEnd[node];
+    }
+
+    public boolean isLeaf(int node)
+    {
+        return firstChild[node] == -1;
+    }
+
+    /**
+     * Returns the first leaf node in the pre-order.
+     *
+     * @return the node index or -1 for an empty tree
+     */
+    public int firstLeaf()
+    {
+        return nextLeaf(-1);
+    }
+
+    /**
+     * Returns the next leaf node following the given node in the pre-order.
+     *
+     * @param node the node index
+     * @return the next leaf index or -1 when there are no more leaves
+     */
+    public int nextLeaf(int node)
+    {
+        for (int i = node + 1; i < size; i++)
+        {
+            if (firstChild[i] == -1)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the ID of the original box or area.
+     *
+     * @param node the node index
+     * @return the ID
+     */
+    public int getId(int node)
+    {
+        return id[node];
+    }
+
+    /**
+     * Returns the box type.
+     *
+     * @param node the node index
+     * @return the box type or {@code null} for the areas
+     */
+    public Box.Type getType(int node)
+    {
+        final int t = type[node];
+        return (t == NO_TYPE) ? null : BOX_TYPES[t];
+    }
+
+    public int getX1(int node)
+    {
+        return x1[node];
+    }
+
+    public int getY1(int node)
+    {
+        return y1[node];
+    }
+
+    public int getX2(int node)
+    {
+        return x2[node];
+    }
+
+    public int getY2(int node)
+    {
+        return y2[node];
+    }
+
+    public float getFontSize(int node)
+    {
+        return fontSize[node];
+    }
+
+    public float getFontWeight(int node)
+    {
+        return fontWeight[node];
+    }
+
+    /**
+     * Returns the length of the node text.
+     *
+     * @param node the node index
+     * @return the number of characters
+     */
+    public int getTextLength(int node)
+    {
+        return textStart[node + 1] - textStart[node];
+    }
+
+    /**
+     * Returns the given character of the node text.
+     *
+     * @param node the node index
+     * @param index the character index
+     * @return the character
+     */
+    public char getTextChar(int node, int index)
+    {
+        return text[textStart[node] + index];
+    }
+
+    /**
+     * Checks whether the node text is empty or contains white space only.
+     *
+     * @param node the node index
+     * @return {@code true} for the blank texts
+     */
+    public boolean isBlank(int node)
+    {
+        for (int i = textStart[node]; i < textStart[node + 1]; i++)
+        {
+            if (!Character.isWhitespace(text[i]))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Appends the node text to a string builder without creating an intermediate string.
+     *
+     * @param node the node index
+     * @param sb the destination string builder
+     * @return the string builder
+     */
+    public StringBuilder appendText(int node, StringBuilder sb)
+    {
+        return sb.append(text, textStart[node], getTextLength(node));
+    }
+
+    /**
+     * Returns the node text as a new string.
+     *
+     * @param node the node index
+     * @return the text (an empty string for the nodes without any text)
+     */
+    public String getText(int node)
+    {
+        return new String(text, textStart[node], getTextLength(node));
+    }
+
+    //=========================================================================================
+
+    /**
+     * Collects the node properties in growing arrays.
+     */
+    private static class Builder
+    {
+        private int size;
+        private int[] parent = new int[256], firstChild = new int[256], nextSibling = new int[256], lastChild = new int[256];
+        private int[] id = new int[256];
+        private byte[] type = new byte[256];
+        private int[] x1 = new int[256], y1 = new int[256], x2 = new int[256], y2 = new int[256];
+        private float[] fontSize = new float[256], fontWeight = new float[256];
+        private int[] textStart = new int[257];
+        private char[] text = new char[4096];
+        private int textLength;
+
+        public int add(ContentRect node, int parentIndex, String nodeText, Box.Type nodeType)
+        {
+            if (size == parent.length)
+                grow();
+            final int i = size++;
+            parent[i] = parentIndex;
+            firstChild[i] = -1;
+            nextSibling[i] = -1;
+            lastChild[i] = -1;
+            if (parentIndex != -1)
+            {
+                if (firstChild[parentIndex] == -1)
+                    firstChild[parentIndex] = i;
+                else
+                    nextSibling[lastChild[parentIndex]] = i;
+                lastChild[parentIndex] = i;
+            }
+            id[i] = node.getId();
+            type[i] = (nodeType == null) ? NO_TYPE : (byte) nodeType.ordinal();
+            final Rectangular b = node.getBounds();
+            x1[i] = b.getX1();
+            y1[i] = b.getY1();
+            x2[i] = b.getX2();
+            y2[i] = b.getY2();
+            final TextStyle style = node.getTextStyle();
+            fontSize[i] = (style == null) ? 0 : style.getFontSize();
+            fontWeight[i] = (style == null) ? 0 : style.getFontWeight();
+            textStart[i] = textLength;
+            if (nodeText != null && !nodeText.isEmpty())
+            {
+                if (textLength + nodeText.length() > text.length)
+                    text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + nodeText.length()));
+                nodeText.getChars(0, nodeText.length(), text, textLength);
+                textLength += nodeText.length();
+            }
+            return i;
+        }
+
+        private void grow()
+        {
+            final int len = parent.length * 2;
+            parent = Arrays.copyOf(parent, len);
+            firstChild = Arrays.copyOf(firstChild, len);
+            nextSibling = Arrays.copyOf(nextSibling, len);
+            lastChild = Arrays.copyOf(lastChild, len);
+            id = Arrays.copyOf(id, len);
+            type = Arrays.copyOf(type, len);
+            x1 = Arrays.copyOf(x1, len);
+            y1 = Arrays.copyOf(y1, len);
+            x2 = Arrays.copyOf(x2, len);
+            y2 = Arrays.copyOf(y2, len);
+            fontSize = Arrays.copyOf(fontSize, len);
+            fontWeight = Arrays.copyOf(fontWeight, len);
+            textStart = Arrays.copyOf(textStart, len + 1);
+        }
+    }
+
+}
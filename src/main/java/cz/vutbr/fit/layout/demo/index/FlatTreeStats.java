@@ -0,0 +1,81 @@
+/**
+ * FlatTreeStats.java
+ *
+ * Created on 20. 10. 2026, 17:25:18 by agent
+ */
+package cz.vutbr.fit.layout.demo.index;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.demo.PageCache;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.vips.VipsProvider;
+
+/**
+ * Creates flat snapshots of a page and its area tree and computes simple text statistics from them:
+ * the amount of text per font size in the text boxes and the number of non-blank leaf areas.
+ * 
+ * @author agent
+ */
+public class FlatTreeStats
+{
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        try {
+            URL url = new URL("http://cssbox.sf.net");
+            
+            // render the page (or reuse the cached one) and segment it
+            Page page = PageCache.getDefault().getPage(url, 1200, 800, false);
+            var vips = new VipsProvider();
+            vips.setPDoC(9); // the preferred degree of coherence
+            AreaTree atree = vips.createAreaTree(page);
+            
+            // create the snapshots
+            long startTime = System.nanoTime();
+            FlatTree boxes = FlatTree.of(page);
+            FlatTree areas = FlatTree.of(atree);
+            System.out.printf("Snapshots of %d boxes and %d areas created in %.2f ms%n",
+                    boxes.size(), areas.size(), (System.nanoTime() - startTime) / 1e6);
+            
+            // text per font size in the box tree
+            startTime = System.nanoTime();
+            Map<Float, Long> textPerFontSize = new TreeMap<>();
+            for (int i = boxes.firstLeaf(); i != -1; i = boxes.nextLeaf(i))
+            {
+                if (!boxes.isBlank(i))
+                    textPerFontSize.merge(boxes.getFontSize(i), (long) boxes.getTextLength(i), Long::sum);
+            }
+            // non-blank leaf areas
+            int leafAreas = 0;
+            for (int i = areas.firstLeaf(); i != -1; i = areas.nextLeaf(i))
+            {
+                if (!areas.isBlank(i))
+                    leafAreas++;
+            }
+            System.out.printf("Scanned in %.2f ms%n", (System.nanoTime() - startTime) / 1e6);
+            
+            for (Map.Entry<Float, Long> entry : textPerFontSize.entrySet())
+                System.out.println("Font size " + entry.getKey() + ": " + entry.getValue() + " characters");
+            System.out.println("Non-blank leaf areas: " + leafAreas);
+            
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
@@ -0,0 +1,461 @@
+/**
+ * SpatialIndex.java
+ *
+ * Created on 20. 10. 2026, 13:41:07 by agent
+ */
+package cz.vutbr.fit.layout.demo.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import cz.vutbr.fit.layout.demo.TreeWalker;
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.ContentRect;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.model.Rectangular;
+
+/**
+ * A static spatial index of boxes or areas implemented as a packed R-tree. The index is bulk-loaded
+ * once (the items are sorted using the Sort-Tile-Recursive ordering) and all the node bounds are stored
+ * in primitive arrays, so that the queries do not create any objects except the results.
+ *
+ * The index supports the range queries, the nearest neighbour queries and finding the items lying
+ * in the same row or column as a given rectangle. The coordinates are inclusive as in {@link Rectangular}.
+ *
+ * Usage:
+ * <pre>
+ * SpatialIndex&lt;Area&gt; index = SpatialIndex.forAreaTree(atree);
+ * List&lt;Area&gt; line = index.sameRow(area.getBounds(), 0.5f);
+ * Area closest = index.nearest(x, y);
+ * </pre>
+ *
+ * @author agent
+ */
+public class SpatialIndex<T extends ContentRect>
+{
+    private static final int NODE_SIZE = 16;
+
+    private final List<T> items;
+    private final int count;
+    /** Node bounds: the items (leaves) first, then the inner nodes level by level; the root is the last one. */
+    private final int[] minX, minY, maxX, maxY;
+    /** The item index for the leaves, the position of the first child for the inner nodes. */
+    private final int[] index;
+    /** The end positions of the individual levels. */
+    private final int[] levelEnds;
+
+
+    /**
+     * Builds the index of the given items using their bounds.
+     *
+     * @param items the items to be indexed
+     */
+    public SpatialIndex(Collection<T> items)
+    {
+        this.items = new ArrayList<>(items);
+        this.count = this.items.size();
+
+        // compute the number of nodes
+        int nodes = count;
+        int levels = 1;
+        int n = count;
+        while (n > 1 || (n == 1 && levels == 1))
+        {
+            n = (n + NODE_SIZE - 1) / NODE_SIZE;
+            nodes += n;
+            levels++;
+        }
+        minX = new int[nodes];
+        minY = new int[nodes];
+        maxX = new int[nodes];
+        maxY = new int[nodes];
+        index = new int[nodes];
+        levelEnds = new int[levels];
+
+        // the leaves in the STR order
+        final int[] order = sortItems();
+        for (int i = 0; i < count; i++)
+        {
+            final Rectangular b = this.items.get(order[i]).getBounds();
+            minX[i] = b.getX1();
+            minY[i] = b.getY1();
+            maxX[i] = b.getX2();
+            maxY[i] = b.getY2();
+            index[i] = order[i];
+        }
+        levelEnds[0] = count;
+
+        // the inner nodes
+        int start = 0;
+        int end = count;
+        int pos = count;
+        for (int level = 1; level < levels; level++)
+        {
+            for (int child = start; child < end; child += NODE_SIZE)
+            {
+                final int last = Math.min(child + NODE_SIZE, end);
+                int x1 = Integer.MAX_VALUE, y1 = Integer.MAX_VALUE;
+                int x2 = Integer.MIN_VALUE, y2 = Integer.MIN_VALUE;
+                for (int i = child; i < last; i++)
+                {
+                    x1 = Math.min(x1, minX[i]);
+                    y1 = Math.min(y1, minY[i]);
+                    x2 = Math.max(x2, maxX[i]);
+                    y2 = Math.max(y2, maxY[i]);
+                }
+                minX[pos] = x1;
+                minY[pos] = y1;
+                maxX[pos] = x2;
+                maxY[pos] = y2;
+                index[pos] = child;
+                pos++;
+            }
+            levelEnds[level] = pos;
+            start = end;
+            end = pos;
+        }
+    }
+
+    /**
+     * Builds the index of the leaf boxes of a page.
+     *
+     * @param page the page
+     * @return the index
+     */
+    public static SpatialIndex<Box> forPage(Page page)
+    {
+        List<Box> leaves = new TreeWalker<Box>().filter(TreeWalker.leaves()).collect(page.getRoot());
+        return new SpatialIndex<>(leaves);
+    }
+
+    /**
+     * Builds the index of the leaf areas of an area tree.
+     *
+     * @param atree the area tree
+     * @return the index
+     */
+    public static SpatialIndex<Area> forAreaTree(AreaTree atree)
+    {
+        List<Area> leaves = new TreeWalker<Area>().filter(TreeWalker.leaves()).collect(atree.getRoot());
+        return new SpatialIndex<>(leaves);
+    }
+
+    /**
+     * Returns the number of indexed items.
+     *
+     * @return the number of items
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Returns all the indexed items in their original order.
+     *
+     * @return the list of items
+     */
+    public List<T> getItems()
+    {
+        return items;
+    }
+
+    /**
+     * Finds the items that intersect the given rectangle.
+     *
+     * @param rect the query rectangle
+     * @return the list of items (in no particular order)
+     */
+    public List<T> range(Rectangular rect)
+    {
+        return range(rect.getX1(), rect.getY1(), rect.getX2(), rect.getY2());
+    }
+
+    /**
+     * Finds the items that intersect the given rectangle.
+     *
+     * @param x1 the left coordinate (inclusive)
+     * @param y1 the top coordinate (inclusive)
+     * @param x2 the right coordinate (inclusive)
+     * @param y2 the bottom coordinate (inclusive)
+     * @return the list of items (in no particular order)
+     */
+    public List<T> range(int x1, int y1, int x2, int y2)
+    {
+        List<T> ret = new ArrayList<>();
+        search(x1, y1, x2, y2, pos -> ret.add(items.get(index[pos])));
+        return ret;
+    }
+
+    /**
+     * Finds the items whose vertical extent overlaps with the given rectangle, i.e. the items
+     * that lie on the same line of text or in the same table row.
+     *
+     * @param rect the reference rectangle
+     * @param minOverlap the minimal vertical overlap relative to the height of the lower one of the
+     * two rectangles (0.0 means any overlap, 1.0 means that the lower one is completely covered)
+     * @return the list of items sorted by their left coordinate (including the reference item when indexed)
+     */
+    public List<T> sameRow(Rectangular rect, float minOverlap)
+    {
+        final int y1 = rect.getY1();
+        final int y2 = rect.getY2();
+        List<int[]> found = new ArrayList<>();
+        search(Integer.MIN_VALUE, y1, Integer.MAX_VALUE, y2, pos -> {
+            if (overlaps(y1, y2, minY[pos], maxY[pos], minOverlap))
+                found.add(new int[] { minX[pos], index[pos] });
+        });
+        return sorted(found);
+    }
+
+    /**
+     * Finds the items whose horizontal extent overlaps with the given rectangle, i.e. the items
+     * that lie in the same column.
+     *
+     * @param rect the reference rectangle
+     * @param minOverlap the minimal horizontal overlap relative to the width of the narrower one of the
+     * two rectangles (0.0 means any overlap, 1.0 means that the narrower one is completely covered)
+     * @return the list of items sorted by their top coordinate (including the reference item when indexed)
+     */
+    public List<T> sameColumn(Rectangular rect, float minOverlap)
+    {
+        final int x1 = rect.getX1();
+        final int x2 = rect.getX2();
+        List<int[]> found = new ArrayList<>();
+        search(x1, Integer.MIN_VALUE, x2, Integer.MAX_VALUE, pos -> {
+            if (overlaps(x1, x2, minX[pos], maxX[pos], minOverlap))
+                found.add(new int[] { minY[pos], index[pos] });
+        });
+        return sorted(found);
+    }
+
+    /**
+     * Finds the item closest to the given point.
+     *
+     * @param x the point X coordinate
+     * @param y the point Y coordinate
+     * @return the closest item or {@code null} when the index is empty
+     */
+    public T nearest(int x, int y)
+    {
+        final List<T> ret = nearest(x, y, 1);
+        return ret.isEmpty() ? null : ret.get(0);
+    }
+
+    /**
+     * Finds the k items closest to the given point. The distance of an item is the distance
+     * of the point from the item bounds (zero for the items that contain the point).
+     *
+     * @param x the point X coordinate
+     * @param y the point Y coordinate
+     * @param k the maximal number of items to return
+     * @return the list of items sorted by their distance
+     */
+    public List<T> nearest(int x, int y, int k)
+    {
+        List<T> ret = new ArrayList<>(Math.min(k, count));
+        if (count == 0 || k <= 0)
+            return ret;
+        // best-first traversal; the items are reported when they get to the top of the queue
+        NodeQueue queue = new NodeQueue();
+        queue.add(distance(x, y, root()), root());
+        while (!queue.isEmpty() && ret.size() < k)
+        {
+            final int pos = queue.poll();
+            if (pos < count)
+                ret.add(items.get(index[pos]));
+            else
+            {
+                final int first = index[pos];
+                final int last = Math.min(first + NODE_SIZE, levelEnd(first));
+                for (int child = first; child < last; child++)
+                    queue.add(distance(x, y, child), child);
+            }
+        }
+        return ret;
+    }
+
+    //=========================================================================================
+
+    private int root()
+    {
+        return minX.length - 1;
+    }
+
+    /**
+     * Traverses the tree and reports the positions of the leaves that intersect the rectangle.
+     */
+    private void search(int x1, int y1, int x2, int y2, IntConsumer consumer)
+    {
+        if (count == 0)
+            return;
+        final int[] stack = new int[levelEnds.length * NODE_SIZE];
+        int top = 0;
+        stack[top++] = root();
+        while (top > 0)
+        {
+            final int pos = stack[--top];
+            final int first = index[pos];
+            final int last = Math.min(first + NODE_SIZE, levelEnd(first));
+            for (int child = first; child < last; child++)
+            {
+                if (maxX[child] < x1 || minX[child] > x2 || maxY[child] < y1 || minY[child] > y2)
+                    continue;
+                if (child < count)
+                    consumer.accept(child);
+                else
+                    stack[top++] = child;
+            }
+        }
+    }
+
+    private int levelEnd(int pos)
+    {
+        for (int end : levelEnds)
+        {
+            if (pos < end)
+                return end;
+        }
+        return levelEnds[levelEnds.length - 1];
+    }
+
+    private long distance(int x, int y, int pos)
+    {
+        final long dx = (x < minX[pos]) ? minX[pos] - (long) x : (x > maxX[pos]) ? x - (long) maxX[pos] : 0;
+        final long dy = (y < minY[pos]) ? minY[pos] - (long) y : (y > maxY[pos]) ? y - (long) maxY[pos] : 0;
+        return dx * dx + dy * dy;
+    }
+
+    private static boolean overlaps(int a1, int a2, int b1, int b2, float minOverlap)
+    {
+        final int overlap = Math.min(a2, b2) - Math.max(a1, b1) + 1;
+        if (overlap <= 0)
+            return false;
+        final int size = Math.min(a2 - a1 + 1, b2 - b1 + 1);
+        return overlap >= minOverlap * size;
+    }
+
+    private List<T> sorted(List<int[]> found)
+    {
+        found.sort((a, b) -> (a[0] != b[0]) ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+        List<T> ret = new ArrayList<>(found.size());
+        for (int[] item : found)
+            ret.add(items.get(item[1]));
+        return ret;
+    }
+
+    /**
+     * Computes the Sort-Tile-Recursive order of the items: the items are sorted by their X center
+     * and split to vertical slices; each slice is sorted by the Y center.
+     *
+     * @return the item indices in the STR order
+     */
+    private int[] sortItems()
+    {
+        final long[] keys = new long[count];
+        final int[] cx = new int[count];
+        final int[] cy = new int[count];
+        for (int i = 0; i < count; i++)
+        {
+            final Rectangular b = items.get(i).getBounds();
+            cx[i] = (b.getX1() >> 1) + (b.getX2() >> 1);
+            cy[i] = (b.getY1() >> 1) + (b.getY2() >> 1);
+            keys[i] = key(cx[i], i);
+        }
+        Arrays.sort(keys);
+
+        final int leafNodes = (count + NODE_SIZE - 1) / NODE_SIZE;
+        final int slices = (int) Math.ceil(Math.sqrt(leafNodes));
+        final int sliceSize = slices * NODE_SIZE;
+        for (int start = 0; start < count; start += sliceSize)
+        {
+            final int end = Math.min(start + sliceSize, count);
+            for (int i = start; i < end; i++)
+            {
+                final int item = (int) (keys[i] & Integer.MAX_VALUE);
+                keys[i] = key(cy[item], item);
+            }
+            Arrays.sort(keys, start, end);
+        }
+
+        final int[] ret = new int[count];
+        for (int i = 0; i < count; i++)
+            ret[i] = (int) (keys[i] & Integer.MAX_VALUE);
+        return ret;
+    }
+
+    /**
+     * Packs a coordinate and an item index to a single sort key.
+     */
+    private static long key(int coord, int item)
+    {
+        return (((long) coord - Integer.MIN_VALUE) << 31) | item;
+    }
+
+    /**
+     * A binary min-heap of the node positions ordered by their distance.
+     */
+    private static class NodeQueue
+    {
+        private long[] dist = new long[64];
+        private int[] pos = new int[64];
+        private int size;
+
+        public boolean isEmpty()
+        {
+            return size == 0;
+        }
+
+        public void add(long d, int p)
+        {
+            if (size == dist.length)
+            {
+                dist = Arrays.copyOf(dist, size * 2);
+                pos = Arrays.copyOf(pos, size * 2);
+            }
+            int i = size++;
+            while (i > 0)
+            {
+                final int parent = (i - 1) >> 1;
+                if (dist[parent] <= d)
+                    break;
+                dist[i] = dist[parent];
+                pos[i] = pos[parent];
+                i = parent;
+            }
+            dist[i] = d;
+            pos[i] = p;
+        }
+
+        public int poll()
+        {
+            final int ret = pos[0];
+            size--;
+            final long d = dist[size];
+            final int p = pos[size];
+            int i = 0;
+            while (true)
+            {
+                int child = 2 * i + 1;
+                if (child >= size)
+                    break;
+                if (child + 1 < size && dist[child + 1] < dist[child])
+                    child++;
+                if (d <= dist[child])
+                    break;
+                dist[i] = dist[child];
+                pos[i] = pos[child];
+                i = child;
+            }
+            dist[i] = d;
+            pos[i] = p;
+            return ret;
+        }
+    }
+
+}
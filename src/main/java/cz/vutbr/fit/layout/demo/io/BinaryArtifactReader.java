@@ -0,0 +1,467 @@
+/**
+ * BinaryArtifactReader.java
+ *
+ * Created on 19. 10. 2026, 17:48:02 by agent
+ */
+package cz.vutbr.fit.layout.demo.io;
+
+import java.awt.Color;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+import cz.vutbr.fit.layout.demo.io.BinaryArtifactWriter.Style;
+import cz.vutbr.fit.layout.impl.DefaultArea;
+import cz.vutbr.fit.layout.impl.DefaultAreaTree;
+import cz.vutbr.fit.layout.impl.DefaultBox;
+import cz.vutbr.fit.layout.impl.DefaultContentImage;
+import cz.vutbr.fit.layout.impl.DefaultPage;
+import cz.vutbr.fit.layout.impl.DefaultTag;
+import cz.vutbr.fit.layout.model.Artifact;
+import cz.vutbr.fit.layout.model.Border;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.model.Rectangular;
+
+/**
+ * Reads the pages and area trees written by the {@link BinaryArtifactWriter}. The artifacts are read
+ * one by one so that arbitrarily long streams may be processed. The boxes of an area tree are resolved
+ * using its page IRI among the {@value #MAX_PAGES} most recently read pages; an area tree without a page IRI
+ * is assumed to belong to the last page read. The pages obtained in another way (e.g. from a repository)
+ * may be registered using {@link #registerPage(Page)}. When the page of an area tree is not known,
+ * its areas contain no boxes. The areas keep their original IDs.
+ *
+ * @author agent
+ */
+public class BinaryArtifactReader implements Closeable
+{
+    /** The maximal number of recent pages whose boxes are kept for resolving the area tree boxes. */
+    public static final int MAX_PAGES = 16;
+
+    private static final Box.Type[] BOX_TYPES = Box.Type.values();
+    private static final Box.DisplayType[] DISPLAY_TYPES = Box.DisplayType.values();
+    private static final Border.Style[] BORDER_STYLES = Border.Style.values();
+    private static final Border.Side[] BORDER_SIDES = Border.Side.values();
+
+    private final InputStream in;
+    private final List<String> strings;
+    private final List<Style> styles;
+    private final Map<IRI, Map<Integer, Box>> pageBoxes;
+    private Map<Integer, Box> lastPageBoxes;
+
+
+    /**
+     * Creates a reader and checks the stream header.
+     *
+     * @param in the input stream
+     * @throws IOException when the stream could not be read or it does not have the expected format
+     */
+    public BinaryArtifactReader(InputStream in) throws IOException
+    {
+        this.in = (in instanceof BufferedInputStream) ? in : new BufferedInputStream(in, 64 * 1024);
+        this.strings = new ArrayList<>();
+        this.styles = new ArrayList<>();
+        this.pageBoxes = new LinkedHashMap<>(MAX_PAGES * 2, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<IRI, Map<Integer, Box>> eldest)
+            {
+                return size() > MAX_PAGES;
+            }
+        };
+        this.lastPageBoxes = new HashMap<>();
+        if (readInt() != BinaryArtifactWriter.MAGIC)
+            throw new IOException("Not a FitLayout binary artifact stream");
+    }
+
+    /**
+     * Reads the next artifact from the stream.
+     *
+     * @return the artifact read (a page or an area tree) or {@code null} at the end of the stream
+     * @throws IOException
+     */
+    public Artifact read() throws IOException
+    {
+        final int type = in.read();
+        switch (type)
+        {
+            case BinaryArtifactWriter.PAGE:
+                return readPage();
+            case BinaryArtifactWriter.AREA_TREE:
+                return readAreaTree();
+            case BinaryArtifactWriter.END:
+            case -1:
+                return null;
+            default:
+                throw new IOException("Unknown record type " + type);
+        }
+    }
+
+    /**
+     * Registers a page whose boxes may be referenced by the area trees read later.
+     * This is useful when the page is not contained in the stream.
+     *
+     * @param page the page to register (it must have an IRI assigned)
+     */
+    public void registerPage(Page page)
+    {
+        final Map<Integer, Box> boxes = new HashMap<>();
+        ArrayDeque<Box> stack = new ArrayDeque<>();
+        stack.push(page.getRoot());
+        while (!stack.isEmpty())
+        {
+            Box box = stack.pop();
+            boxes.put(box.getId(), box);
+            for (int i = 0; i < box.getChildCount(); i++)
+                stack.push(box.getChildAt(i));
+        }
+        pageBoxes.put(page.getIri(), boxes);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        in.close();
+    }
+
+    //=========================================================================================
+
+    private DefaultPage readPage() throws IOException
+    {
+        final IRI iri = toIri(readString());
+        final String url = readString();
+        final String title = readString();
+        DefaultPage page = new DefaultPage(toURL(url));
+        page.setIri(iri);
+        page.setTitle(title);
+        page.setWidth(readVarint());
+        page.setHeight(readVarint());
+        page.setPngImage(readBytes());
+
+        lastPageBoxes = new HashMap<>();
+        if (iri != null)
+            pageBoxes.put(iri, lastPageBoxes);
+        ArrayDeque<BoxFrame> stack = new ArrayDeque<>();
+        BoxFrame root = readBox(0, 0);
+        page.setRoot(root.box);
+        stack.push(root);
+        while (!stack.isEmpty())
+        {
+            BoxFrame top = stack.peek();
+            if (top.remaining == 0)
+                stack.pop();
+            else
+            {
+                top.remaining--;
+                BoxFrame child = readBox(top.x, top.y);
+                top.box.appendChild(child.box);
+                stack.push(child);
+            }
+        }
+        return page;
+    }
+
+    private BoxFrame readBox(int originX, int originY) throws IOException
+    {
+        DefaultBox box = new DefaultBox();
+        final int id = readVarint();
+        box.setId(id);
+        final int type = readByte();
+        box.setType(type < BOX_TYPES.length ? BOX_TYPES[type] : null);
+        final int displayType = readByte();
+        box.setDisplayType(displayType < DISPLAY_TYPES.length ? DISPLAY_TYPES[displayType] : null);
+        box.setTagName(readInterned());
+        box.setFontFamily(readInterned());
+        final Rectangular b = readRect(originX, originY);
+        box.setBounds(b);
+        final int flags = readVarint();
+        box.setContentBounds((flags & BinaryArtifactWriter.FLAG_CONTENT_BOUNDS) != 0 ? readRect(b.getX1(), b.getY1()) : new Rectangular(b));
+        box.setVisualBounds((flags & BinaryArtifactWriter.FLAG_VISUAL_BOUNDS) != 0 ? readRect(b.getX1(), b.getY1()) : new Rectangular(b));
+        box.setVisible((flags & BinaryArtifactWriter.FLAG_INVISIBLE) == 0);
+        final Style style = readStyle();
+        box.setTextStyle(style.toTextStyle());
+        box.setColor(style.color);
+        box.setBackgroundColor(style.background);
+        if ((flags & BinaryArtifactWriter.FLAG_TEXT) != 0)
+            box.setOwnText(readString());
+        if ((flags & BinaryArtifactWriter.FLAG_BORDERS) != 0)
+        {
+            final int mask = readByte();
+            for (Border.Side side : BORDER_SIDES)
+            {
+                if ((mask & (1 << side.ordinal())) != 0)
+                    box.setBorderStyle(side, readBorder());
+            }
+        }
+        if ((flags & BinaryArtifactWriter.FLAG_ATTRIBUTES) != 0)
+        {
+            final int count = readVarint();
+            for (int i = 0; i < count; i++)
+            {
+                final String name = readInterned();
+                box.setAttribute(name, readString());
+            }
+        }
+        if ((flags & BinaryArtifactWriter.FLAG_IMAGE) != 0)
+        {
+            DefaultContentImage img = new DefaultContentImage();
+            img.setUrl(toURL(readString()));
+            img.setPngData(readBytes());
+            box.setContentObject(img);
+        }
+        lastPageBoxes.put(id, box);
+        return new BoxFrame(box, readVarint(), b.getX1(), b.getY1());
+    }
+
+    private DefaultAreaTree readAreaTree() throws IOException
+    {
+        final IRI iri = toIri(readString());
+        final IRI pageIri = toIri(readString());
+        DefaultAreaTree atree = new DefaultAreaTree(pageIri);
+        atree.setIri(iri);
+        final Map<Integer, Box> boxes = (pageIri == null) ? lastPageBoxes : pageBoxes.get(pageIri);
+
+        ArrayDeque<AreaFrame> stack = new ArrayDeque<>();
+        AreaFrame root = readArea(atree, boxes, 0, 0);
+        atree.setRoot(root.area);
+        stack.push(root);
+        while (!stack.isEmpty())
+        {
+            AreaFrame top = stack.peek();
+            if (top.remaining == 0)
+                stack.pop();
+            else
+            {
+                top.remaining--;
+                AreaFrame child = readArea(atree, boxes, top.x, top.y);
+                top.area.appendChild(child.area);
+                stack.push(child);
+            }
+        }
+        return atree;
+    }
+
+    private AreaFrame readArea(DefaultAreaTree atree, Map<Integer, Box> boxes, int originX, int originY) throws IOException
+    {
+        final int id = readVarint();
+        final Rectangular b = readRect(originX, originY);
+        DefaultArea area = new DefaultArea(b);
+        area.setId(id);
+        area.setAreaTree(atree);
+        final int flags = readVarint();
+        area.setName(readString());
+        area.setLevel(readVarint());
+        area.setBackgroundColor(readColor());
+        area.setBackgroundSeparated((flags & BinaryArtifactWriter.AREA_BACKGROUND_SEPARATED) != 0);
+        if ((flags & BinaryArtifactWriter.AREA_EFFECTIVE_BOUNDS) != 0)
+            area.setEffectiveBounds(readRect(b.getX1(), b.getY1()));
+        if ((flags & BinaryArtifactWriter.AREA_BORDERS) != 0)
+        {
+            final int mask = readByte();
+            for (Border.Side side : BORDER_SIDES)
+            {
+                if ((mask & (1 << side.ordinal())) != 0)
+                    area.setBorderStyle(side, readBorder());
+            }
+        }
+        if ((flags & BinaryArtifactWriter.AREA_TAGS) != 0)
+        {
+            final int count = readVarint();
+            for (int i = 0; i < count; i++)
+            {
+                final String type = readInterned();
+                final String name = readInterned();
+                area.addTag(new DefaultTag(type, name), Float.intBitsToFloat(readInt()));
+            }
+        }
+        final int boxCount = readVarint();
+        for (int i = 0; i < boxCount; i++)
+        {
+            final int boxId = readVarint();
+            final Box box = (boxes == null) ? null : boxes.get(boxId);
+            if (box != null)
+                area.addBox(box);
+        }
+        return new AreaFrame(area, readVarint(), b.getX1(), b.getY1());
+    }
+
+    private Rectangular readRect(int originX, int originY) throws IOException
+    {
+        final int x1 = originX + readSigned();
+        final int y1 = originY + readSigned();
+        final int x2 = x1 + readSigned();
+        final int y2 = y1 + readSigned();
+        return new Rectangular(x1, y1, x2, y2);
+    }
+
+    private Border readBorder() throws IOException
+    {
+        final int width = readVarint();
+        final int style = readByte();
+        final Color color = readColor();
+        return new Border(width, style < BORDER_STYLES.length ? BORDER_STYLES[style] : null, color);
+    }
+
+    private Color readColor() throws IOException
+    {
+        final int present = readByte();
+        return (present == 0) ? null : new Color(readInt(), true);
+    }
+
+    private byte[] readBytes() throws IOException
+    {
+        final int len = readVarint();
+        if (len == 0)
+            return null;
+        final byte[] bytes = in.readNBytes(len - 1);
+        if (bytes.length < len - 1)
+            throw new EOFException();
+        return bytes;
+    }
+
+    private String readInterned() throws IOException
+    {
+        final int ref = readVarint();
+        switch (ref)
+        {
+            case BinaryArtifactWriter.REF_NULL:
+                return null;
+            case BinaryArtifactWriter.REF_NEW:
+                String s = readUTF();
+                strings.add(s);
+                return s;
+            case BinaryArtifactWriter.REF_INLINE:
+                return readUTF();
+            default:
+                return strings.get(ref - BinaryArtifactWriter.REF_FIRST);
+        }
+    }
+
+    private Style readStyle() throws IOException
+    {
+        final int ref = readVarint();
+        if (ref >= BinaryArtifactWriter.REF_FIRST)
+            return styles.get(ref - BinaryArtifactWriter.REF_FIRST);
+        Style style = new Style(Float.intBitsToFloat(readInt()), Float.intBitsToFloat(readInt()),
+                Float.intBitsToFloat(readInt()), Float.intBitsToFloat(readInt()), Float.intBitsToFloat(readInt()),
+                readColor(), readColor());
+        if (ref == BinaryArtifactWriter.REF_NEW)
+            styles.add(style);
+        return style;
+    }
+
+    private String readString() throws IOException
+    {
+        return (readVarint() == BinaryArtifactWriter.REF_NULL) ? null : readUTF();
+    }
+
+    private String readUTF() throws IOException
+    {
+        final int len = readVarint();
+        final byte[] bytes = in.readNBytes(len);
+        if (bytes.length < len)
+            throw new EOFException();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int readSigned() throws IOException
+    {
+        final int value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private int readVarint() throws IOException
+    {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7)
+        {
+            final int b = readByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    private int readByte() throws IOException
+    {
+        final int b = in.read();
+        if (b == -1)
+            throw new EOFException();
+        return b;
+    }
+
+    private int readInt() throws IOException
+    {
+        final int b1 = in.read();
+        final int b2 = in.read();
+        final int b3 = in.read();
+        final int b4 = in.read();
+        if ((b1 | b2 | b3 | b4) < 0)
+            throw new EOFException();
+        return (b1 << 24) | (b2 << 16) | (b3 << 8) | b4;
+    }
+
+    private static IRI toIri(String s)
+    {
+        return (s == null) ? null : SimpleValueFactory.getInstance().createIRI(s);
+    }
+
+    private static URL toURL(String s)
+    {
+        try {
+            return (s == null) ? null : new URL(s);
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    //=========================================================================================
+
+    private static class BoxFrame
+    {
+        public final DefaultBox box;
+        public final int x;
+        public final int y;
+        public int remaining;
+
+        public BoxFrame(DefaultBox box, int remaining, int x, int y)
+        {
+            this.box = box;
+            this.remaining = remaining;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private static class AreaFrame
+    {
+        public final DefaultArea area;
+        public final int x;
+        public final int y;
+        public int remaining;
+
+        public AreaFrame(DefaultArea area, int remaining, int x, int y)
+        {
+            this.area = area;
+            this.remaining = remaining;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+}
@@ -0,0 +1,517 @@
+/**
+ * BinaryArtifactWriter.java
+ *
+ * Created on 19. 10. 2026, 17:12:35 by agent
+ */
+package cz.vutbr.fit.layout.demo.io;
+
+import java.awt.Color;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.rdf4j.model.IRI;
+
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Border;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.ContentImage;
+import cz.vutbr.fit.layout.model.ContentRect;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.model.Rectangular;
+import cz.vutbr.fit.layout.model.Tag;
+import cz.vutbr.fit.layout.model.TextStyle;
+
+/**
+ * Writes pages and area trees in a compact binary format. The format is a sequence of artifact records
+ * that may be read back one by one using the {@link BinaryArtifactReader}.
+ *
+ * The boxes and areas are written in the pre-order with the number of child nodes. The coordinates
+ * are written as variable-length integers relative to the parent node position. The tag names are
+ * interned: each distinct string is written only once per stream and later referenced by its index.
+ * Similarly, the text styles and colors are kept in a style dictionary. An area tree refers to the boxes
+ * of its page by their IDs; it should be written after the corresponding page.
+ *
+ * The following artifact properties are stored: the page IRI, source URL, title, size and screenshot;
+ * the box IDs, types, display types, visibility, tag names, element attributes, bounds (including
+ * the content and visual bounds), text, font properties, colors, borders and replaced images;
+ * the area IDs, bounds, effective bounds, names, levels, background, borders, tags and boxes.
+ * The remaining properties are not stored: the artifact metadata (the parent artifact, label, creator
+ * and its parameters), the replaced content other than images and the area text styles (they
+ * are derived from the area boxes when read).
+ *
+ * @author agent
+ */
+public class BinaryArtifactWriter implements Closeable
+{
+    static final int MAGIC = 0x464c4232; // "FLB2"
+    static final int END = 0;
+    static final int PAGE = 1;
+    static final int AREA_TREE = 2;
+
+    // string and style references
+    static final int REF_NULL = 0;
+    static final int REF_NEW = 1;
+    static final int REF_INLINE = 2;
+    static final int REF_FIRST = 3;
+
+    // box flags
+    static final int FLAG_CONTENT_BOUNDS = 1;
+    static final int FLAG_VISUAL_BOUNDS = 2;
+    static final int FLAG_TEXT = 4;
+    static final int FLAG_INVISIBLE = 8;
+    static final int FLAG_BORDERS = 16;
+    static final int FLAG_ATTRIBUTES = 32;
+    static final int FLAG_IMAGE = 64;
+
+    // area flags
+    static final int AREA_EFFECTIVE_BOUNDS = 1;
+    static final int AREA_BACKGROUND_SEPARATED = 2;
+    static final int AREA_BORDERS = 4;
+    static final int AREA_TAGS = 8;
+
+    // undefined enum value
+    static final int NO_VALUE = 0xff;
+
+    /** The maximal number of the interned strings and styles per stream. */
+    public static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    private final OutputStream out;
+    private final Map<String, Integer> strings;
+    private final Map<Style, Integer> styles;
+    private boolean closed;
+
+
+    /**
+     * Creates a writer and writes the stream header.
+     *
+     * @param out the output stream
+     * @throws IOException
+     */
+    public BinaryArtifactWriter(OutputStream out) throws IOException
+    {
+        this.out = (out instanceof BufferedOutputStream) ? out : new BufferedOutputStream(out, 64 * 1024);
+        this.strings = new HashMap<>();
+        this.styles = new HashMap<>();
+        writeInt(MAGIC);
+    }
+
+    /**
+     * Writes a page including all its boxes.
+     *
+     * @param page the page to write
+     * @throws IOException
+     */
+    public void write(Page page) throws IOException
+    {
+        out.write(PAGE);
+        writeString(iriString(page.getIri()));
+        writeString(page.getSourceURL());
+        writeString(page.getTitle());
+        writeVarint(page.getWidth());
+        writeVarint(page.getHeight());
+        writeBytes(page.getPngImage());
+
+        final Box root = page.getRoot();
+        ArrayDeque<Box> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty())
+        {
+            final Box box = stack.pop();
+            final Rectangular pb = (box == root) ? null : box.getParent().getBounds();
+            writeBox(box, pb);
+            for (int i = box.getChildCount() - 1; i >= 0; i--)
+                stack.push(box.getChildAt(i));
+        }
+    }
+
+    /**
+     * Writes an area tree including all its areas.
+     *
+     * @param atree the area tree to write
+     * @throws IOException
+     */
+    public void write(AreaTree atree) throws IOException
+    {
+        out.write(AREA_TREE);
+        writeString(iriString(atree.getIri()));
+        writeString(iriString(atree.getPageIri()));
+
+        final Area root = atree.getRoot();
+        ArrayDeque<Area> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty())
+        {
+            final Area area = stack.pop();
+            final Rectangular pb = (area == root) ? null : area.getParent().getBounds();
+            writeArea(area, pb);
+            for (int i = area.getChildCount() - 1; i >= 0; i--)
+                stack.push(area.getChildAt(i));
+        }
+    }
+
+    /**
+     * Flushes the buffered data to the underlying stream.
+     *
+     * @throws IOException
+     */
+    public void flush() throws IOException
+    {
+        out.flush();
+    }
+
+    /**
+     * Writes the end mark and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (!closed)
+        {
+            closed = true;
+            out.write(END);
+            out.close();
+        }
+    }
+
+    //=========================================================================================
+
+    private void writeBox(Box box, Rectangular pb) throws IOException
+    {
+        final Rectangular b = box.getBounds();
+        final Rectangular cb = box.getContentBounds();
+        final Rectangular vb = box.getVisualBounds();
+        final boolean text = box.getType() == Box.Type.TEXT_CONTENT && box.getOwnText() != null;
+        final boolean image = box.getType() == Box.Type.REPLACED_CONTENT && box.getContentObject() instanceof ContentImage;
+        final Map<String, String> attributes = box.getAttributes();
+        int flags = 0;
+        if (cb != null && !sameRect(cb, b)) flags |= FLAG_CONTENT_BOUNDS;
+        if (vb != null && !sameRect(vb, b)) flags |= FLAG_VISUAL_BOUNDS;
+        if (text) flags |= FLAG_TEXT;
+        if (!box.isVisible()) flags |= FLAG_INVISIBLE;
+        if (getBorderMask(box) != 0) flags |= FLAG_BORDERS;
+        if (attributes != null && !attributes.isEmpty()) flags |= FLAG_ATTRIBUTES;
+        if (image) flags |= FLAG_IMAGE;
+
+        writeVarint(box.getId());
+        out.write(box.getType() == null ? NO_VALUE : box.getType().ordinal());
+        out.write(box.getDisplayType() == null ? NO_VALUE : box.getDisplayType().ordinal());
+        writeInterned(box.getTagName());
+        writeInterned(box.getFontFamily());
+        writeRect(b, (pb == null) ? 0 : pb.getX1(), (pb == null) ? 0 : pb.getY1());
+        writeVarint(flags);
+        if ((flags & FLAG_CONTENT_BOUNDS) != 0)
+            writeRect(cb, b.getX1(), b.getY1());
+        if ((flags & FLAG_VISUAL_BOUNDS) != 0)
+            writeRect(vb, b.getX1(), b.getY1());
+        writeStyle(new Style(box.getTextStyle(), box.getColor(), box.getBackgroundColor()));
+        if (text)
+            writeString(box.getOwnText());
+        if ((flags & FLAG_BORDERS) != 0)
+            writeBorders(box);
+        if ((flags & FLAG_ATTRIBUTES) != 0)
+        {
+            writeVarint(attributes.size());
+            for (Map.Entry<String, String> attr : attributes.entrySet())
+            {
+                writeInterned(attr.getKey());
+                writeString(attr.getValue());
+            }
+        }
+        if (image)
+        {
+            final ContentImage img = (ContentImage) box.getContentObject();
+            writeString(img.getUrl() == null ? null : img.getUrl().toString());
+            writeBytes(img.getPngData());
+        }
+        writeVarint(box.getChildCount());
+    }
+
+    private void writeArea(Area area, Rectangular pb) throws IOException
+    {
+        final Rectangular eb = area.getEffectiveBounds();
+        final Map<Tag, Float> tags = area.getTags();
+        int flags = 0;
+        if (eb != null && !sameRect(eb, area.getBounds())) flags |= AREA_EFFECTIVE_BOUNDS;
+        if (area.isBackgroundSeparated()) flags |= AREA_BACKGROUND_SEPARATED;
+        if (getBorderMask(area) != 0) flags |= AREA_BORDERS;
+        if (tags != null && !tags.isEmpty()) flags |= AREA_TAGS;
+
+        writeVarint(area.getId());
+        writeRect(area.getBounds(), (pb == null) ? 0 : pb.getX1(), (pb == null) ? 0 : pb.getY1());
+        writeVarint(flags);
+        writeString(area.getName());
+        writeVarint(area.getLevel());
+        writeColor(area.getBackgroundColor());
+        if ((flags & AREA_EFFECTIVE_BOUNDS) != 0)
+            writeRect(eb, area.getBounds().getX1(), area.getBounds().getY1());
+        if ((flags & AREA_BORDERS) != 0)
+            writeBorders(area);
+        if ((flags & AREA_TAGS) != 0)
+        {
+            writeVarint(tags.size());
+            for (Map.Entry<Tag, Float> tag : tags.entrySet())
+            {
+                writeInterned(tag.getKey().getType());
+                writeInterned(tag.getKey().getName());
+                writeInt(Float.floatToIntBits(tag.getValue()));
+            }
+        }
+        final List<Box> boxes = area.getBoxes();
+        writeVarint(boxes.size());
+        for (Box box : boxes)
+            writeVarint(box.getId());
+        writeVarint(area.getChildCount());
+    }
+
+    /**
+     * Computes the bit mask of the sides that have a border (the bit order corresponds
+     * to the {@link Border.Side} values).
+     */
+    private static int getBorderMask(ContentRect rect)
+    {
+        int mask = 0;
+        if (rect.hasTopBorder() && rect.getBorderStyle(Border.Side.TOP) != null)
+            mask |= 1 << Border.Side.TOP.ordinal();
+        if (rect.hasRightBorder() && rect.getBorderStyle(Border.Side.RIGHT) != null)
+            mask |= 1 << Border.Side.RIGHT.ordinal();
+        if (rect.hasBottomBorder() && rect.getBorderStyle(Border.Side.BOTTOM) != null)
+            mask |= 1 << Border.Side.BOTTOM.ordinal();
+        if (rect.hasLeftBorder() && rect.getBorderStyle(Border.Side.LEFT) != null)
+            mask |= 1 << Border.Side.LEFT.ordinal();
+        return mask;
+    }
+
+    private void writeBorders(ContentRect rect) throws IOException
+    {
+        final int mask = getBorderMask(rect);
+        out.write(mask);
+        for (Border.Side side : Border.Side.values())
+        {
+            if ((mask & (1 << side.ordinal())) != 0)
+            {
+                final Border border = rect.getBorderStyle(side);
+                writeVarint(border.getWidth());
+                out.write(border.getStyle() == null ? NO_VALUE : border.getStyle().ordinal());
+                writeColor(border.getColor());
+            }
+        }
+    }
+
+    private void writeColor(Color color) throws IOException
+    {
+        if (color == null)
+            out.write(0);
+        else
+        {
+            out.write(1);
+            writeInt(color.getRGB());
+        }
+    }
+
+    private void writeRect(Rectangular r, int originX, int originY) throws IOException
+    {
+        writeSigned(r.getX1() - originX);
+        writeSigned(r.getY1() - originY);
+        writeSigned(r.getX2() - r.getX1());
+        writeSigned(r.getY2() - r.getY1());
+    }
+
+    private void writeInterned(String s) throws IOException
+    {
+        if (s == null)
+            writeVarint(REF_NULL);
+        else
+        {
+            final Integer index = strings.get(s);
+            if (index != null)
+                writeVarint(REF_FIRST + index);
+            else if (strings.size() < MAX_DICTIONARY_SIZE)
+            {
+                strings.put(s, strings.size());
+                writeVarint(REF_NEW);
+                writeUTF(s);
+            }
+            else
+            {
+                writeVarint(REF_INLINE);
+                writeUTF(s);
+            }
+        }
+    }
+
+    private void writeStyle(Style style) throws IOException
+    {
+        final Integer index = styles.get(style);
+        if (index != null)
+            writeVarint(REF_FIRST + index);
+        else
+        {
+            if (styles.size() < MAX_DICTIONARY_SIZE)
+            {
+                styles.put(style, styles.size());
+                writeVarint(REF_NEW);
+            }
+            else
+                writeVarint(REF_INLINE);
+            writeInt(Float.floatToIntBits(style.fontSize));
+            writeInt(Float.floatToIntBits(style.fontWeight));
+            writeInt(Float.floatToIntBits(style.fontStyle));
+            writeInt(Float.floatToIntBits(style.underline));
+            writeInt(Float.floatToIntBits(style.lineThrough));
+            writeColor(style.color);
+            writeColor(style.background);
+        }
+    }
+
+    /**
+     * Writes a byte array prefixed by its length plus one; zero length denotes {@code null}.
+     */
+    private void writeBytes(byte[] data) throws IOException
+    {
+        if (data == null)
+            writeVarint(0);
+        else
+        {
+            writeVarint(data.length + 1);
+            out.write(data);
+        }
+    }
+
+    private void writeString(String s) throws IOException
+    {
+        if (s == null)
+            writeVarint(REF_NULL);
+        else
+        {
+            writeVarint(REF_INLINE);
+            writeUTF(s);
+        }
+    }
+
+    private void writeUTF(String s) throws IOException
+    {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeSigned(int value) throws IOException
+    {
+        writeVarint((value << 1) ^ (value >> 31)); // zig-zag encoding
+    }
+
+    private void writeVarint(int value) throws IOException
+    {
+        while ((value & ~0x7f) != 0)
+        {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private void writeInt(int value) throws IOException
+    {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static boolean sameRect(Rectangular r1, Rectangular r2)
+    {
+        return r1.getX1() == r2.getX1() && r1.getY1() == r2.getY1()
+                && r1.getX2() == r2.getX2() && r1.getY2() == r2.getY2();
+    }
+
+    private static String iriString(IRI iri)
+    {
+        return (iri == null) ? null : iri.stringValue();
+    }
+
+    //=========================================================================================
+
+    /**
+     * A style dictionary entry: the text style and the colors of a box. The colors may be {@code null}.
+     */
+    static class Style
+    {
+        final float fontSize;
+        final float fontWeight;
+        final float fontStyle;
+        final float underline;
+        final float lineThrough;
+        final Color color;
+        final Color background;
+
+        Style(float fontSize, float fontWeight, float fontStyle, float underline, float lineThrough,
+                Color color, Color background)
+        {
+            this.fontSize = fontSize;
+            this.fontWeight = fontWeight;
+            this.fontStyle = fontStyle;
+            this.underline = underline;
+            this.lineThrough = lineThrough;
+            this.color = color;
+            this.background = background;
+        }
+
+        Style(TextStyle style, Color color, Color background)
+        {
+            this(style == null ? 0 : style.getFontSize(),
+                 style == null ? 0 : style.getFontWeight(),
+                 style == null ? 0 : style.getFontStyle(),
+                 style == null ? 0 : style.getUnderline(),
+                 style == null ? 0 : style.getLineThrough(),
+                 color, background);
+        }
+
+        TextStyle toTextStyle()
+        {
+            TextStyle ret = new TextStyle();
+            ret.setFontSize(fontSize);
+            ret.setFontWeight(fontWeight);
+            ret.setFontStyle(fontStyle);
+            ret.setUnderline(underline);
+            ret.setLineThrough(lineThrough);
+            return ret;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int result = Float.floatToIntBits(fontSize);
+            result = 31 * result + Float.floatToIntBits(fontWeight);
+            result = 31 * result + Float.floatToIntBits(fontStyle);
+            result = 31 * result + Float.floatToIntBits(underline);
+            result = 31 * result + Float.floatToIntBits(lineThrough);
+            result = 31 * result + Objects.hashCode(color);
+            result = 31 * result + Objects.hashCode(background);
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) return true;
+            if (!(obj instanceof Style)) return false;
+            Style other = (Style) obj;
+            return Float.floatToIntBits(fontSize) == Float.floatToIntBits(other.fontSize)
+                    && Float.floatToIntBits(fontWeight) == Float.floatToIntBits(other.fontWeight)
+                    && Float.floatToIntBits(fontStyle) == Float.floatToIntBits(other.fontStyle)
+                    && Float.floatToIntBits(underline) == Float.floatToIntBits(other.underline)
+                    && Float.floatToIntBits(lineThrough) == Float.floatToIntBits(other.lineThrough)
+                    && Objects.equals(color, other.color) && Objects.equals(background, other.background);
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+/**
+ * ChannelWriter.java
+ *
+ * Created on 18. 10. 2026, 11:20:52 by agent
+ */
+package cz.vutbr.fit.layout.demo.io;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A buffered UTF-8 writer that writes directly to a byte channel (e.g. a {@link FileChannel}).
+ * Unlike {@link java.io.BufferedWriter} or {@link java.io.PrintStream}, the writer does not use
+ * any locking. It must not be shared among multiple threads.
+ *
+ * @author agent
+ */
+public class ChannelWriter extends Writer
+{
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final CharsetEncoder encoder;
+    private final CharBuffer chars;
+    private final ByteBuffer bytes;
+    private boolean closed;
+
+
+    /**
+     * Creates a writer with the default buffer size.
+     *
+     * @param channel the destination channel
+     */
+    public ChannelWriter(WritableByteChannel channel)
+    {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a writer with the given buffer size.
+     *
+     * @param channel the destination channel
+     * @param bufferSize the buffer size in characters
+     */
+    public ChannelWriter(WritableByteChannel channel, int bufferSize)
+    {
+        this.channel = channel;
+        this.encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chars = CharBuffer.allocate(bufferSize);
+        this.bytes = ByteBuffer.allocateDirect((int) (bufferSize * encoder.maxBytesPerChar()));
+    }
+
+    /**
+     * Creates a writer that writes to a new file (an existing file is truncated).
+     *
+     * @param path the file path
+     * @return the new writer
+     * @throws IOException
+     */
+    public static ChannelWriter create(Path path) throws IOException
+    {
+        return new ChannelWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Creates a writer that writes to the standard output bypassing {@code System.out}.
+     *
+     * @return the new writer
+     */
+    public static ChannelWriter stdout()
+    {
+        return new ChannelWriter(Channels.newChannel(new FileOutputStream(FileDescriptor.out)));
+    }
+
+    @Override
+    public void write(int c) throws IOException
+    {
+        if (!chars.hasRemaining())
+            flushBuffer(false);
+        chars.put((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException
+    {
+        while (len > 0)
+        {
+            if (!chars.hasRemaining())
+                flushBuffer(false);
+            int n = Math.min(len, chars.remaining());
+            chars.put(cbuf, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException
+    {
+        while (len > 0)
+        {
+            if (!chars.hasRemaining())
+                flushBuffer(false);
+            int n = Math.min(len, chars.remaining());
+            chars.put(str, off, off + n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException
+    {
+        if (csq == null)
+            csq = "null";
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException
+    {
+        if (csq == null)
+            csq = "null";
+        for (int i = start; i < end; i++)
+        {
+            if (!chars.hasRemaining())
+                flushBuffer(false);
+            chars.put(csq.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        flushBuffer(false);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (!closed)
+        {
+            flushBuffer(true);
+            channel.close();
+            closed = true;
+        }
+    }
+
+    /**
+     * Encodes the buffered characters and writes the bytes to the channel.
+     *
+     * @param endOfInput {@code true} when no more characters will follow
+     * @throws IOException
+     */
+    private void flushBuffer(boolean endOfInput) throws IOException
+    {
+        chars.flip();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, endOfInput);
+            writeBytes();
+        } while (result.isOverflow());
+        if (endOfInput)
+        {
+            while (encoder.flush(bytes).isOverflow())
+                writeBytes();
+            writeBytes();
+        }
+        chars.compact(); // an incomplete surrogate pair may remain in the buffer
+    }
+
+    private void writeBytes() throws IOException
+    {
+        bytes.flip();
+        while (bytes.hasRemaining())
+            channel.write(bytes);
+        bytes.clear();
+    }
+
+}
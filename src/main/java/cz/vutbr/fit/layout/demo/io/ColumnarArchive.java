@@ -0,0 +1,240 @@
+/**
+ * ColumnarArchive.java
+ *
+ * Created on 19. 10. 2026, 20:22:53 by agent
+ */
+package cz.vutbr.fit.layout.demo.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Properties;
+
+import cz.vutbr.fit.layout.model.Box;
+
+/**
+ * A read-only view of a columnar archive created by the {@link ColumnarArchiveWriter}. The column
+ * files are memory-mapped and the values are accessed by the row index, so that the whole archive
+ * may be scanned without creating any objects (except the text strings when requested).
+ *
+ * Usage:
+ * <pre>
+ * ColumnarArchive archive = ColumnarArchive.open(dir);
+ * for (int row = 0; row &lt; archive.getRowCount(); row++)
+ *     if (archive.getKind(row) == ColumnarArchiveWriter.KIND_BOX)
+ *         sum += archive.getFontSize(row);
+ * </pre>
+ *
+ * The numeric columns are limited to 2 GB each (about 268 million rows).
+ *
+ * @author agent
+ */
+public class ColumnarArchive
+{
+    private static final Box.Type[] BOX_TYPES = Box.Type.values();
+    private static final int TEXT_SEGMENT_SIZE = 1 << 30;
+
+    private final int rowCount;
+    private final List<String> pages;
+    private final IntBuffer page, parent, x1, y1, x2, y2;
+    private final ByteBuffer kind, type;
+    private final FloatBuffer fontSize, fontWeight;
+    private final LongBuffer textOffset;
+    private final ByteBuffer[] text;
+
+
+    private ColumnarArchive(Path dir) throws IOException
+    {
+        Properties meta = new Properties();
+        try (Reader r = Files.newBufferedReader(dir.resolve(ColumnarArchiveWriter.META_FILE), StandardCharsets.UTF_8)) {
+            meta.load(r);
+        }
+        rowCount = Integer.parseInt(meta.getProperty("rows"));
+        pages = Files.readAllLines(dir.resolve(ColumnarArchiveWriter.PAGES_FILE), StandardCharsets.UTF_8);
+        page = map(dir, ColumnarArchiveWriter.COL_PAGE).asIntBuffer();
+        parent = map(dir, ColumnarArchiveWriter.COL_PARENT).asIntBuffer();
+        kind = map(dir, ColumnarArchiveWriter.COL_KIND);
+        type = map(dir, ColumnarArchiveWriter.COL_TYPE);
+        x1 = map(dir, ColumnarArchiveWriter.COL_X1).asIntBuffer();
+        y1 = map(dir, ColumnarArchiveWriter.COL_Y1).asIntBuffer();
+        x2 = map(dir, ColumnarArchiveWriter.COL_X2).asIntBuffer();
+        y2 = map(dir, ColumnarArchiveWriter.COL_Y2).asIntBuffer();
+        fontSize = map(dir, ColumnarArchiveWriter.COL_FONT_SIZE).asFloatBuffer();
+        fontWeight = map(dir, ColumnarArchiveWriter.COL_FONT_WEIGHT).asFloatBuffer();
+        textOffset = map(dir, ColumnarArchiveWriter.COL_TEXT).asLongBuffer();
+        text = mapSegments(dir.resolve(ColumnarArchiveWriter.TEXT_FILE));
+    }
+
+    /**
+     * Opens an existing archive.
+     *
+     * @param dir the archive directory
+     * @return the archive
+     * @throws IOException
+     */
+    public static ColumnarArchive open(Path dir) throws IOException
+    {
+        return new ColumnarArchive(dir);
+    }
+
+    public int getRowCount()
+    {
+        return rowCount;
+    }
+
+    public int getPageCount()
+    {
+        return pages.size();
+    }
+
+    /**
+     * Returns the source URL of the given page.
+     *
+     * @param pageIndex the page index
+     * @return the source URL
+     */
+    public String getPageURL(int pageIndex)
+    {
+        return pages.get(pageIndex);
+    }
+
+    public int getPage(int row)
+    {
+        return page.get(row);
+    }
+
+    /**
+     * Returns the row of the parent box or area.
+     *
+     * @param row the row index
+     * @return the parent row index or -1 for the root nodes
+     */
+    public int getParent(int row)
+    {
+        return parent.get(row);
+    }
+
+    /**
+     * Returns the row kind: {@link ColumnarArchiveWriter#KIND_BOX} or {@link ColumnarArchiveWriter#KIND_AREA}.
+     *
+     * @param row the row index
+     * @return the row kind
+     */
+    public byte getKind(int row)
+    {
+        return kind.get(row);
+    }
+
+    /**
+     * Returns the box type of the row.
+     *
+     * @param row the row index
+     * @return the box type or {@code null} for the areas
+     */
+    public Box.Type getType(int row)
+    {
+        final int t = type.get(row);
+        return (t >= 0 && t < BOX_TYPES.length) ? BOX_TYPES[t] : null;
+    }
+
+    public int getX1(int row)
+    {
+        return x1.get(row);
+    }
+
+    public int getY1(int row)
+    {
+        return y1.get(row);
+    }
+
+    public int getX2(int row)
+    {
+        return x2.get(row);
+    }
+
+    public int getY2(int row)
+    {
+        return y2.get(row);
+    }
+
+    public float getFontSize(int row)
+    {
+        return fontSize.get(row);
+    }
+
+    public float getFontWeight(int row)
+    {
+        return fontWeight.get(row);
+    }
+
+    /**
+     * Returns the length of the row text in UTF-8 bytes.
+     *
+     * @param row the row index
+     * @return the text length
+     */
+    public int getTextLength(int row)
+    {
+        return (int) (textOffset.get(row + 1) - textOffset.get(row));
+    }
+
+    /**
+     * Returns the row text.
+     *
+     * @param row the row index
+     * @return the text or an empty string when the row has no text
+     */
+    public String getText(int row)
+    {
+        final long start = textOffset.get(row);
+        final int len = (int) (textOffset.get(row + 1) - start);
+        if (len == 0)
+            return "";
+        final byte[] bytes = new byte[len];
+        for (int i = 0; i < len; )
+        {
+            final long pos = start + i;
+            final ByteBuffer segment = text[(int) (pos / TEXT_SEGMENT_SIZE)];
+            final int offset = (int) (pos % TEXT_SEGMENT_SIZE);
+            final int n = Math.min(len - i, segment.limit() - offset);
+            segment.duplicate().position(offset).get(bytes, i, n);
+            i += n;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    //=========================================================================================
+
+    private static ByteBuffer map(Path dir, String name) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(dir.resolve(name), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    private static ByteBuffer[] mapSegments(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final int count = (int) Math.max(1, (size + TEXT_SEGMENT_SIZE - 1) / TEXT_SEGMENT_SIZE);
+            ByteBuffer[] ret = new ByteBuffer[count];
+            for (int i = 0; i < count; i++)
+            {
+                final long start = (long) i * TEXT_SEGMENT_SIZE;
+                ret[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(TEXT_SEGMENT_SIZE, size - start));
+            }
+            return ret;
+        }
+    }
+
+}
@@ -0,0 +1,286 @@
+/**
+ * ColumnarArchiveWriter.java
+ *
+ * Created on 19. 10. 2026, 19:40:16 by agent
+ */
+package cz.vutbr.fit.layout.demo.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.ContentRect;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.model.Rectangular;
+import cz.vutbr.fit.layout.model.TextStyle;
+
+/**
+ * Writes the box and area attributes of many pages to a columnar archive. The archive is a directory
+ * that contains a separate file of primitive values for each attribute (column); the i-th value of each
+ * column describes the i-th row (a box or an area). The text of all the rows is stored in a single UTF-8
+ * file and the text column contains the offsets of the individual texts. The archive may be scanned
+ * using the {@link ColumnarArchive} reader.
+ *
+ * @author agent
+ */
+public class ColumnarArchiveWriter implements Closeable
+{
+    static final String META_FILE = "archive.properties";
+    static final String PAGES_FILE = "pages.txt";
+    static final String TEXT_FILE = "text.utf8";
+
+    static final String COL_PAGE = "page.i32";
+    static final String COL_PARENT = "parent.i32";
+    static final String COL_KIND = "kind.i8";
+    static final String COL_TYPE = "type.i8";
+    static final String COL_X1 = "x1.i32";
+    static final String COL_Y1 = "y1.i32";
+    static final String COL_X2 = "x2.i32";
+    static final String COL_Y2 = "y2.i32";
+    static final String COL_FONT_SIZE = "fontSize.f32";
+    static final String COL_FONT_WEIGHT = "fontWeight.f32";
+    static final String COL_TEXT = "text.i64";
+
+    /** The row kind of the boxes. */
+    public static final byte KIND_BOX = 0;
+    /** The row kind of the areas. */
+    public static final byte KIND_AREA = 1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path dir;
+    private final Writer pages;
+    private final Column page, parent, kind, type, x1, y1, x2, y2, fontSize, fontWeight, textOffset, text;
+    private int pageCount;
+    private int rowCount;
+    private long textLength;
+
+
+    /**
+     * Creates a new archive in the given directory. The existing archive files are overwritten.
+     *
+     * @param dir the archive directory
+     * @throws IOException
+     */
+    public ColumnarArchiveWriter(Path dir) throws IOException
+    {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        pages = Files.newBufferedWriter(dir.resolve(PAGES_FILE), StandardCharsets.UTF_8);
+        page = new Column(dir.resolve(COL_PAGE));
+        parent = new Column(dir.resolve(COL_PARENT));
+        kind = new Column(dir.resolve(COL_KIND));
+        type = new Column(dir.resolve(COL_TYPE));
+        x1 = new Column(dir.resolve(COL_X1));
+        y1 = new Column(dir.resolve(COL_Y1));
+        x2 = new Column(dir.resolve(COL_X2));
+        y2 = new Column(dir.resolve(COL_Y2));
+        fontSize = new Column(dir.resolve(COL_FONT_SIZE));
+        fontWeight = new Column(dir.resolve(COL_FONT_WEIGHT));
+        textOffset = new Column(dir.resolve(COL_TEXT));
+        text = new Column(dir.resolve(TEXT_FILE));
+        textOffset.putLong(0);
+    }
+
+    public int getPageCount()
+    {
+        return pageCount;
+    }
+
+    public int getRowCount()
+    {
+        return rowCount;
+    }
+
+    /**
+     * Adds all the boxes of a page to the archive.
+     *
+     * @param p the page
+     * @return the page index in the archive
+     * @throws IOException
+     */
+    public int addPage(Page p) throws IOException
+    {
+        final int pageIndex = addPageEntry(p.getSourceURL());
+        final Map<Box, Integer> rows = new IdentityHashMap<>();
+        ArrayDeque<Box> stack = new ArrayDeque<>();
+        stack.push(p.getRoot());
+        while (!stack.isEmpty())
+        {
+            final Box box = stack.pop();
+            final Integer parentRow = (box == p.getRoot()) ? null : rows.get(box.getParent());
+            final byte boxType = (byte) (box.getType() == null ? -1 : box.getType().ordinal());
+            final String boxText = (box.getType() == Box.Type.TEXT_CONTENT) ? box.getOwnText() : null;
+            rows.put(box, rowCount);
+            addRow(pageIndex, parentRow == null ? -1 : parentRow, KIND_BOX, boxType, box, boxText);
+            for (int i = box.getChildCount() - 1; i >= 0; i--)
+                stack.push(box.getChildAt(i));
+        }
+        return pageIndex;
+    }
+
+    /**
+     * Adds all the areas of an area tree to the archive. The leaf areas include their text.
+     *
+     * @param atree the area tree
+     * @param pageIndex the index of the corresponding page in the archive
+     * @throws IOException
+     */
+    public void addAreaTree(AreaTree atree, int pageIndex) throws IOException
+    {
+        final Map<Area, Integer> rows = new IdentityHashMap<>();
+        ArrayDeque<Area> stack = new ArrayDeque<>();
+        stack.push(atree.getRoot());
+        while (!stack.isEmpty())
+        {
+            final Area area = stack.pop();
+            final Integer parentRow = (area == atree.getRoot()) ? null : rows.get(area.getParent());
+            rows.put(area, rowCount);
+            addRow(pageIndex, parentRow == null ? -1 : parentRow, KIND_AREA, (byte) -1, area,
+                    area.isLeaf() ? area.getText() : null);
+            for (int i = area.getChildCount() - 1; i >= 0; i--)
+                stack.push(area.getChildAt(i));
+        }
+    }
+
+    /**
+     * Writes the remaining data and the archive metadata.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        pages.close();
+        for (Column col : new Column[] {page, parent, kind, type, x1, y1, x2, y2, fontSize, fontWeight, textOffset, text})
+            col.close();
+        Properties meta = new Properties();
+        meta.setProperty("rows", String.valueOf(rowCount));
+        meta.setProperty("pages", String.valueOf(pageCount));
+        meta.setProperty("textLength", String.valueOf(textLength));
+        try (Writer w = Files.newBufferedWriter(dir.resolve(META_FILE), StandardCharsets.UTF_8)) {
+            meta.store(w, "FitLayout columnar archive");
+        }
+    }
+
+    //=========================================================================================
+
+    private int addPageEntry(String url) throws IOException
+    {
+        pages.write(url == null ? "" : url);
+        pages.write('\n');
+        return pageCount++;
+    }
+
+    private void addRow(int pageIndex, int parentRow, byte rowKind, byte rowType, ContentRect rect, String rowText)
+            throws IOException
+    {
+        final Rectangular b = rect.getBounds();
+        final TextStyle style = rect.getTextStyle();
+        page.putInt(pageIndex);
+        parent.putInt(parentRow);
+        kind.put(rowKind);
+        type.put(rowType);
+        x1.putInt(b.getX1());
+        y1.putInt(b.getY1());
+        x2.putInt(b.getX2());
+        y2.putInt(b.getY2());
+        fontSize.putFloat(style == null ? 0 : style.getFontSize());
+        fontWeight.putFloat(style == null ? 0 : style.getFontWeight());
+        if (rowText != null)
+        {
+            final byte[] bytes = rowText.getBytes(StandardCharsets.UTF_8);
+            text.put(bytes);
+            textLength += bytes.length;
+        }
+        textOffset.putLong(textLength);
+        rowCount++;
+    }
+
+    //=========================================================================================
+
+    /**
+     * A column file written through a buffer.
+     */
+    private static class Column
+    {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        public Column(Path file) throws IOException
+        {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        public void put(byte value) throws IOException
+        {
+            ensure(1);
+            buffer.put(value);
+        }
+
+        public void putInt(int value) throws IOException
+        {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        public void putLong(long value) throws IOException
+        {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        public void putFloat(float value) throws IOException
+        {
+            ensure(4);
+            buffer.putFloat(value);
+        }
+
+        public void put(byte[] bytes) throws IOException
+        {
+            int offset = 0;
+            while (offset < bytes.length)
+            {
+                ensure(1);
+                final int len = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, len);
+                offset += len;
+            }
+        }
+
+        public void close() throws IOException
+        {
+            flush();
+            channel.close();
+        }
+
+        private void ensure(int bytes) throws IOException
+        {
+            if (buffer.remaining() < bytes)
+                flush();
+        }
+
+        private void flush() throws IOException
+        {
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            buffer.clear();
+        }
+    }
+
+}
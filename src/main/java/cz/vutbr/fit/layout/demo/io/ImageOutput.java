@@ -0,0 +1,287 @@
+/**
+ * ImageOutput.java
+ *
+ * Created on 20. 10. 2026, 10:02:58 by agent
+ */
+package cz.vutbr.fit.layout.demo.io;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
+
+import javax.imageio.ImageIO;
+
+import cz.vutbr.fit.layout.demo.TreeWalker;
+import cz.vutbr.fit.layout.demo.render.LazyScreenshot;
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Border;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.ContentImage;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.model.Rectangular;
+import cz.vutbr.fit.layout.model.TextStyle;
+
+/**
+ * Writes the page screenshots and the page model images to files. The files are written through
+ * a {@link FileChannel}:
+ * <ul>
+ * <li>The page screenshot is already PNG-encoded by the renderer; it is written as is without decoding
+ * and encoding it again.
+ * <li>When the area bounds should be drawn over the screenshot, the image is encoded using
+ * the {@link ParallelPNGEncoder} with the configured compression level.
+ * <li>The page model images are drawn to a {@link BufferedImage} and encoded using the {@link ParallelPNGEncoder}
+ * as well. The model image shows the backgrounds, borders, text and images of the visible boxes.
+ * </ul>
+ * In both the area images, only the bounds of the leaf areas are drawn.
+ *
+ * @author agent
+ */
+public class ImageOutput
+{
+    /** Fast compression for bulk jobs. */
+    public static final int FAST = Deflater.BEST_SPEED;
+    /** The default zlib compression. */
+    public static final int DEFAULT = 6;
+    /** No compression: the fastest output with the largest files. */
+    public static final int RAW = Deflater.NO_COMPRESSION;
+
+    private static final Color AREA_COLOR = new Color(255, 0, 0, 160);
+
+    private final ParallelPNGEncoder encoder;
+
+
+    /**
+     * Creates the output with the fast compression.
+     */
+    public ImageOutput()
+    {
+        this(FAST);
+    }
+
+    /**
+     * Creates the output with the given compression level.
+     *
+     * @param level the compression level: {@link #FAST}, {@link #DEFAULT}, {@link #RAW} or another zlib
+     * compression level
+     */
+    public ImageOutput(int level)
+    {
+        this.encoder = new ParallelPNGEncoder(level);
+    }
+
+    /**
+     * Writes the page screenshot to a PNG file without re-encoding.
+     *
+     * @param page the page rendered with a screenshot
+     * @param file the destination file
+     * @throws IOException when the file could not be written or the page has no screenshot
+     */
+    public void writeScreenshot(Page page, Path file) throws IOException
+    {
+        final byte[] png = page.getPngImage();
+        if (png == null)
+            throw new IOException("The page has no screenshot");
+        try (FileChannel channel = openChannel(file)) {
+            ByteBuffer buffer = ByteBuffer.wrap(png);
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    /**
+     * Writes a lazily obtained screenshot to a PNG file without re-encoding. The screenshot is captured
+     * when it has not been obtained yet.
+     *
+     * @param screenshot the screenshot handle
+     * @param file the destination file
+     * @throws IOException when the file could not be written or the screenshot could not be obtained
+     */
+    public void writeScreenshot(LazyScreenshot screenshot, Path file) throws IOException
+    {
+        try (FileChannel channel = openChannel(file)) {
+            screenshot.writeTo(channel);
+        }
+    }
+
+    /**
+     * Writes the page screenshot with the bounds of the leaf areas drawn over it.
+     *
+     * @param atree the area tree
+     * @param page the page rendered with a screenshot
+     * @param file the destination file
+     * @throws IOException when the file could not be written or the page has no screenshot
+     */
+    public void writeScreenshot(AreaTree atree, Page page, Path file) throws IOException
+    {
+        final byte[] png = page.getPngImage();
+        if (png == null)
+            throw new IOException("The page has no screenshot");
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null)
+            throw new IOException("Couldn't decode the page screenshot");
+        Graphics2D g = image.createGraphics();
+        drawAreas(g, atree);
+        g.dispose();
+        writePNG(image, file);
+    }
+
+    /**
+     * Encodes an image to a PNG file.
+     *
+     * @param image the image
+     * @param file the destination file
+     * @throws IOException
+     */
+    public void writePNG(BufferedImage image, Path file) throws IOException
+    {
+        try (FileChannel channel = openChannel(file)) {
+            encoder.encode(image, channel);
+        }
+    }
+
+    /**
+     * Writes the image of the internal page model to a PNG file.
+     *
+     * @param page the page
+     * @param file the destination file
+     * @throws IOException
+     */
+    public void writeModel(Page page, Path file) throws IOException
+    {
+        BufferedImage image = createImage(page);
+        Graphics2D g = image.createGraphics();
+        drawPage(g, page);
+        g.dispose();
+        writePNG(image, file);
+    }
+
+    /**
+     * Writes the image of the internal area tree model to a PNG file: the page model image
+     * with the bounds of the leaf areas drawn over it.
+     *
+     * @param atree the area tree
+     * @param page the corresponding page
+     * @param file the destination file
+     * @throws IOException
+     */
+    public void writeModel(AreaTree atree, Page page, Path file) throws IOException
+    {
+        BufferedImage image = createImage(page);
+        Graphics2D g = image.createGraphics();
+        drawPage(g, page);
+        drawAreas(g, atree);
+        g.dispose();
+        writePNG(image, file);
+    }
+
+    //=========================================================================================
+
+    private static BufferedImage createImage(Page page) throws IOException
+    {
+        if (page.getWidth() <= 0 || page.getHeight() <= 0)
+            throw new IOException("Invalid page size " + page.getWidth() + " x " + page.getHeight());
+        return new BufferedImage(page.getWidth(), page.getHeight(), BufferedImage.TYPE_INT_RGB);
+    }
+
+    private static void drawPage(Graphics2D g, Page page)
+    {
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, page.getWidth(), page.getHeight());
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        new TreeWalker<Box>().filter(Box::isVisible).preOrder(page.getRoot(), box -> drawBox(g, box));
+    }
+
+    private static void drawBox(Graphics2D g, Box box)
+    {
+        final Rectangular b = box.getVisualBounds() != null ? box.getVisualBounds() : box.getBounds();
+        if (box.getBackgroundColor() != null)
+        {
+            g.setColor(box.getBackgroundColor());
+            g.fillRect(b.getX1(), b.getY1(), b.getWidth(), b.getHeight());
+        }
+        for (Border.Side side : Border.Side.values())
+            drawBorder(g, box, side, b);
+
+        final Rectangular cb = box.getContentBounds() != null ? box.getContentBounds() : box.getBounds();
+        if (box.getType() == Box.Type.TEXT_CONTENT && box.getOwnText() != null)
+        {
+            g.setFont(getFont(box));
+            g.setColor(box.getColor() != null ? box.getColor() : Color.BLACK);
+            g.drawString(box.getOwnText(), cb.getX1(), cb.getY1() + g.getFontMetrics().getAscent());
+        }
+        else if (box.getType() == Box.Type.REPLACED_CONTENT && box.getContentObject() instanceof ContentImage)
+        {
+            final byte[] png = ((ContentImage) box.getContentObject()).getPngData();
+            if (png != null)
+            {
+                try {
+                    final BufferedImage img = ImageIO.read(new ByteArrayInputStream(png));
+                    if (img != null)
+                        g.drawImage(img, cb.getX1(), cb.getY1(), cb.getWidth(), cb.getHeight(), null);
+                } catch (IOException e) {
+                    // the image is informative only, leave the space empty
+                }
+            }
+        }
+    }
+
+    private static void drawBorder(Graphics2D g, Box box, Border.Side side, Rectangular b)
+    {
+        final Border border = box.getBorderStyle(side);
+        if (border == null || border.getWidth() <= 0 || border.getColor() == null)
+            return;
+        final int w = border.getWidth();
+        g.setColor(border.getColor());
+        switch (side)
+        {
+            case TOP:
+                g.fillRect(b.getX1(), b.getY1(), b.getWidth(), w);
+                break;
+            case BOTTOM:
+                g.fillRect(b.getX1(), b.getY2() - w + 1, b.getWidth(), w);
+                break;
+            case LEFT:
+                g.fillRect(b.getX1(), b.getY1(), w, b.getHeight());
+                break;
+            case RIGHT:
+                g.fillRect(b.getX2() - w + 1, b.getY1(), w, b.getHeight());
+                break;
+        }
+    }
+
+    private static Font getFont(Box box)
+    {
+        final TextStyle style = box.getTextStyle();
+        final String family = box.getFontFamily() != null ? box.getFontFamily() : Font.SANS_SERIF;
+        if (style == null)
+            return new Font(family, Font.PLAIN, 12);
+        final int flags = (style.getFontWeight() >= 0.5f ? Font.BOLD : 0) | (style.getFontStyle() >= 0.5f ? Font.ITALIC : 0);
+        return new Font(family, flags, Math.max(1, Math.round(style.getFontSize())));
+    }
+
+    private static void drawAreas(Graphics2D g, AreaTree atree)
+    {
+        g.setColor(AREA_COLOR);
+        new TreeWalker<Area>().filter(TreeWalker.leaves()).preOrder(atree.getRoot(), area -> {
+            final Rectangular b = area.getBounds();
+            g.drawRect(b.getX1(), b.getY1(), b.getWidth() - 1, b.getHeight() - 1);
+        });
+    }
+
+    private static FileChannel openChannel(Path file) throws IOException
+    {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+}
@@ -0,0 +1,206 @@
+/**
+ * PDFBatchAnalyzer.java
+ *
+ * Created on 18. 10. 2026, 9:12:40 by agent
+ */
+package cz.vutbr.fit.layout.demo.layout;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.demo.OutputUtils;
+import cz.vutbr.fit.layout.demo.io.ChannelWriter;
+import cz.vutbr.fit.layout.model.AreaTree;
+
+/**
+ * Runs the {@link PDFLayoutAnalyzer} pipeline over a whole set of PDF documents within a single JVM.
+ * The documents are taken from a directory (all the *.pdf files) or from a manifest file that
+ * contains a single file name or URL per line. The documents are processed by a bounded pool
+ * of worker threads and the result of each document is written to a separate text file
+ * in the output directory.
+ *
+ * @author agent
+ */
+public class PDFBatchAnalyzer
+{
+    private final Path outputDir;
+    private final String format;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+
+    /**
+     * Creates a new batch analyzer.
+     *
+     * @param outputDir the directory where the output files will be created
+     * @param format the output format (see {@link PDFLayoutAnalyzer#createOutput(String, Appendable)})
+     * @param threads the number of worker threads
+     */
+    public PDFBatchAnalyzer(Path outputDir, String format, int threads)
+    {
+        this.outputDir = outputDir;
+        this.format = format;
+        // the queue is bounded so that we don't read the whole manifest in advance; when the queue
+        // is full, the submitting thread processes the document itself
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public int getProcessedCount()
+    {
+        return processed.get();
+    }
+
+    public int getFailedCount()
+    {
+        return failed.get();
+    }
+
+    /**
+     * Schedules a single document for processing.
+     *
+     * @param source the source file name or URL
+     */
+    public void submit(String source)
+    {
+        executor.execute(() -> process(source));
+    }
+
+    /**
+     * Waits until all the submitted documents are processed and stops the worker threads.
+     *
+     * @throws InterruptedException
+     */
+    public void finish() throws InterruptedException
+    {
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Analyzes a single document and writes the result to the corresponding output file.
+     *
+     * @param source the source file name or URL
+     */
+    protected void process(String source)
+    {
+        try {
+            URL url = new URL(OutputUtils.toURLString(source));
+            AreaTree atree = PDFLayoutAnalyzer.analyze(url);
+
+            Path outFile = outputDir.resolve(getOutputName(url, format));
+            try (Writer w = ChannelWriter.create(outFile)) {
+                var out = PDFLayoutAnalyzer.createOutput(format, w);
+                PDFLayoutAnalyzer.printAreas(atree.getRoot(), out);
+                out.finish();
+                if (format.equals("text"))
+                    w.write(System.lineSeparator());
+            }
+            processed.incrementAndGet();
+        } catch (IOException | SAXException | RuntimeException e) {
+            failed.incrementAndGet();
+            System.err.println(source + ": " + e.getMessage());
+        }
+    }
+
+    //=========================================================================================
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        String format = "text";
+        if (args.length >= 2 && args[0].equals("-f"))
+        {
+            format = args[1];
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
+        if (args.length < 2 || args.length > 3 || !PDFLayoutAnalyzer.isSupportedFormat(format))
+        {
+            System.out.println("Usage: PDFBatchAnalyzer [-f text|csv|jsonl] <directory>|<manifest> <output directory> [threads]");
+            System.exit(1);
+        }
+        Path input = Paths.get(args[0]);
+        Path outputDir = Paths.get(args[1]);
+        int threads = (args.length == 3) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        try {
+            Files.createDirectories(outputDir);
+            var batch = new PDFBatchAnalyzer(outputDir, format, threads);
+
+            long startTime = System.nanoTime();
+            try (Stream<String> sources = listSources(input)) {
+                sources.forEach(batch::submit);
+            }
+            batch.finish();
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+
+            System.out.println("Processed: " + batch.getProcessedCount() + " documents, "
+                    + batch.getFailedCount() + " failed");
+            System.out.printf("Time: %.1f s, %.2f docs/sec using %d threads%n",
+                    seconds, batch.getProcessedCount() / seconds, threads);
+
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Lists the source documents: all the PDF files when the input is a directory or all the
+     * non-empty lines (except the comments starting with #) when the input is a manifest file.
+     *
+     * @param input the input directory or manifest file
+     * @return a stream of source file names or URLs
+     * @throws IOException
+     */
+    public static Stream<String> listSources(Path input) throws IOException
+    {
+        if (Files.isDirectory(input))
+        {
+            return Files.list(input)
+                    .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".pdf"))
+                    .sorted()
+                    .map(Path::toString);
+        }
+        else
+        {
+            return Files.lines(input)
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"));
+        }
+    }
+
+    /**
+     * Creates the output file name for the given source document and output format. The name
+     * consists of the document file name and a hash of the whole URL, so that the documents
+     * with the same file name in different directories are written to different files.
+     */
+    public static String getOutputName(URL url, String format)
+    {
+        String path = url.getPath();
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        if (name.toLowerCase().endsWith(".pdf"))
+            name = name.substring(0, name.length() - 4);
+        if (name.isEmpty())
+            name = "document";
+        return name + "-" + OutputUtils.hashURL(url) + (format.equals("text") ? ".txt" : "." + format);
+    }
+
+}
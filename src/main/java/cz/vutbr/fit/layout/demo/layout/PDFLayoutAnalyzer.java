@@ -6,12 +6,21 @@
 package cz.vutbr.fit.layout.demo.layout;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
 
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.xml.sax.SAXException;
 
+import cz.vutbr.fit.layout.demo.TreeWalker;
+import cz.vutbr.fit.layout.demo.io.ChannelWriter;
+import cz.vutbr.fit.layout.demo.metrics.PipelineMetrics;
 import cz.vutbr.fit.layout.model.Area;
 import cz.vutbr.fit.layout.model.AreaTree;
 import cz.vutbr.fit.layout.model.Page;
@@ -27,6 +36,7 @@ import cz.vutbr.fit.layout.segm.op.SortByPositionOperator;
  * <li>Sorting boxes by their coordinates
  * <li>Joining boxes that form a single line
  * <li>Finding significant text flow changes - new lines and horizontal spaces to separate data fields.
+ * <li>Optionally detecting the tables (see {@link TableDetector}).
  * </ul>
  * 
  * @author burgetr
@@ -39,44 +49,63 @@ public class PDFLayoutAnalyzer
      */
     public static void main(String[] args)
     {
-        if (args.length != 1)
+        String format = "text";
+        String tableFile = null;
+        int argi = 0;
+        while (argi < args.length - 1)
         {
-            System.out.println("Usage: PDFLayoutAnaylzer <filename>|<url>");
+            if (args[argi].equals("-f"))
+            {
+                format = args[argi + 1];
+                argi += 2;
+            }
+            else if (args[argi].equals("-t"))
+            {
+                tableFile = args[argi + 1];
+                argi += 2;
+            }
+            else
+                break;
+        }
+        if (args.length - argi != 1 || !isSupportedFormat(format))
+        {
+            System.out.println("Usage: PDFLayoutAnaylzer [-f text|csv|jsonl] [-t <tablefile>] <filename>|<url>");
+            System.out.println("  -t  detect the tables and write them to <tablefile> in the selected format");
             System.exit(1);
         }
-        String urlString = args[0];
+        String urlString = args[argi];
         if (!urlString.contains("://"))
             urlString = "file://" + urlString;
         
+        // collect the stage metrics (exported when the fitlayout.metrics property is set)
+        var metrics = new PipelineMetrics("PDFLayoutAnalyzer");
         try {
             URL url = new URL(urlString);
             
-            // setup the renderer: we render all pages with the zoom 1.5
-            var renderer = new PDFBoxTreeProvider(url, true, false, 1.5f, 0, Integer.MAX_VALUE);
-            
-            // 1. perform page rendering
-            Page page = renderer.getPage();
-            
-            // 2. restructure the box tree by visual nesting of boxes
-            var visualProvider = new VisualBoxTreeProvider();
-            Page visualPage = (Page) visualProvider.process(page);
-            
-            // 3. identify basic visual areas
-            var segm = new BasicSegmProvider(true);
-            AreaTree atree = segm.createAreaTree(visualPage);
-            
-            // 4. area tree postprocessing using the built-in FitLayout operators
-            // a. sort areas by their coordinates
-            var sortOp = new SortByPositionOperator();
-            sortOp.apply(atree);
-            
-            // b. detect lines
-            var linesOp = new FindLineOperator(true, false, 0.9f);
-            linesOp.apply(atree);
+            // 1-4. render the document and analyze its layout
+            AreaTree atree = analyze(url, 0, Integer.MAX_VALUE, metrics);
             
             // 5. format leaf areas to stdout
-            var out = new AreaOutput(System.out);
+            var output = metrics.start("output");
+            // the writer is only flushed, closing it would close the standard output
+            var stdout = ChannelWriter.stdout();
+            var out = createOutput(format, stdout);
             printAreas(atree.getRoot(), out);
+            out.finish();
+            stdout.flush();
+            output.end();
+            
+            // 6. optionally detect the tables and write them to a separate file
+            if (tableFile != null)
+            {
+                var stage = metrics.start("tables");
+                List<TableDetector.Table> result = new TableDetector().detect(atree);
+                stage.end();
+                try (var tout = Files.newBufferedWriter(Paths.get(tableFile))) {
+                    printTables(result, format, tout);
+                }
+            }
+            metrics.exportIfRequested();
             
         } catch (MalformedURLException e) {
             System.err.println(e.getMessage());
@@ -87,25 +116,215 @@ public class PDFLayoutAnalyzer
         }
     }
 
+    /**
+     * Renders the given PDF document and performs the basic layout analysis (visual box tree
+     * construction, basic segmentation, sorting and line detection).
+     * 
+     * @param url the source document URL
+     * @return the resulting area tree
+     * @throws IOException
+     * @throws SAXException
+     */
+    public static AreaTree analyze(URL url) throws IOException, SAXException
+    {
+        return analyze(url, 0, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Renders the given page range of a PDF document and performs the basic layout analysis.
+     * 
+     * @param url the source document URL
+     * @param startPage the first page to render (starting with 0)
+     * @param endPage the last page to render (inclusive)
+     * @return the resulting area tree
+     * @throws IOException
+     * @throws SAXException
+     */
+    public static AreaTree analyze(URL url, int startPage, int endPage) throws IOException, SAXException
+    {
+        return analyze(url, startPage, endPage, PipelineMetrics.disabled());
+    }
+    
+    /**
+     * Renders the given page range of a PDF document and performs the basic layout analysis.
+     * The duration and resource consumption of the individual stages are recorded.
+     * 
+     * @param url the source document URL
+     * @param startPage the first page to render (starting with 0)
+     * @param endPage the last page to render (inclusive)
+     * @param metrics the metrics used for recording the stages
+     * @return the resulting area tree
+     * @throws IOException
+     * @throws SAXException
+     */
+    public static AreaTree analyze(URL url, int startPage, int endPage, PipelineMetrics metrics)
+            throws IOException, SAXException
+    {
+        // setup the renderer: we render the given pages with the zoom 1.5
+        var renderer = new PDFBoxTreeProvider(url, true, false, 1.5f, startPage, endPage);
+        
+        // 1. perform page rendering
+        var stage = metrics.start("render");
+        Page page = renderer.getPage();
+        stage.end(page);
+        
+        // 2. restructure the box tree by visual nesting of boxes
+        stage = metrics.start("visual");
+        var visualProvider = new VisualBoxTreeProvider();
+        Page visualPage = (Page) visualProvider.process(page);
+        stage.end(visualPage);
+        
+        // 3. identify basic visual areas
+        stage = metrics.start("segmentation");
+        var segm = new BasicSegmProvider(true);
+        AreaTree atree = segm.createAreaTree(visualPage);
+        stage.end(atree);
+        
+        // 4. area tree postprocessing using the built-in FitLayout operators
+        // a. sort areas by their coordinates
+        stage = metrics.start("sort");
+        var sortOp = new SortByPositionOperator();
+        sortOp.apply(atree);
+        stage.end();
+        
+        // b. detect lines
+        stage = metrics.start("lines");
+        var linesOp = new FindLineOperator(true, false, 0.9f);
+        linesOp.apply(atree);
+        stage.end(atree);
+        
+        return atree;
+    }
+
+    /**
+     * Obtains the number of pages of a PDF document.
+     * 
+     * @param url the source document URL
+     * @return the number of pages
+     * @throws IOException
+     */
+    public static int getPageCount(URL url) throws IOException
+    {
+        try (InputStream is = url.openStream(); PDDocument doc = PDDocument.load(is)) {
+            return doc.getNumberOfPages();
+        }
+    }
+
+    /**
+     * Checks whether the given output format name is supported by {@link #createOutput(String, Appendable)}.
+     * 
+     * @param format the format name
+     * @return {@code true} for the supported formats
+     */
+    public static boolean isSupportedFormat(String format)
+    {
+        return format.equals("text") || format.equals("csv") || format.equals("jsonl");
+    }
+    
+    /**
+     * Creates an output formatter for the given format.
+     * 
+     * @param format the format name: {@code text} for the plain text output (see {@link AreaOutput}),
+     * {@code csv} or {@code jsonl} for one record per line (see {@link RecordOutput}).
+     * @param out the destination
+     * @return the output formatter
+     */
+    public static AreaFormatter createOutput(String format, Appendable out)
+    {
+        switch (format)
+        {
+            case "csv":
+                return new RecordOutput(out, RecordOutput.Format.CSV);
+            case "jsonl":
+                return new RecordOutput(out, RecordOutput.Format.JSONL);
+            case "text":
+                return new AreaOutput(out);
+            default:
+                throw new IllegalArgumentException("Unsupported output format: " + format);
+        }
+    }
+    
     /**
      * Prints the leaf areas of the given subtree.
      * 
      * @param root Subtree root
      * @param out The output formatter used for printing the areas.
      */
-    public static void printAreas(Area root, AreaOutput out)
+    public static void printAreas(Area root, AreaFormatter out)
     {
-        if (root.isLeaf())
+        // skip separators and empty boxes
+        new TreeWalker<Area>().filter(TreeWalker.nonBlankLeafAreas()).preOrder(root, out::printArea);
+    }
+    
+    /**
+     * Prints the detected tables in the given output format: {@code text} for the plain text tables
+     * (see {@link #printTables(List, Appendable)}), {@code csv} or {@code jsonl} for one record per table
+     * row (see {@link RecordOutput#printTable(int, TableDetector.Table)}).
+     * 
+     * @param tables the tables to print
+     * @param format the format name
+     * @param out the destination
+     * @throws IOException
+     */
+    public static void printTables(List<TableDetector.Table> tables, String format, Appendable out) throws IOException
+    {
+        switch (format)
         {
-            if (!root.getText().isBlank()) // skip separators and empty boxes
-                out.printArea(root);
+            case "csv":
+            case "jsonl":
+                var rout = RecordOutput.forTables(out, format.equals("csv") ? RecordOutput.Format.CSV : RecordOutput.Format.JSONL);
+                int i = 1;
+                for (var table : tables)
+                    rout.printTable(i++, table);
+                break;
+            case "text":
+                printTables(tables, out);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported output format: " + format);
         }
-        else
+    }
+    
+    /**
+     * Prints the detected tables as plain text.
+     * 
+     * @param tables the tables to print
+     * @param out the destination
+     * @throws IOException
+     */
+    public static void printTables(List<TableDetector.Table> tables, Appendable out) throws IOException
+    {
+        int i = 1;
+        for (var table : tables)
+        {
+            var b = table.getBounds();
+            out.append(System.lineSeparator());
+            out.append("Table " + (i++) + ": " + table.getRowCount() + " rows, " + table.getColumnCount()
+                    + " columns at [" + b.getX1() + ", " + b.getY1() + ", " + b.getX2() + ", " + b.getY2() + "]");
+            out.append(System.lineSeparator());
+            table.print(out);
+        }
+    }
+    
+    /**
+     * An output formatter that receives the leaf areas in the reading order.
+     * 
+     * @author agent
+     */
+    public interface AreaFormatter
+    {
+        /**
+         * Prints a single leaf area.
+         * 
+         * @param a the area to print
+         */
+        public void printArea(Area a);
+        
+        /**
+         * Completes the output after the last area has been printed.
+         */
+        public default void finish()
         {
-            for (var child : root.getChildren())
-            {
-                printAreas(child, out);
-            }
         }
     }
     
@@ -113,51 +332,60 @@ public class PDFLayoutAnalyzer
      * A simple output formatter that detects changes in the X and Y coordinates of the areas
      * and tries to resemble it using field and line separators. 
      * 
+     * The output may be any {@link Appendable} such as a {@link PrintStream} or an unsynchronized
+     * buffered writer (see {@link cz.vutbr.fit.layout.demo.io.ChannelWriter}).
+     * 
      * @author burgetr
      */
-    public static class AreaOutput
+    public static class AreaOutput implements AreaFormatter
     {
         private static final String FIELD_SEPARATOR = " | ";
+        private static final String LINE_SEPARATOR = System.lineSeparator();
         
-        private PrintStream out;
+        private Appendable out;
         private int lastX = 0;
         private int lastY = 0;
 
-        public AreaOutput(PrintStream out)
+        public AreaOutput(Appendable out)
         {
             this.out = out;
         }
         
+        @Override
         public void printArea(Area a)
         {
-            var bounds = a.getBounds();
-            var em = a.getTextStyle().getFontSize();
-            // end the line when the Y coordinate changes significantly 
-            var difY = bounds.getY1() - lastY;
-            if (difY > 0.25f * bounds.getHeight())
-            {
-                out.println();
-                lastX = 0;
+            try {
+                var bounds = a.getBounds();
+                var em = a.getTextStyle().getFontSize();
+                // end the line when the Y coordinate changes significantly 
+                var difY = bounds.getY1() - lastY;
+                if (difY > 0.25f * bounds.getHeight())
+                {
+                    out.append(LINE_SEPARATOR);
+                    lastX = 0;
+                }
+                // print the field separator when the X coordinate changes significantly
+                var difX = bounds.getX1() - lastX;
+                if (difX > 1.0f * em)
+                {
+                    out.append(FIELD_SEPARATOR);
+                }
+                // print space when the X coordinate changes a bit
+                else if (difX > 0.3f * em)
+                {
+                    out.append(' ');
+                }
+                // print the contents
+                if (a.getTextStyle().getFontWeight() > 0.75f)
+                    out.append('*').append(a.getText()).append('*'); // "bold" text
+                else
+                    out.append(a.getText()); // "normal" text
+                
+                lastX = bounds.getX2();
+                lastY = bounds.getY1();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-            // print the field separator when the X coordinate changes significantly
-            var difX = bounds.getX1() - lastX;
-            if (difX > 1.0f * em)
-            {
-                out.print(FIELD_SEPARATOR);
-            }
-            // print space when the X coordinate changes a bit
-            else if (difX > 0.3f * em)
-            {
-                out.print(" ");
-            }
-            // print the contents
-            if (a.getTextStyle().getFontWeight() > 0.75f)
-                out.print("*" + a.getText() + "*"); // "bold" text
-            else
-                out.print(a.getText()); // "normal" text
-            
-            lastX = bounds.getX2();
-            lastY = bounds.getY1();
         }
         
     }
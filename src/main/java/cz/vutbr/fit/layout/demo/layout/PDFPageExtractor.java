@@ -0,0 +1,91 @@
+/**
+ * PDFPageExtractor.java
+ *
+ * Created on 21. 10. 2026, 9:10:24 by agent
+ */
+package cz.vutbr.fit.layout.demo.layout;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.Splitter;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+/**
+ * Loads a PDF document once and extracts its page ranges to small temporary documents.
+ * The page ranges may then be rendered by {@link PDFLayoutAnalyzer#analyze(URL)} independently
+ * (and in parallel) without downloading and parsing the whole source document for each range.
+ *
+ * The source document is kept open until {@link #close()}; the objects that do not fit
+ * in 64 MB of memory are kept in a scratch file. The extraction itself is sequential (PDFBox documents
+ * are not thread-safe), only the rendering of the extracted ranges may run in parallel. The caller
+ * deletes the extracted files when they are no longer needed.
+ *
+ * @author agent
+ */
+public class PDFPageExtractor implements Closeable
+{
+    private static final long MAX_MAIN_MEMORY = 64L * 1024 * 1024;
+
+    private final PDDocument document;
+
+
+    /**
+     * Downloads and parses the source document.
+     *
+     * @param url the source document URL
+     * @throws IOException
+     */
+    public PDFPageExtractor(URL url) throws IOException
+    {
+        try (InputStream is = url.openStream()) {
+            document = PDDocument.load(is, MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY));
+        }
+    }
+
+    public int getPageCount()
+    {
+        return document.getNumberOfPages();
+    }
+
+    /**
+     * Extracts a page range to a temporary PDF file.
+     *
+     * @param startPage the first page (starting with 0)
+     * @param endPage the last page (inclusive)
+     * @return the temporary file that contains the page range
+     * @throws IOException
+     */
+    public synchronized Path extract(int startPage, int endPage) throws IOException
+    {
+        final Splitter splitter = new Splitter();
+        splitter.setStartPage(startPage + 1); // PDFBox numbers the pages from 1
+        splitter.setEndPage(endPage + 1);
+        splitter.setSplitAtPage(endPage - startPage + 1);
+        final List<PDDocument> parts = splitter.split(document);
+        final Path file = Files.createTempFile("fitlayout-pages", ".pdf");
+        try {
+            parts.get(0).save(file.toFile());
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        } finally {
+            for (PDDocument part : parts)
+                part.close();
+        }
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        document.close();
+    }
+
+}
@@ -0,0 +1,192 @@
+/**
+ * PDFShardedAnalyzer.java
+ *
+ * Created on 18. 10. 2026, 10:03:15 by agent
+ */
+package cz.vutbr.fit.layout.demo.layout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.model.AreaTree;
+
+/**
+ * Performs the same analysis as {@link PDFLayoutAnalyzer} for large documents. The document
+ * is loaded once and split to shards (page ranges) by the {@link PDFPageExtractor}; the shards
+ * are rendered and analyzed in parallel. The text output of the shards is then printed in the original
+ * page order.
+ *
+ * Only a limited number of shards is processed at the same time so that the peak memory
+ * consumption does not depend on the document length.
+ *
+ * @author agent
+ */
+public class PDFShardedAnalyzer
+{
+    private final URL url;
+    private final int pagesPerShard;
+    private final int threads;
+
+
+    /**
+     * Creates a new analyzer.
+     *
+     * @param url the source document URL
+     * @param pagesPerShard the number of pages in a single shard
+     * @param threads the number of worker threads
+     * @throws IllegalArgumentException when the number of pages or threads is not positive
+     */
+    public PDFShardedAnalyzer(URL url, int pagesPerShard, int threads)
+    {
+        if (pagesPerShard < 1 || threads < 1)
+            throw new IllegalArgumentException("The number of pages per shard and threads must be positive");
+        this.url = url;
+        this.pagesPerShard = pagesPerShard;
+        this.threads = threads;
+    }
+
+    /**
+     * Analyzes the whole document and prints the results to the given output stream.
+     *
+     * @param out the output stream
+     * @throws IOException
+     * @throws SAXException
+     * @throws InterruptedException
+     */
+    public void analyze(PrintStream out) throws IOException, SAXException, InterruptedException
+    {
+        final int window = threads * 2; // max number of shards being processed or waiting for output
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Deque<Path> shardFiles = new ArrayDeque<>();
+        // the document is downloaded and parsed once; the shards are extracted from it
+        try (PDFPageExtractor extractor = new PDFPageExtractor(url)) {
+            final int pageCount = extractor.getPageCount();
+            Deque<Future<String>> pending = new ArrayDeque<>();
+            int nextPage = 0;
+            while (nextPage < pageCount || !pending.isEmpty())
+            {
+                // keep the window of running shards full
+                while (nextPage < pageCount && pending.size() < window)
+                {
+                    final int endPage = Math.min(nextPage + pagesPerShard, pageCount) - 1;
+                    final Path shard = extractor.extract(nextPage, endPage);
+                    shardFiles.add(shard);
+                    pending.add(executor.submit(() -> analyzeShard(shard)));
+                    nextPage = endPage + 1;
+                }
+                // print the oldest shard when ready
+                out.print(pending.poll().get());
+                shardFiles.poll();
+            }
+            out.println();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            else if (cause instanceof SAXException)
+                throw (SAXException) cause;
+            else
+                throw new RuntimeException(cause);
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            // remove the shards that have not been processed
+            for (Path shard : shardFiles)
+                Files.deleteIfExists(shard);
+        }
+    }
+
+    /**
+     * Analyzes a single shard of the document. The shard file is deleted afterwards.
+     *
+     * @param shard the PDF file that contains the pages of the shard
+     * @return the text output of the shard
+     * @throws IOException
+     * @throws SAXException
+     */
+    protected String analyzeShard(Path shard) throws IOException, SAXException
+    {
+        AreaTree atree;
+        try {
+            atree = PDFLayoutAnalyzer.analyze(shard.toUri().toURL());
+        } finally {
+            Files.deleteIfExists(shard);
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream ps = new PrintStream(buffer, false, "UTF-8")) {
+            var out = new PDFLayoutAnalyzer.AreaOutput(ps);
+            PDFLayoutAnalyzer.printAreas(atree.getRoot(), out);
+        }
+        return toString(buffer);
+    }
+
+    private static String toString(ByteArrayOutputStream buffer)
+    {
+        try {
+            return buffer.toString("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e); // UTF-8 is always supported
+        }
+    }
+
+    //=========================================================================================
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        int pagesPerShard = 20;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean valid = args.length >= 1 && args.length <= 3;
+        try {
+            if (args.length >= 2)
+                pagesPerShard = Integer.parseInt(args[1]);
+            if (args.length >= 3)
+                threads = Integer.parseInt(args[2]);
+        } catch (NumberFormatException e) {
+            valid = false;
+        }
+        if (!valid || pagesPerShard < 1 || threads < 1)
+        {
+            System.out.println("Usage: PDFShardedAnalyzer <filename>|<url> [pages per shard] [threads]");
+            System.out.println("  the number of pages per shard and threads must be positive");
+            System.exit(1);
+        }
+        String urlString = args[0];
+        if (!urlString.contains("://"))
+            urlString = "file://" + urlString;
+
+        try {
+            URL url = new URL(urlString);
+            var analyzer = new PDFShardedAnalyzer(url, pagesPerShard, threads);
+            analyzer.analyze(System.out);
+
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
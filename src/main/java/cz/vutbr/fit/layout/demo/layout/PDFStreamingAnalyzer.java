@@ -0,0 +1,109 @@
+/**
+ * PDFStreamingAnalyzer.java
+ *
+ * Created on 18. 10. 2026, 11:48:06 by agent
+ */
+package cz.vutbr.fit.layout.demo.layout;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.demo.io.ChannelWriter;
+import cz.vutbr.fit.layout.model.AreaTree;
+
+/**
+ * Performs the same analysis as {@link PDFLayoutAnalyzer} but processes the document page by page.
+ * The document is downloaded and parsed once; each page is then extracted by the {@link PDFPageExtractor}
+ * and rendered separately, so the rendering cost grows linearly with the document length.
+ * The output of each page is written as soon as its areas are sorted and joined to lines, so
+ * the first results are available before the whole document is rendered. The output is written
+ * through an unsynchronized buffered {@link ChannelWriter}.
+ *
+ * @author agent
+ */
+public class PDFStreamingAnalyzer
+{
+    private final URL url;
+
+
+    /**
+     * Creates a new analyzer.
+     *
+     * @param url the source document URL
+     */
+    public PDFStreamingAnalyzer(URL url)
+    {
+        this.url = url;
+    }
+
+    /**
+     * Analyzes the document and writes the results to the given writer page by page.
+     * The writer is flushed after each page.
+     *
+     * @param out the output writer
+     * @throws IOException
+     * @throws SAXException
+     */
+    public void analyze(Writer out) throws IOException, SAXException
+    {
+        // the document is downloaded and parsed once; the pages are extracted from it one by one
+        try (PDFPageExtractor extractor = new PDFPageExtractor(url)) {
+            final int pageCount = extractor.getPageCount();
+            for (int i = 0; i < pageCount; i++)
+            {
+                final Path pageFile = extractor.extract(i, i);
+                AreaTree atree;
+                try {
+                    atree = PDFLayoutAnalyzer.analyze(pageFile.toUri().toURL());
+                } finally {
+                    Files.deleteIfExists(pageFile);
+                }
+                var areaOut = new PDFLayoutAnalyzer.AreaOutput(out); // each page starts on a new line
+                PDFLayoutAnalyzer.printAreas(atree.getRoot(), areaOut);
+                out.flush();
+            }
+        }
+        out.write(System.lineSeparator());
+        out.flush();
+    }
+
+    //=========================================================================================
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        if (args.length < 1 || args.length > 2)
+        {
+            System.out.println("Usage: PDFStreamingAnalyzer <filename>|<url> [output file]");
+            System.exit(1);
+        }
+        String urlString = args[0];
+        if (!urlString.contains("://"))
+            urlString = "file://" + urlString;
+
+        try {
+            URL url = new URL(urlString);
+            var analyzer = new PDFStreamingAnalyzer(url);
+            try (Writer out = (args.length == 2) ? ChannelWriter.create(Paths.get(args[1])) : ChannelWriter.stdout()) {
+                analyzer.analyze(out);
+            }
+
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
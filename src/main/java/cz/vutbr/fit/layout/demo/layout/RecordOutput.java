@@ -0,0 +1,407 @@
+/**
+ * RecordOutput.java
+ *
+ * Created on 18. 10. 2026, 13:05:31 by agent
+ */
+package cz.vutbr.fit.layout.demo.layout;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import cz.vutbr.fit.layout.model.Area;
+
+/**
+ * A structured output formatter that writes a single record for each detected text line.
+ * The lines and fields are detected in the same way as in {@link PDFLayoutAnalyzer.AreaOutput}.
+ * Each record contains the line number, the line bounds (x1, y1, x2, y2), the maximal font size
+ * and font weight in the line and the text of the individual fields.
+ *
+ * Two formats are supported:
+ * <ul>
+ * <li>CSV - a header line followed by one line per record. The fields are stored in the trailing
+ * columns, so the number of columns may differ among the records.
+ * <li>JSONL - one JSON object per line with the fields stored in the {@code fields} array.
+ * </ul>
+ *
+ * The output created by {@link #forTables(Appendable, Format)} writes the detected tables instead
+ * (see {@link #printTable(int, TableDetector.Table)}): one record per table row containing the table
+ * number, the row number, the row bounds and the text of the individual cells.
+ *
+ * The text is escaped and written directly to the output, no intermediate strings are created.
+ *
+ * @author agent
+ */
+public class RecordOutput implements PDFLayoutAnalyzer.AreaFormatter
+{
+    public enum Format { CSV, JSONL }
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Appendable out;
+    private final Format format;
+
+    /** Areas of the current line */
+    private final List<Area> line;
+    /** Indices of the areas in the current line that start a new field */
+    private final BitSet fieldStarts;
+    /** Indices of the areas in the current line that are preceded by a space */
+    private final BitSet spaces;
+
+    private int lineNumber = 0;
+    private int lastX = 0;
+    private int lastY = 0;
+    private int x1, y1, x2, y2;
+    private float fontSize;
+    private float fontWeight;
+
+
+    public RecordOutput(Appendable out, Format format)
+    {
+        this(out, format, "line,x1,y1,x2,y2,fontSize,fontWeight,fields");
+    }
+
+    private RecordOutput(Appendable out, Format format, String csvHeader)
+    {
+        this.out = out;
+        this.format = format;
+        this.line = new ArrayList<>();
+        this.fieldStarts = new BitSet();
+        this.spaces = new BitSet();
+        if (format == Format.CSV)
+            append(csvHeader).append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Creates an output for the detected tables. The tables are written using {@link #printTable(int, TableDetector.Table)}.
+     *
+     * @param out the destination
+     * @param format the output format
+     * @return the created output
+     */
+    public static RecordOutput forTables(Appendable out, Format format)
+    {
+        return new RecordOutput(out, format, "table,row,x1,y1,x2,y2,cells");
+    }
+
+    @Override
+    public void printArea(Area a)
+    {
+        var bounds = a.getBounds();
+        var em = a.getTextStyle().getFontSize();
+        // end the line when the Y coordinate changes significantly
+        var difY = bounds.getY1() - lastY;
+        if (difY > 0.25f * bounds.getHeight())
+        {
+            writeLine();
+            lastX = 0;
+        }
+        // start a new field when the X coordinate changes significantly
+        final int index = line.size();
+        var difX = bounds.getX1() - lastX;
+        if (index == 0 || difX > 1.0f * em)
+            fieldStarts.set(index);
+        // insert a space when the X coordinate changes a bit
+        else if (difX > 0.3f * em)
+            spaces.set(index);
+
+        if (index == 0)
+        {
+            x1 = bounds.getX1();
+            y1 = bounds.getY1();
+            x2 = bounds.getX2();
+            y2 = bounds.getY2();
+            fontSize = 0;
+            fontWeight = 0;
+        }
+        else
+        {
+            x1 = Math.min(x1, bounds.getX1());
+            y1 = Math.min(y1, bounds.getY1());
+            x2 = Math.max(x2, bounds.getX2());
+            y2 = Math.max(y2, bounds.getY2());
+        }
+        fontSize = Math.max(fontSize, em);
+        fontWeight = Math.max(fontWeight, a.getTextStyle().getFontWeight());
+        line.add(a);
+
+        lastX = bounds.getX2();
+        lastY = bounds.getY1();
+    }
+
+    @Override
+    public void finish()
+    {
+        writeLine();
+    }
+
+    /**
+     * Writes a detected table as one record per table row. The empty cells are written as empty
+     * CSV columns or JSON {@code null} values.
+     *
+     * @param number the table number
+     * @param table the table to write
+     */
+    public void printTable(int number, TableDetector.Table table)
+    {
+        for (int r = 0; r < table.getRowCount(); r++)
+        {
+            final var b = table.getRowBounds(r);
+            if (format == Format.CSV)
+            {
+                appendInt(number).append(',');
+                appendInt(r + 1).append(',');
+                appendInt(b.getX1()).append(',');
+                appendInt(b.getY1()).append(',');
+                appendInt(b.getX2()).append(',');
+                appendInt(b.getY2());
+                for (int c = 0; c < table.getColumnCount(); c++)
+                {
+                    append(',');
+                    final String cell = table.getCell(r, c);
+                    if (cell != null)
+                    {
+                        append('"');
+                        appendCSV(cell);
+                        append('"');
+                    }
+                }
+            }
+            else
+            {
+                append("{\"table\":");
+                appendInt(number);
+                append(",\"row\":");
+                appendInt(r + 1);
+                append(",\"x1\":");
+                appendInt(b.getX1());
+                append(",\"y1\":");
+                appendInt(b.getY1());
+                append(",\"x2\":");
+                appendInt(b.getX2());
+                append(",\"y2\":");
+                appendInt(b.getY2());
+                append(",\"cells\":[");
+                for (int c = 0; c < table.getColumnCount(); c++)
+                {
+                    if (c > 0)
+                        append(',');
+                    final String cell = table.getCell(r, c);
+                    if (cell == null)
+                        append("null");
+                    else
+                    {
+                        append('"');
+                        appendJSON(cell);
+                        append('"');
+                    }
+                }
+                append("]}");
+            }
+            append(LINE_SEPARATOR);
+        }
+    }
+
+    /**
+     * Writes the record for the current line and clears the line.
+     */
+    protected void writeLine()
+    {
+        if (line.isEmpty())
+            return;
+        lineNumber++;
+        if (format == Format.CSV)
+            writeCSVLine();
+        else
+            writeJSONLine();
+        line.clear();
+        fieldStarts.clear();
+        spaces.clear();
+    }
+
+    private void writeCSVLine()
+    {
+        appendInt(lineNumber).append(',');
+        appendInt(x1).append(',');
+        appendInt(y1).append(',');
+        appendInt(x2).append(',');
+        appendInt(y2).append(',');
+        appendFloat(fontSize).append(',');
+        appendFloat(fontWeight);
+        for (int i = 0; i < line.size(); i++)
+        {
+            if (fieldStarts.get(i))
+            {
+                if (i > 0)
+                    append('"');
+                append(",\"");
+            }
+            else if (spaces.get(i))
+                append(' ');
+            appendCSV(line.get(i).getText());
+        }
+        append('"').append(LINE_SEPARATOR);
+    }
+
+    private void writeJSONLine()
+    {
+        append("{\"line\":");
+        appendInt(lineNumber);
+        append(",\"x1\":");
+        appendInt(x1);
+        append(",\"y1\":");
+        appendInt(y1);
+        append(",\"x2\":");
+        appendInt(x2);
+        append(",\"y2\":");
+        appendInt(y2);
+        append(",\"fontSize\":");
+        appendFloat(fontSize);
+        append(",\"fontWeight\":");
+        appendFloat(fontWeight);
+        append(",\"fields\":[");
+        for (int i = 0; i < line.size(); i++)
+        {
+            if (fieldStarts.get(i))
+            {
+                if (i > 0)
+                    append("\",");
+                append('"');
+            }
+            else if (spaces.get(i))
+                append(' ');
+            appendJSON(line.get(i).getText());
+        }
+        append("\"]}").append(LINE_SEPARATOR);
+    }
+
+    //=========================================================================================
+
+    private RecordOutput append(CharSequence s)
+    {
+        try {
+            out.append(s);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    private RecordOutput append(CharSequence s, int start, int end)
+    {
+        try {
+            out.append(s, start, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    private RecordOutput append(char c)
+    {
+        try {
+            out.append(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    private RecordOutput appendInt(long value)
+    {
+        if (value == Long.MIN_VALUE)
+            return append(Long.toString(value)); // cannot be negated
+        if (value < 0)
+        {
+            append('-');
+            value = -value;
+        }
+        long div = 1;
+        while (value / div >= 10)
+            div *= 10;
+        while (div > 0)
+        {
+            append((char) ('0' + (value / div) % 10));
+            div /= 10;
+        }
+        return this;
+    }
+
+    private RecordOutput appendFloat(float value)
+    {
+        // two decimal places are enough for font sizes and weights
+        long hundredths = Math.round(value * 100.0);
+        if (hundredths < 0 && hundredths != Long.MIN_VALUE)
+        {
+            // the sign must be printed here, the integer part may be zero (e.g. -0.5)
+            append('-');
+            hundredths = -hundredths;
+        }
+        appendInt(hundredths / 100);
+        int frac = (int) Math.abs(hundredths % 100);
+        if (frac != 0)
+        {
+            append('.').append((char) ('0' + frac / 10));
+            if (frac % 10 != 0)
+                append((char) ('0' + frac % 10));
+        }
+        return this;
+    }
+
+    private void appendCSV(String text)
+    {
+        // the runs of the characters that need no escaping are appended at once
+        int start = 0;
+        for (int i = 0; i < text.length(); i++)
+        {
+            final char c = text.charAt(i);
+            if (c == '"' || c == '\n' || c == '\r')
+            {
+                append(text, start, i);
+                append(c == '"' ? "\"\"" : " ");
+                start = i + 1;
+            }
+        }
+        append(text, start, text.length());
+    }
+
+    private void appendJSON(String text)
+    {
+        // the runs of the characters that need no escaping are appended at once
+        int start = 0;
+        for (int i = 0; i < text.length(); i++)
+        {
+            final char c = text.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\')
+                continue;
+            append(text, start, i);
+            start = i + 1;
+            switch (c)
+            {
+                case '"':
+                    append("\\\"");
+                    break;
+                case '\\':
+                    append("\\\\");
+                    break;
+                case '\n':
+                    append("\\n");
+                    break;
+                case '\r':
+                    append("\\r");
+                    break;
+                case '\t':
+                    append("\\t");
+                    break;
+                default:
+                    append("\\u00");
+                    append(Character.forDigit(c >> 4, 16));
+                    append(Character.forDigit(c & 0xf, 16));
+            }
+        }
+        append(text, start, text.length());
+    }
+
+}
@@ -0,0 +1,482 @@
+/**
+ * TableDetector.java
+ *
+ * Created on 20. 10. 2026, 15:12:26 by agent
+ */
+package cz.vutbr.fit.layout.demo.layout;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import cz.vutbr.fit.layout.demo.TreeWalker;
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Rectangular;
+
+/**
+ * Detects tables in the leaf areas of an area tree. The areas are processed in the tree (reading) order
+ * and they are grouped to lines and fields in the same way as in {@link PDFLayoutAnalyzer.AreaOutput}.
+ * A line never spans over several parent areas, so the lines created by the {@link
+ * cz.vutbr.fit.layout.segm.op.FindLineOperator} are respected and e.g. the neighboring lines of
+ * two-column text are not joined to a single line. Then, the blocks of consecutive lines going
+ * downwards that contain multiple fields are found and the X extents of their fields are projected
+ * to the X axis; the non-overlapping parts of the projection form the table columns and the lines
+ * form the table rows.
+ *
+ * All the steps are implemented as sweeps over primitive arrays, so the detection runs
+ * in O(n log n) time for n areas.
+ *
+ * @author agent
+ */
+public class TableDetector
+{
+    private int minRows = 2;
+    private int minColumns = 2;
+
+    // the areas (in the reading order, sorted by X within the lines)
+    private int n;
+    private Area[] areas;
+    private Area[] parents;
+    private int[] ax1, ay1, ax2, ay2;
+    private float[] em;
+
+    // the fields
+    private int fieldCount;
+    private int[] fx1, fy1, fx2, fy2;
+    private int[] fieldStart; // the first area of the field, the next field starts the next one
+    private int[] lineFieldStart; // the first field of the line, the last line has the end mark
+
+
+    public TableDetector()
+    {
+    }
+
+    public int getMinRows()
+    {
+        return minRows;
+    }
+
+    /**
+     * Sets the minimal number of rows of a detected table.
+     *
+     * @param minRows the number of rows (2 by default)
+     */
+    public void setMinRows(int minRows)
+    {
+        this.minRows = minRows;
+    }
+
+    public int getMinColumns()
+    {
+        return minColumns;
+    }
+
+    /**
+     * Sets the minimal number of columns of a detected table.
+     *
+     * @param minColumns the number of columns (2 by default)
+     */
+    public void setMinColumns(int minColumns)
+    {
+        this.minColumns = minColumns;
+    }
+
+    /**
+     * Detects the tables in the leaf areas of the given area tree.
+     *
+     * @param atree the area tree (e.g. processed by the {@link cz.vutbr.fit.layout.segm.op.FindLineOperator})
+     * @return the list of tables sorted from top to bottom
+     */
+    public List<Table> detect(AreaTree atree)
+    {
+        // skip separators and empty boxes
+        return detect(new TreeWalker<Area>().filter(TreeWalker.nonBlankLeafAreas()).collect(atree.getRoot()));
+    }
+
+    /**
+     * Detects the tables in the given list of areas.
+     *
+     * @param input the areas to be processed in the reading order (e.g. the leaf areas in the tree order)
+     * @return the list of tables sorted from top to bottom
+     */
+    public synchronized List<Table> detect(List<Area> input)
+    {
+        loadAreas(input);
+        findFields();
+        final List<Table> ret = findTables();
+        ret.sort(Comparator.comparingInt(t -> t.getBounds().getY1()));
+        areas = null; // do not keep the areas referenced
+        parents = null;
+        return ret;
+    }
+
+    //=========================================================================================
+
+    /**
+     * Stores the areas and their bounds in the arrays in the input order.
+     */
+    private void loadAreas(List<Area> input)
+    {
+        n = input.size();
+        areas = new Area[n];
+        parents = new Area[n];
+        ax1 = new int[n];
+        ay1 = new int[n];
+        ax2 = new int[n];
+        ay2 = new int[n];
+        em = new float[n];
+        for (int i = 0; i < n; i++)
+        {
+            final Area a = input.get(i);
+            final Rectangular b = a.getBounds();
+            areas[i] = a;
+            parents[i] = a.getParent();
+            ax1[i] = b.getX1();
+            ay1[i] = b.getY1();
+            ax2[i] = b.getX2();
+            ay2[i] = b.getY2();
+            em[i] = a.getTextStyle().getFontSize();
+        }
+    }
+
+    /**
+     * Splits the areas to lines (a new line starts when the parent area or the Y coordinate changes
+     * significantly), sorts each line by the X coordinate and joins the areas to fields (a new field starts when
+     * the X coordinate changes significantly).
+     */
+    private void findFields()
+    {
+        fx1 = new int[n];
+        fy1 = new int[n];
+        fx2 = new int[n];
+        fy2 = new int[n];
+        fieldStart = new int[n + 1];
+        lineFieldStart = new int[n + 1];
+        fieldCount = 0;
+        int lines = 0;
+        int lineStart = 0;
+        for (int i = 1; i <= n; i++)
+        {
+            if (i == n || parents[i] != parents[i - 1]
+                    || Math.abs(ay1[i] - ay1[i - 1]) > 0.25f * (ay2[i] - ay1[i] + 1))
+            {
+                sortLine(lineStart, i);
+                lineFieldStart[lines++] = fieldCount;
+                for (int j = lineStart; j < i; j++)
+                {
+                    if (j == lineStart || ax1[j] - fx2[fieldCount - 1] > 1.0f * em[j])
+                    {
+                        fieldStart[fieldCount] = j;
+                        fx1[fieldCount] = ax1[j];
+                        fy1[fieldCount] = ay1[j];
+                        fx2[fieldCount] = ax2[j];
+                        fy2[fieldCount] = ay2[j];
+                        fieldCount++;
+                    }
+                    else
+                    {
+                        final int f = fieldCount - 1;
+                        fy1[f] = Math.min(fy1[f], ay1[j]);
+                        fx2[f] = Math.max(fx2[f], ax2[j]);
+                        fy2[f] = Math.max(fy2[f], ay2[j]);
+                    }
+                }
+                lineStart = i;
+            }
+        }
+        fieldStart[fieldCount] = n;
+        lineFieldStart[lines] = fieldCount;
+        lineFieldStart = Arrays.copyOf(lineFieldStart, lines + 1);
+    }
+
+    /**
+     * Finds the blocks of consecutive lines with multiple fields and converts them to tables.
+     */
+    private List<Table> findTables()
+    {
+        List<Table> ret = new ArrayList<>();
+        final int lines = lineFieldStart.length - 1;
+        int blockStart = -1;
+        int lastY1 = 0;
+        int lastY2 = 0;
+        int lastHeight = 0;
+        for (int line = 0; line <= lines; line++)
+        {
+            boolean multi = false;
+            int y1 = 0, y2 = 0;
+            if (line < lines)
+            {
+                final int first = lineFieldStart[line];
+                final int last = lineFieldStart[line + 1];
+                multi = (last - first >= 2);
+                y1 = Integer.MAX_VALUE;
+                y2 = Integer.MIN_VALUE;
+                for (int f = first; f < last; f++)
+                {
+                    y1 = Math.min(y1, fy1[f]);
+                    y2 = Math.max(y2, fy2[f]);
+                }
+            }
+            // the block continues with the multi-field lines that follow the previous one downwards
+            // and that are not too far from it
+            final boolean continues = multi && blockStart != -1 && y1 > lastY1 && y1 - lastY2 <= lastHeight;
+            if (!continues && blockStart != -1)
+            {
+                final Table table = createTable(blockStart, line);
+                if (table != null)
+                    ret.add(table);
+                blockStart = -1;
+            }
+            if (multi && blockStart == -1)
+                blockStart = line;
+            lastY1 = y1;
+            lastY2 = y2;
+            lastHeight = y2 - y1 + 1;
+        }
+        return ret;
+    }
+
+    /**
+     * Creates a table from the given block of lines.
+     *
+     * @return the table or {@code null} when the lines do not form a table
+     */
+    private Table createTable(int firstLine, int endLine)
+    {
+        final int rows = endLine - firstLine;
+        if (rows < minRows)
+            return null;
+        final int firstField = lineFieldStart[firstLine];
+        final int endField = lineFieldStart[endLine];
+
+        // project the fields to the X axis; the non-overlapping intervals are the columns
+        final int cnt = endField - firstField;
+        long[] keys = new long[cnt];
+        for (int f = firstField; f < endField; f++)
+            keys[f - firstField] = key(fx1[f], f);
+        Arrays.sort(keys);
+        int[] colX1 = new int[cnt];
+        int[] colX2 = new int[cnt];
+        int cols = 0;
+        for (long k : keys)
+        {
+            final int f = item(k);
+            if (cols == 0 || fx1[f] > colX2[cols - 1])
+            {
+                colX1[cols] = fx1[f];
+                colX2[cols] = fx2[f];
+                cols++;
+            }
+            else
+                colX2[cols - 1] = Math.max(colX2[cols - 1], fx2[f]);
+        }
+        if (cols < minColumns)
+            return null;
+        colX1 = Arrays.copyOf(colX1, cols);
+        colX2 = Arrays.copyOf(colX2, cols);
+
+        // assign the fields to the cells
+        final StringBuilder[][] cells = new StringBuilder[rows][cols];
+        final int[] rowY1 = new int[rows];
+        final int[] rowY2 = new int[rows];
+        int validRows = 0;
+        for (int r = 0; r < rows; r++)
+        {
+            final int line = firstLine + r;
+            rowY1[r] = Integer.MAX_VALUE;
+            rowY2[r] = Integer.MIN_VALUE;
+            int usedColumns = 0;
+            for (int f = lineFieldStart[line]; f < lineFieldStart[line + 1]; f++)
+            {
+                rowY1[r] = Math.min(rowY1[r], fy1[f]);
+                rowY2[r] = Math.max(rowY2[r], fy2[f]);
+                int c = Arrays.binarySearch(colX1, fx1[f]);
+                if (c < 0)
+                    c = -c - 2; // the column that contains the field start
+                if (cells[r][c] == null)
+                {
+                    cells[r][c] = new StringBuilder();
+                    usedColumns++;
+                }
+                else
+                    cells[r][c].append(' ');
+                appendFieldText(f, cells[r][c]);
+            }
+            if (usedColumns >= 2)
+                validRows++;
+        }
+        // the columns must not be merged by the fields spanning over them
+        if (validRows < minRows)
+            return null;
+
+        final String[][] text = new String[rows][cols];
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++)
+                text[r][c] = (cells[r][c] == null) ? null : cells[r][c].toString();
+        return new Table(rowY1, rowY2, colX1, colX2, text);
+    }
+
+    private void appendFieldText(int field, StringBuilder sb)
+    {
+        for (int i = fieldStart[field]; i < fieldStart[field + 1]; i++)
+        {
+            // print space when the X coordinate changes a bit
+            if (i > fieldStart[field] && ax1[i] - ax2[i - 1] > 0.3f * em[i])
+                sb.append(' ');
+            sb.append(areas[i].getText());
+        }
+    }
+
+    /**
+     * Sorts the areas of a single line by their X coordinate.
+     */
+    private void sortLine(int start, int end)
+    {
+        if (end - start < 2)
+            return;
+        long[] keys = new long[end - start];
+        for (int i = start; i < end; i++)
+            keys[i - start] = key(ax1[i], i);
+        Arrays.sort(keys);
+        final Area[] sa = new Area[keys.length];
+        final int[] s1 = new int[keys.length], s2 = new int[keys.length], s3 = new int[keys.length], s4 = new int[keys.length];
+        final float[] se = new float[keys.length];
+        for (int k = 0; k < keys.length; k++)
+        {
+            final int i = item(keys[k]);
+            sa[k] = areas[i];
+            s1[k] = ax1[i];
+            s2[k] = ay1[i];
+            s3[k] = ax2[i];
+            s4[k] = ay2[i];
+            se[k] = em[i];
+        }
+        System.arraycopy(sa, 0, areas, start, keys.length);
+        System.arraycopy(s1, 0, ax1, start, keys.length);
+        System.arraycopy(s2, 0, ay1, start, keys.length);
+        System.arraycopy(s3, 0, ax2, start, keys.length);
+        System.arraycopy(s4, 0, ay2, start, keys.length);
+        System.arraycopy(se, 0, em, start, keys.length);
+    }
+
+    /**
+     * Packs a coordinate and an index to a single sort key.
+     */
+    private static long key(int coord, int index)
+    {
+        return (((long) coord - Integer.MIN_VALUE) << 31) | index;
+    }
+
+    private static int item(long key)
+    {
+        return (int) (key & Integer.MAX_VALUE);
+    }
+
+    //=========================================================================================
+
+    /**
+     * A detected table: a grid of rows and columns with the text of the individual cells.
+     *
+     * @author agent
+     */
+    public static class Table
+    {
+        private final int[] rowY1, rowY2;
+        private final int[] colX1, colX2;
+        private final String[][] cells;
+
+        public Table(int[] rowY1, int[] rowY2, int[] colX1, int[] colX2, String[][] cells)
+        {
+            this.rowY1 = rowY1;
+            this.rowY2 = rowY2;
+            this.colX1 = colX1;
+            this.colX2 = colX2;
+            this.cells = cells;
+        }
+
+        public int getRowCount()
+        {
+            return rowY1.length;
+        }
+
+        public int getColumnCount()
+        {
+            return colX1.length;
+        }
+
+        /**
+         * Returns the bounds of the whole table.
+         *
+         * @return the table bounds
+         */
+        public Rectangular getBounds()
+        {
+            return new Rectangular(colX1[0], rowY1[0], colX2[colX2.length - 1], rowY2[rowY2.length - 1]);
+        }
+
+        /**
+         * Returns the bounds of a table row.
+         *
+         * @param row the row index
+         * @return the row bounds
+         */
+        public Rectangular getRowBounds(int row)
+        {
+            return new Rectangular(colX1[0], rowY1[row], colX2[colX2.length - 1], rowY2[row]);
+        }
+
+        /**
+         * Returns the bounds of a table column.
+         *
+         * @param column the column index
+         * @return the column bounds
+         */
+        public Rectangular getColumnBounds(int column)
+        {
+            return new Rectangular(colX1[column], rowY1[0], colX2[column], rowY2[rowY2.length - 1]);
+        }
+
+        /**
+         * Returns the text of a table cell.
+         *
+         * @param row the row index
+         * @param column the column index
+         * @return the cell text or {@code null} for empty cells
+         */
+        public String getCell(int row, int column)
+        {
+            return cells[row][column];
+        }
+
+        /**
+         * Prints the table rows, one row per line with the cells separated by the field separators.
+         *
+         * @param out the destination
+         * @throws IOException
+         */
+        public void print(Appendable out) throws IOException
+        {
+            for (int r = 0; r < getRowCount(); r++)
+            {
+                for (int c = 0; c < getColumnCount(); c++)
+                {
+                    if (c > 0)
+                        out.append(" | ");
+                    if (cells[r][c] != null)
+                        out.append(cells[r][c]);
+                }
+                out.append(System.lineSeparator());
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Table " + getRowCount() + "x" + getColumnCount() + " " + getBounds();
+        }
+    }
+
+}
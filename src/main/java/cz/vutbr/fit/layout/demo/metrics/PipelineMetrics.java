@@ -0,0 +1,360 @@
+/**
+ * PipelineMetrics.java
+ *
+ * Created on 19. 10. 2026, 9:05:12 by agent
+ */
+package cz.vutbr.fit.layout.demo.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import cz.vutbr.fit.layout.demo.TreeWalker;
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.Page;
+
+/**
+ * Collects simple per-stage metrics of a page processing pipeline (rendering, segmentation, output, ...).
+ * For each stage, the wall time, the CPU time and the bytes allocated by the current thread are recorded
+ * together with the number of boxes or areas produced by the stage. The metrics may be exported
+ * in JSON or in the Prometheus text format.
+ *
+ * Usage:
+ * <pre>
+ * Stage st = metrics.start("render");
+ * Page page = renderer.getPage();
+ * st.end(page);
+ * </pre>
+ *
+ * The demos export their metrics to the file specified by the {@code fitlayout.metrics} system property
+ * (see {@link #exportIfRequested()}).
+ *
+ * @author agent
+ */
+public class PipelineMetrics
+{
+    /** The system property that specifies the metrics output file. */
+    public static final String OUTPUT_PROPERTY = "fitlayout.metrics";
+
+    private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private final String pipeline;
+    private final boolean enabled;
+    private final List<StageRecord> records;
+
+
+    /**
+     * Creates a new metrics collection.
+     *
+     * @param pipeline the pipeline name used in the exported metrics
+     */
+    public PipelineMetrics(String pipeline)
+    {
+        this(pipeline, true);
+    }
+
+    private PipelineMetrics(String pipeline, boolean enabled)
+    {
+        this.pipeline = pipeline;
+        this.enabled = enabled;
+        this.records = new ArrayList<>();
+    }
+
+    /**
+     * Creates a metrics collection that does not record anything.
+     *
+     * @return a disabled metrics collection
+     */
+    public static PipelineMetrics disabled()
+    {
+        return new PipelineMetrics("none", false);
+    }
+
+    public String getPipeline()
+    {
+        return pipeline;
+    }
+
+    /**
+     * Returns the recorded stages in the order of their completion.
+     *
+     * @return the list of stage records
+     */
+    public synchronized List<StageRecord> getRecords()
+    {
+        return Collections.unmodifiableList(new ArrayList<>(records));
+    }
+
+    /**
+     * Starts measuring a stage in the current thread.
+     *
+     * @param name the stage name
+     * @return the started stage that must be ended in the same thread
+     */
+    public Stage start(String name)
+    {
+        return new Stage(name);
+    }
+
+    private synchronized void add(StageRecord record)
+    {
+        if (enabled)
+            records.add(record);
+    }
+
+    //=========================================================================================
+
+    /**
+     * Exports the metrics to the file specified by the {@code fitlayout.metrics} system property.
+     * Nothing is done when the property is not set.
+     */
+    public void exportIfRequested()
+    {
+        final String fileName = System.getProperty(OUTPUT_PROPERTY);
+        if (fileName != null)
+        {
+            try {
+                export(Paths.get(fileName));
+            } catch (IOException e) {
+                System.err.println("Couldn't export the metrics: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Exports the metrics to a file. The Prometheus text format is used for the files with the
+     * {@code .prom} or {@code .txt} extension, JSON is used otherwise.
+     *
+     * @param file the output file
+     * @throws IOException
+     */
+    public void export(Path file) throws IOException
+    {
+        final String name = file.getFileName().toString();
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (name.endsWith(".prom") || name.endsWith(".txt"))
+                writePrometheus(w);
+            else
+                writeJSON(w);
+        }
+    }
+
+    /**
+     * Writes the metrics as a JSON object.
+     *
+     * @param out the output
+     * @throws IOException
+     */
+    public void writeJSON(Appendable out) throws IOException
+    {
+        out.append("{\"pipeline\":\"").append(escape(pipeline)).append("\",\"stages\":[");
+        boolean first = true;
+        for (StageRecord r : getRecords())
+        {
+            if (!first) out.append(',');
+            out.append(String.format(Locale.ROOT,
+                    "{\"stage\":\"%s\",\"wallMs\":%.3f,\"cpuMs\":%.3f,\"allocatedBytes\":%d,\"boxes\":%d,\"areas\":%d}",
+                    escape(r.getName()), r.getWallTime() / 1e6, r.getCpuTime() / 1e6,
+                    r.getAllocatedBytes(), r.getBoxCount(), r.getAreaCount()));
+            first = false;
+        }
+        out.append("]}\n");
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text exposition format.
+     *
+     * @param out the output
+     * @throws IOException
+     */
+    public void writePrometheus(Appendable out) throws IOException
+    {
+        final List<StageRecord> list = getRecords();
+        writePrometheusMetric(out, list, "fitlayout_stage_wall_seconds", "gauge", "Stage wall time in seconds");
+        writePrometheusMetric(out, list, "fitlayout_stage_cpu_seconds", "gauge", "Stage CPU time in seconds");
+        writePrometheusMetric(out, list, "fitlayout_stage_allocated_bytes", "gauge", "Bytes allocated by the stage thread");
+        writePrometheusMetric(out, list, "fitlayout_stage_boxes", "gauge", "Number of boxes produced by the stage");
+        writePrometheusMetric(out, list, "fitlayout_stage_areas", "gauge", "Number of areas produced by the stage");
+    }
+
+    private void writePrometheusMetric(Appendable out, List<StageRecord> list, String metric, String type, String help)
+            throws IOException
+    {
+        out.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(metric).append(' ').append(type).append('\n');
+        for (StageRecord r : list)
+        {
+            // the counts are printed exactly, the times with the full double precision
+            final String value;
+            switch (metric)
+            {
+                case "fitlayout_stage_wall_seconds": value = Double.toString(r.getWallTime() / 1e9); break;
+                case "fitlayout_stage_cpu_seconds": value = Double.toString(r.getCpuTime() / 1e9); break;
+                case "fitlayout_stage_allocated_bytes": value = Long.toString(r.getAllocatedBytes()); break;
+                case "fitlayout_stage_boxes": value = Long.toString(r.getBoxCount()); break;
+                default: value = Long.toString(r.getAreaCount()); break;
+            }
+            out.append(metric).append("{pipeline=\"").append(escape(pipeline))
+                .append("\",stage=\"").append(escape(r.getName())).append("\"} ")
+                .append(value).append('\n');
+        }
+    }
+
+    private static String escape(String s)
+    {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    //=========================================================================================
+
+    private static long currentCpuTime()
+    {
+        return threadBean.isCurrentThreadCpuTimeSupported() ? threadBean.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static long currentAllocatedBytes()
+    {
+        if (threadBean instanceof com.sun.management.ThreadMXBean)
+        {
+            var bean = (com.sun.management.ThreadMXBean) threadBean;
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled())
+                return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static int countBoxes(Box root)
+    {
+        return new TreeWalker<Box>().count(root);
+    }
+
+    private static int countAreas(Area root)
+    {
+        return new TreeWalker<Area>().count(root);
+    }
+
+    //=========================================================================================
+
+    /**
+     * A running stage measurement.
+     */
+    public class Stage
+    {
+        private final String name;
+        private final long startWall;
+        private final long startCpu;
+        private final long startAlloc;
+
+        private Stage(String name)
+        {
+            this.name = name;
+            this.startAlloc = enabled ? currentAllocatedBytes() : 0;
+            this.startCpu = enabled ? currentCpuTime() : 0;
+            this.startWall = System.nanoTime();
+        }
+
+        /**
+         * Ends the stage that does not produce any page or area tree.
+         */
+        public void end()
+        {
+            end(null);
+        }
+
+        /**
+         * Ends the stage and records the number of boxes or areas of its result.
+         *
+         * @param result the stage result; the boxes are counted for a {@link Page} and the areas
+         * are counted for an {@link AreaTree}. Other objects are ignored.
+         */
+        public void end(Object result)
+        {
+            if (!enabled)
+                return;
+            final long wall = System.nanoTime() - startWall;
+            final long cpu = currentCpuTime() - startCpu;
+            final long alloc = currentAllocatedBytes() - startAlloc;
+            int boxes = 0;
+            int areas = 0;
+            if (result instanceof Page)
+                boxes = countBoxes(((Page) result).getRoot());
+            else if (result instanceof AreaTree)
+                areas = countAreas(((AreaTree) result).getRoot());
+            add(new StageRecord(name, wall, cpu, alloc, boxes, areas));
+        }
+    }
+
+    /**
+     * The metrics recorded for a single stage.
+     */
+    public static class StageRecord
+    {
+        private final String name;
+        private final long wallTime;
+        private final long cpuTime;
+        private final long allocatedBytes;
+        private final int boxCount;
+        private final int areaCount;
+
+        public StageRecord(String name, long wallTime, long cpuTime, long allocatedBytes, int boxCount, int areaCount)
+        {
+            this.name = name;
+            this.wallTime = wallTime;
+            this.cpuTime = cpuTime;
+            this.allocatedBytes = allocatedBytes;
+            this.boxCount = boxCount;
+            this.areaCount = areaCount;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        /** @return the wall time in nanoseconds */
+        public long getWallTime()
+        {
+            return wallTime;
+        }
+
+        /** @return the CPU time of the stage thread in nanoseconds */
+        public long getCpuTime()
+        {
+            return cpuTime;
+        }
+
+        public long getAllocatedBytes()
+        {
+            return allocatedBytes;
+        }
+
+        public int getBoxCount()
+        {
+            return boxCount;
+        }
+
+        public int getAreaCount()
+        {
+            return areaCount;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format(Locale.ROOT, "%s: %.1f ms wall, %.1f ms cpu, %d bytes, %d boxes, %d areas",
+                    name, wallTime / 1e6, cpuTime / 1e6, allocatedBytes, boxCount, areaCount);
+        }
+    }
+
+}
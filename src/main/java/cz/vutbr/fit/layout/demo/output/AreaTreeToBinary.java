@@ -0,0 +1,114 @@
+/**
+ * AreaTreeToBinary.java
+ *
+ * Created on 19. 10. 2026, 18:30:47 by agent
+ */
+package cz.vutbr.fit.layout.demo.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.demo.PageCache;
+import cz.vutbr.fit.layout.demo.io.BinaryArtifactReader;
+import cz.vutbr.fit.layout.demo.io.BinaryArtifactWriter;
+import cz.vutbr.fit.layout.demo.metrics.PipelineMetrics;
+import cz.vutbr.fit.layout.io.ArtifactStreamOutput;
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Artifact;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.vips.VipsProvider;
+
+/**
+ * Shows storing a page and its area tree in the compact binary format using the {@link BinaryArtifactWriter}
+ * and reading them back using the {@link BinaryArtifactReader}. The output size is compared with
+ * the XML serialization.
+ *
+ * @author agent
+ */
+public class AreaTreeToBinary
+{
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        // collect the stage metrics (exported when the fitlayout.metrics property is set)
+        var metrics = new PipelineMetrics("AreaTreeToBinary");
+        try {
+            URL url = new URL("http://cssbox.sf.net");
+
+            // render the page (or reuse the cached one)
+            var render = metrics.start("render");
+            Page page = PageCache.getDefault().getPage(url, 1200, 800, false);
+            render.end(page);
+
+            // setup the VIPS segmentation provider
+            var vips = new VipsProvider();
+            vips.setPDoC(9); // the preferred degree of coherence
+
+            // perform segmentation; produces an area tree
+            var segm = metrics.start("segmentation");
+            AreaTree atree = vips.createAreaTree(page);
+            segm.end(atree);
+
+            // write both the page and the area tree to a single binary file
+            var output = metrics.start("output");
+            long startTime = System.nanoTime();
+            try (var writer = new BinaryArtifactWriter(new FileOutputStream("page.flb"))) {
+                writer.write(page);
+                writer.write(atree);
+            }
+            output.end();
+            System.out.printf("Output written to page.flb in %.1f ms%n", (System.nanoTime() - startTime) / 1e6);
+
+            // compare with XML
+            var xml = new ByteArrayOutputStream();
+            ArtifactStreamOutput.outputXML(page, xml);
+            ArtifactStreamOutput.outputXML(atree, xml);
+            System.out.println("Binary size: " + Files.size(Paths.get("page.flb")) + " bytes, XML size: " + xml.size() + " bytes");
+
+            // read the artifacts back
+            var read = metrics.start("read");
+            startTime = System.nanoTime();
+            try (var reader = new BinaryArtifactReader(new FileInputStream("page.flb"))) {
+                Artifact art;
+                while ((art = reader.read()) != null)
+                {
+                    if (art instanceof Page)
+                        System.out.println("Page: " + ((Page) art).getTitle());
+                    else if (art instanceof AreaTree)
+                        System.out.println("Area tree: " + countAreas(((AreaTree) art).getRoot()) + " areas");
+                }
+            }
+            read.end();
+            System.out.printf("Read in %.1f ms%n", (System.nanoTime() - startTime) / 1e6);
+            metrics.exportIfRequested();
+
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static int countAreas(Area root)
+    {
+        int count = 1;
+        for (Area child : root.getChildren())
+            count += countAreas(child);
+        return count;
+    }
+
+}
@@ -0,0 +1,95 @@
+/**
+ * AreaTreeToColumns.java
+ *
+ * Created on 19. 10. 2026, 21:05:39 by agent
+ */
+package cz.vutbr.fit.layout.demo.output;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.demo.PageCache;
+import cz.vutbr.fit.layout.demo.io.ColumnarArchive;
+import cz.vutbr.fit.layout.demo.io.ColumnarArchiveWriter;
+import cz.vutbr.fit.layout.demo.metrics.PipelineMetrics;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.vips.VipsProvider;
+
+/**
+ * Shows exporting the boxes and areas of a segmented page to a columnar archive and scanning
+ * the archive: the text length per font size is computed for the text boxes.
+ *
+ * @author agent
+ */
+public class AreaTreeToColumns
+{
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        Path dir = Paths.get(args.length > 0 ? args[0] : "archive");
+        // collect the stage metrics (exported when the fitlayout.metrics property is set)
+        var metrics = new PipelineMetrics("AreaTreeToColumns");
+        try {
+            URL url = new URL("http://cssbox.sf.net");
+
+            // render the page (or reuse the cached one)
+            var render = metrics.start("render");
+            Page page = PageCache.getDefault().getPage(url, 1200, 800, false);
+            render.end(page);
+
+            // setup the VIPS segmentation provider
+            var vips = new VipsProvider();
+            vips.setPDoC(9); // the preferred degree of coherence
+
+            // perform segmentation; produces an area tree
+            var segm = metrics.start("segmentation");
+            AreaTree atree = vips.createAreaTree(page);
+            segm.end(atree);
+
+            // export the boxes and areas
+            var output = metrics.start("output");
+            try (var writer = new ColumnarArchiveWriter(dir)) {
+                int pageIndex = writer.addPage(page);
+                writer.addAreaTree(atree, pageIndex);
+                System.out.println("Archive written to " + dir + ": " + writer.getRowCount() + " rows");
+            }
+            output.end();
+
+            // scan the archive
+            var scan = metrics.start("scan");
+            var archive = ColumnarArchive.open(dir);
+            Map<Float, Long> textPerFontSize = new TreeMap<>();
+            long startTime = System.nanoTime();
+            for (int row = 0; row < archive.getRowCount(); row++)
+            {
+                if (archive.getKind(row) == ColumnarArchiveWriter.KIND_BOX && archive.getType(row) == Box.Type.TEXT_CONTENT)
+                    textPerFontSize.merge(archive.getFontSize(row), (long) archive.getTextLength(row), Long::sum);
+            }
+            scan.end();
+            System.out.printf("Scanned %d rows in %.2f ms%n", archive.getRowCount(), (System.nanoTime() - startTime) / 1e6);
+            for (Map.Entry<Float, Long> entry : textPerFontSize.entrySet())
+                System.out.println("Font size " + entry.getKey() + ": " + entry.getValue() + " bytes of text");
+            metrics.exportIfRequested();
+
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
@@ -5,16 +5,16 @@
  */
 package cz.vutbr.fit.layout.demo.output;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Paths;
 
 import org.xml.sax.SAXException;
 
-import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
-import cz.vutbr.fit.layout.io.ArtifactStreamOutput;
+import cz.vutbr.fit.layout.demo.PageCache;
+import cz.vutbr.fit.layout.demo.io.ImageOutput;
+import cz.vutbr.fit.layout.demo.metrics.PipelineMetrics;
 import cz.vutbr.fit.layout.model.AreaTree;
 import cz.vutbr.fit.layout.model.Page;
 import cz.vutbr.fit.layout.vips.VipsProvider;
@@ -32,15 +32,16 @@ public class AreaTreeToPNG
      */
     public static void main(String[] args)
     {
+        // collect the stage metrics (exported when the fitlayout.metrics property is set)
+        var metrics = new PipelineMetrics("AreaTreeToPNG");
         try {
             URL url = new URL("http://cssbox.sf.net");
             
-            // setup the renderer
-            var renderer = new CSSBoxTreeProvider(url, 1200, 800);
-            renderer.setIncludeScreenshot(true); // we do need a screen shot
-            
-            // perform page rendering
-            Page page = renderer.getPage();
+            // obtain the rendered page; the page is rendered using the CSSBox renderer
+            // or reused when it has been already rendered with the same parameters
+            var render = metrics.start("render");
+            Page page = PageCache.getDefault().getPage(url, 1200, 800, true); // we do need a screen shot
+            render.end(page);
             
             // read page information
             System.out.println("Rendered page");
@@ -53,19 +54,21 @@ public class AreaTreeToPNG
             vips.setPDoC(9); // the preferred degree of coherence
             
             // perform segmentation; produces an area tree
+            var segm = metrics.start("segmentation");
             AreaTree atree = vips.createAreaTree(page);
+            segm.end(atree);
             
-            // output to PNG (screen shot)
-            OutputStream os = new FileOutputStream("areas.png");
-            ArtifactStreamOutput.outputPNG(atree, page, os);
-            os.close();
+            // output to PNG (screen shot with the areas); encoded in parallel with a fast compression
+            var stage = metrics.start("output");
+            var output = new ImageOutput(ImageOutput.FAST);
+            output.writeScreenshot(atree, page, Paths.get("areas.png"));
             System.out.println("Output written to areas.png (page screen shot)");
             
             // output to PNG (internal model)
-            OutputStream osi = new FileOutputStream("areas_model.png");
-            ArtifactStreamOutput.outputPNGi(atree, page, osi);
-            osi.close();
+            output.writeModel(atree, page, Paths.get("areas_model.png"));
             System.out.println("Output written to areas_model.png (internal model of the page)");
+            stage.end();
+            metrics.exportIfRequested();
             
         } catch (MalformedURLException e) {
             System.err.println(e.getMessage());
@@ -13,7 +13,8 @@ import java.net.URL;
 
 import org.xml.sax.SAXException;
 
-import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
+import cz.vutbr.fit.layout.demo.PageCache;
+import cz.vutbr.fit.layout.demo.metrics.PipelineMetrics;
 import cz.vutbr.fit.layout.io.ArtifactStreamOutput;
 import cz.vutbr.fit.layout.model.AreaTree;
 import cz.vutbr.fit.layout.model.Page;
@@ -32,15 +33,16 @@ public class AreaTreeToXML
      */
     public static void main(String[] args)
     {
+        // collect the stage metrics (exported when the fitlayout.metrics property is set)
+        var metrics = new PipelineMetrics("AreaTreeToXML");
         try {
             URL url = new URL("http://cssbox.sf.net");
             
-            // setup the renderer
-            var renderer = new CSSBoxTreeProvider(url, 1200, 800);
-            renderer.setIncludeScreenshot(false); // we don't need screen shot in this demo
-            
-            // perform page rendering
-            Page page = renderer.getPage();
+            // obtain the rendered page; the page is rendered using the CSSBox renderer
+            // or reused when it has been already rendered with the same parameters
+            var render = metrics.start("render");
+            Page page = PageCache.getDefault().getPage(url, 1200, 800, false); // we don't need screen shot in this demo
+            render.end(page);
             
             // read page information
             System.out.println("Rendered page");
@@ -53,12 +55,17 @@ public class AreaTreeToXML
             vips.setPDoC(9); // the preferred degree of coherence
             
             // perform segmentation; produces an area tree
+            var segm = metrics.start("segmentation");
             AreaTree atree = vips.createAreaTree(page);
+            segm.end(atree);
             
             // output to xml
+            var output = metrics.start("output");
             OutputStream os = new FileOutputStream("areas.xml");
             ArtifactStreamOutput.outputXML(atree, os);
             os.close();
+            output.end();
+            metrics.exportIfRequested();
             System.out.println("Output written to areas.xml");
             
         } catch (MalformedURLException e) {
@@ -5,16 +5,16 @@
  */
 package cz.vutbr.fit.layout.demo.output;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Paths;
 
 import org.xml.sax.SAXException;
 
 import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
-import cz.vutbr.fit.layout.io.ArtifactStreamOutput;
+import cz.vutbr.fit.layout.demo.io.ImageOutput;
+import cz.vutbr.fit.layout.demo.metrics.PipelineMetrics;
 import cz.vutbr.fit.layout.model.Page;
 
 /**
@@ -30,6 +30,8 @@ public class PageToPNG
      */
     public static void main(String[] args)
     {
+        // collect the stage metrics (exported when the fitlayout.metrics property is set)
+        var metrics = new PipelineMetrics("PageToPNG");
         try {
             URL url = new URL("http://cssbox.sf.net");
             
@@ -38,7 +40,9 @@ public class PageToPNG
             renderer.setIncludeScreenshot(true); // we do need a screen shot
             
             // perform page rendering
+            var render = metrics.start("render");
             Page page = renderer.getPage();
+            render.end(page);
             
             // read page information
             System.out.println("Rendered page");
@@ -46,17 +50,17 @@ public class PageToPNG
             System.out.println("Title: " + page.getTitle());
             System.out.println("Rendered size: " + page.getWidth() + " x " + page.getHeight() + " px");
             
-            // output to PNG (screen shot)
-            OutputStream os = new FileOutputStream("page.png");
-            ArtifactStreamOutput.outputPNG(page, os);
-            os.close();
+            // output to PNG (screen shot); the screen shot is written without re-encoding
+            var stage = metrics.start("output");
+            var output = new ImageOutput();
+            output.writeScreenshot(page, Paths.get("page.png"));
             System.out.println("Output written to page.png (page screen shot)");
             
             // output to PNG (internal model)
-            OutputStream osi = new FileOutputStream("page_model.png");
-            ArtifactStreamOutput.outputPNGi(page, osi);
-            osi.close();
+            output.writeModel(page, Paths.get("page_model.png"));
             System.out.println("Output written to page_model.png (internal model of the page)");
+            stage.end();
+            metrics.exportIfRequested();
             
         } catch (MalformedURLException e) {
             System.err.println(e.getMessage());
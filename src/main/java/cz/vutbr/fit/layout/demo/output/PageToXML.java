@@ -14,6 +14,7 @@ import java.net.URL;
 import org.xml.sax.SAXException;
 
 import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
+import cz.vutbr.fit.layout.demo.metrics.PipelineMetrics;
 import cz.vutbr.fit.layout.io.ArtifactStreamOutput;
 import cz.vutbr.fit.layout.model.Page;
 
@@ -30,6 +31,8 @@ public class PageToXML
      */
     public static void main(String[] args)
     {
+        // collect the stage metrics (exported when the fitlayout.metrics property is set)
+        var metrics = new PipelineMetrics("PageToXML");
         try {
             URL url = new URL("http://cssbox.sf.net");
             
@@ -38,7 +41,9 @@ public class PageToXML
             renderer.setIncludeScreenshot(false); // we don't need screen shot in this demo
             
             // perform page rendering
+            var render = metrics.start("render");
             Page page = renderer.getPage();
+            render.end(page);
             
             // read page information
             System.out.println("Rendered page");
@@ -47,10 +52,13 @@ public class PageToXML
             System.out.println("Rendered size: " + page.getWidth() + " x " + page.getHeight() + " px");
             
             // output to xml
+            var output = metrics.start("output");
             OutputStream os = new FileOutputStream("page.xml");
             ArtifactStreamOutput.outputXML(page, os);
             os.close();
             System.out.println("Output written to page.xml");
+            output.end();
+            metrics.exportIfRequested();
             
         } catch (MalformedURLException e) {
             System.err.println(e.getMessage());
@@ -5,27 +5,30 @@
  */
 package cz.vutbr.fit.layout.demo.rdf;
 
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 
-import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
 import org.xml.sax.SAXException;
 
-import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
+import cz.vutbr.fit.layout.demo.PageCache;
+import cz.vutbr.fit.layout.demo.metrics.PipelineMetrics;
 import cz.vutbr.fit.layout.model.AreaTree;
 import cz.vutbr.fit.layout.model.Page;
-import cz.vutbr.fit.layout.rdf.AreaModelBuilder;
 import cz.vutbr.fit.layout.rdf.DefaultIRIFactory;
 import cz.vutbr.fit.layout.rdf.IRIFactory;
-import cz.vutbr.fit.layout.rdf.Serialization;
 import cz.vutbr.fit.layout.vips.VipsProvider;
 
 /**
  * Shows rendering a page, performing segmentation and serializing the result
- * in RDF format (turtle serialization).
+ * in RDF format (turtle serialization). The statements are written directly by the {@link StreamingRDFExport}.
+ * With the {@code -c} option, the output is compared with the {@code AreaModelBuilder} graph
+ * (see {@link StreamingRDFCheck}).
  * 
  * @author burgetr
  */
@@ -37,15 +40,17 @@ public class AreaTreeToRDF
      */
     public static void main(String[] args)
     {
+        final boolean check = args.length > 0 && args[0].equals("-c");
+        // collect the stage metrics (exported when the fitlayout.metrics property is set)
+        var metrics = new PipelineMetrics("AreaTreeToRDF");
         try {
             URL url = new URL("http://cssbox.sf.net");
             
-            // setup the renderer
-            var renderer = new CSSBoxTreeProvider(url, 1200, 800);
-            renderer.setIncludeScreenshot(false); // we don't need screen shot in this demo
-            
-            // perform page rendering
-            Page page = renderer.getPage();
+            // obtain the rendered page; the page is rendered using the CSSBox renderer
+            // or reused when it has been already rendered with the same parameters
+            var render = metrics.start("render");
+            Page page = PageCache.getDefault().getPage(url, 1200, 800, false); // we don't need screen shot in this demo
+            render.end(page);
             
             // read page information
             System.out.println("Rendered page");
@@ -62,18 +67,28 @@ public class AreaTreeToRDF
             vips.setPDoC(9); // the preferred degree of coherence
             
             // perform segmentation; produces an area tree
+            var segm = metrics.start("segmentation");
             AreaTree atree = vips.createAreaTree(page);
+            segm.end(atree);
             
             // assign IRIs to the created area tree
             atree.setIri(iriFactory.createArtifactIri(2));
             
             // output to RDF in Turtle serialization
-            OutputStream os = new FileOutputStream("areas.ttl");
-            AreaModelBuilder builder = new AreaModelBuilder(iriFactory);
-            Model graph = builder.createGraph(atree);
-            Serialization.modelToStream(graph, os, Serialization.TURTLE);
-            os.close();
+            var output = metrics.start("output");
+            try (OutputStream os = new BufferedOutputStream(new FileOutputStream("areas.ttl"))) {
+                var export = new StreamingRDFExport(Rio.createWriter(RDFFormat.TURTLE, os), iriFactory);
+                export.start();
+                export.exportAreaTree(atree);
+                export.end();
+            }
             System.out.println("Output written to areas.ttl");
+            output.end();
+            metrics.exportIfRequested();
+            
+            // optionally compare with the model builder
+            if (check)
+                StreamingRDFCheck.checkAreaTree(atree, iriFactory, System.out);
             
         } catch (MalformedURLException e) {
             System.err.println(e.getMessage());
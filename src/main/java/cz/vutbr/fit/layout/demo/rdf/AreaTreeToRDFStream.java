@@ -0,0 +1,95 @@
+/**
+ * AreaTreeToRDFStream.java
+ *
+ * Created on 18. 10. 2026, 20:41:19 by agent
+ */
+package cz.vutbr.fit.layout.demo.rdf;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFWriter;
+import org.eclipse.rdf4j.rio.Rio;
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.demo.PageCache;
+import cz.vutbr.fit.layout.demo.metrics.PipelineMetrics;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.rdf.DefaultIRIFactory;
+import cz.vutbr.fit.layout.rdf.IRIFactory;
+import cz.vutbr.fit.layout.vips.VipsProvider;
+
+/**
+ * Shows rendering a page, performing segmentation and exporting both the page and the area tree
+ * in RDF using the {@link StreamingRDFExport} that writes the statements directly without
+ * creating an in-memory RDF model. The output format is chosen by the output file name extension
+ * (e.g. {@code .ttl}, {@code .nt} or {@code .brf} for binary RDF).
+ *
+ * @author agent
+ */
+public class AreaTreeToRDFStream
+{
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        String fileName = (args.length > 0) ? args[0] : "areas.nt";
+        // collect the stage metrics (exported when the fitlayout.metrics property is set)
+        var metrics = new PipelineMetrics("AreaTreeToRDFStream");
+        try {
+            URL url = new URL("http://cssbox.sf.net");
+
+            // render the page (or reuse the cached one)
+            var render = metrics.start("render");
+            Page page = PageCache.getDefault().getPage(url, 1200, 800, false);
+            render.end(page);
+
+            // assign an IRI to the created page
+            IRIFactory iriFactory = new DefaultIRIFactory();
+            page.setIri(iriFactory.createArtifactIri(1));
+
+            // setup the VIPS segmentation provider
+            var vips = new VipsProvider();
+            vips.setPDoC(9); // the preferred degree of coherence
+
+            // perform segmentation; produces an area tree
+            var segm = metrics.start("segmentation");
+            AreaTree atree = vips.createAreaTree(page);
+            segm.end(atree);
+
+            // assign IRIs to the created area tree
+            atree.setIri(iriFactory.createArtifactIri(2));
+
+            // stream the statements to the output file
+            var output = metrics.start("output");
+            RDFFormat format = Rio.getWriterFormatForFileName(fileName).orElse(RDFFormat.NTRIPLES);
+            try (OutputStream os = new BufferedOutputStream(new FileOutputStream(fileName))) {
+                RDFWriter writer = Rio.createWriter(format, os);
+                var export = new StreamingRDFExport(writer, iriFactory);
+                export.start();
+                export.exportPage(page);
+                export.exportAreaTree(atree);
+                export.end();
+            }
+            output.end();
+            System.out.println("Output written to " + fileName);
+            metrics.exportIfRequested();
+
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+/**
+ * AsyncArtifactIngest.java
+ *
+ * Created on 18. 10. 2026, 19:22:41 by agent
+ */
+package cz.vutbr.fit.layout.demo.rdf;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import cz.vutbr.fit.layout.model.Artifact;
+import cz.vutbr.fit.layout.rdf.RDFArtifactRepository;
+
+/**
+ * A write-behind artifact storage. The artifacts are placed in a bounded queue and stored
+ * in the repository asynchronously by a pool of committer threads, so that the page processing
+ * may continue while the previous artifacts are being stored. When the queue is full, adding
+ * a new artifact blocks until some of the queued artifacts are taken by the committers.
+ *
+ * The IRIs are assigned to the artifacts immediately when they are added. The committers store
+ * the artifacts in batches using a {@link BulkArtifactIngest}. When storing a batch fails,
+ * the failure listener is notified and the committer continues with the next batch.
+ * Closing the ingest waits until all the queued artifacts are stored and reports the failed
+ * batches to the caller by throwing an {@link IOException}. An artifact whose {@link #add(Artifact)}
+ * call has returned is always either stored or reported as failed.
+ *
+ * @author agent
+ */
+public class AsyncArtifactIngest implements AutoCloseable
+{
+    /**
+     * A listener that is notified when storing a batch of artifacts fails.
+     */
+    public interface FailureListener
+    {
+        public void ingestFailed(List<Artifact> batch, Exception e);
+    }
+
+    private static final long POLL_INTERVAL = 100; // ms
+
+    private final BulkArtifactIngest ingest;
+    private final BlockingQueue<Artifact> queue;
+    private final ExecutorService committers;
+    private final FailureListener failureListener;
+    private final ReadWriteLock closeLock; // the adding threads share the lock, close() excludes them
+    private final List<Artifact> failedArtifacts;
+    private final List<Exception> failures;
+    private volatile boolean closed;
+
+
+    /**
+     * Creates an asynchronous ingest with a single committer thread. The failures are reported
+     * to the standard error output as they occur and to the caller of {@link #close()}.
+     *
+     * @param repository the target repository
+     * @param queueCapacity the maximal number of queued artifacts
+     */
+    public AsyncArtifactIngest(RDFArtifactRepository repository, int queueCapacity)
+    {
+        this(repository, queueCapacity, BulkArtifactIngest.DEFAULT_BATCH_SIZE, 1,
+                (batch, e) -> System.err.println("Storing " + batch.size() + " artifacts failed: " + e.getMessage()));
+    }
+
+    /**
+     * Creates an asynchronous ingest.
+     *
+     * @param repository the target repository
+     * @param queueCapacity the maximal number of queued artifacts
+     * @param batchSize the maximal number of artifacts stored in a single transaction
+     * @param committerThreads the number of committer threads; more than one thread may be used only
+     * when the underlying storage supports concurrent connections
+     * @param failureListener the listener notified about the failures as they occur
+     */
+    public AsyncArtifactIngest(RDFArtifactRepository repository, int queueCapacity, int batchSize,
+            int committerThreads, FailureListener failureListener)
+    {
+        this.ingest = new BulkArtifactIngest(repository, batchSize);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.failureListener = failureListener;
+        this.closeLock = new ReentrantReadWriteLock();
+        this.failedArtifacts = new ArrayList<>();
+        this.failures = new ArrayList<>();
+        this.committers = Executors.newFixedThreadPool(committerThreads, r -> {
+            Thread t = new Thread(r, "artifact-committer");
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 0; i < committerThreads; i++)
+            committers.execute(this::commitLoop);
+    }
+
+    /**
+     * Returns the underlying bulk ingest that provides the ingest statistics.
+     *
+     * @return the bulk ingest
+     */
+    public BulkArtifactIngest getBulkIngest()
+    {
+        return ingest;
+    }
+
+    /**
+     * Returns the number of artifacts waiting in the queue.
+     *
+     * @return the queue length
+     */
+    public int getQueueLength()
+    {
+        return queue.size();
+    }
+
+    /**
+     * Returns the artifacts that could not be stored so far.
+     *
+     * @return the list of the failed artifacts
+     */
+    public List<Artifact> getFailedArtifacts()
+    {
+        synchronized (failures)
+        {
+            return new ArrayList<>(failedArtifacts);
+        }
+    }
+
+    /**
+     * Assigns an IRI to the artifact and adds the artifact to the queue. Blocks while the queue is full.
+     *
+     * @param artifact the artifact to store
+     * @throws InterruptedException
+     * @throws IllegalStateException when the ingest has been already closed
+     * @throws IllegalArgumentException when the artifact type is not supported by the {@link BulkArtifactIngest}
+     */
+    public void add(Artifact artifact) throws InterruptedException
+    {
+        // the committers keep running until closed, so the put below cannot block forever
+        closeLock.readLock().lockInterruptibly();
+        try {
+            if (closed)
+                throw new IllegalStateException("The ingest has been closed");
+            ingest.checkSupported(artifact);
+            ingest.assignIri(artifact);
+            queue.put(artifact);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stops accepting new artifacts and waits until all the queued artifacts are stored.
+     * The pending {@link #add(Artifact)} calls are completed before the ingest is closed.
+     *
+     * @throws InterruptedException
+     * @throws IOException when some of the artifacts could not be stored; the individual failures
+     * are available as the cause and the suppressed exceptions
+     */
+    @Override
+    public void close() throws InterruptedException, IOException
+    {
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        committers.shutdown();
+        committers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+        synchronized (failures)
+        {
+            if (!failures.isEmpty())
+            {
+                IOException e = new IOException("Storing " + failedArtifacts.size() + " artifacts failed in "
+                        + failures.size() + " batches", failures.get(0));
+                for (int i = 1; i < failures.size(); i++)
+                    e.addSuppressed(failures.get(i));
+                throw e;
+            }
+        }
+    }
+
+    private void commitLoop()
+    {
+        final int batchSize = ingest.getBatchSize();
+        List<Artifact> batch = new ArrayList<>(batchSize);
+        try {
+            while (!closed || !queue.isEmpty())
+            {
+                Artifact first = queue.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                if (first != null)
+                {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    try {
+                        ingest.store(batch);
+                    } catch (Exception e) {
+                        synchronized (failures)
+                        {
+                            failedArtifacts.addAll(batch);
+                            failures.add(e);
+                        }
+                        failureListener.ingestFailed(new ArrayList<>(batch), e);
+                    }
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,260 @@
+/**
+ * BulkArtifactIngest.java
+ *
+ * Created on 18. 10. 2026, 18:36:22 by agent
+ */
+package cz.vutbr.fit.layout.demo.rdf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Artifact;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.rdf.AreaModelBuilder;
+import cz.vutbr.fit.layout.rdf.BoxModelBuilder;
+import cz.vutbr.fit.layout.rdf.RDFArtifactRepository;
+
+/**
+ * Stores artifacts in a RDF artifact repository in batches. The artifacts are queued and
+ * when the configured batch size is reached, all the queued artifacts are stored using a single
+ * repository connection and transaction. This avoids the per-artifact transaction overhead
+ * of {@link RDFArtifactRepository#addArtifact(Artifact)} that is significant for the native
+ * and HTTP storages.
+ *
+ * The IRIs are assigned to the artifacts immediately when they are added to the queue so that
+ * the derived artifacts (e.g. area trees created from a queued page) may refer to them.
+ *
+ * Only pages and area trees are supported. For them, the batch contains the same statements
+ * as {@link RDFArtifactRepository#addArtifact(Artifact)} would store: the IRIs are created
+ * by the repository, the graphs are created by the {@link BoxModelBuilder} and {@link AreaModelBuilder}
+ * using the repository IRI factory and each graph is stored in the context of its artifact IRI.
+ * Other artifact types are rejected when added, so that a batch is always stored completely
+ * in its transaction or not at all. They should be stored using
+ * {@link RDFArtifactRepository#addArtifact(Artifact)} instead (see {@link #isSupported(Artifact)}).
+ *
+ * @author agent
+ */
+public class BulkArtifactIngest implements AutoCloseable
+{
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final RDFArtifactRepository repository;
+    private final int batchSize;
+    private final List<Artifact> queue;
+
+    private long artifactCount;
+    private long statementCount;
+    private long batchCount;
+    private long storeTime; // total time spent by storing in nanoseconds
+
+
+    /**
+     * Creates a bulk ingest with the default batch size.
+     *
+     * @param repository the target repository
+     */
+    public BulkArtifactIngest(RDFArtifactRepository repository)
+    {
+        this(repository, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a bulk ingest with the given batch size.
+     *
+     * @param repository the target repository
+     * @param batchSize the number of artifacts stored in a single transaction
+     */
+    public BulkArtifactIngest(RDFArtifactRepository repository, int batchSize)
+    {
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.queue = new ArrayList<>(batchSize);
+    }
+
+    public RDFArtifactRepository getRepository()
+    {
+        return repository;
+    }
+
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    /**
+     * Assigns an IRI to the artifact when necessary and adds the artifact to the queue. When the batch size
+     * is reached, the queued artifacts are stored.
+     *
+     * @param artifact the artifact to store
+     * @throws IllegalArgumentException when the artifact type is not supported
+     */
+    public synchronized void add(Artifact artifact)
+    {
+        checkSupported(artifact);
+        assignIri(artifact);
+        queue.add(artifact);
+        if (queue.size() >= batchSize)
+            flush();
+    }
+
+    /**
+     * Checks whether the artifact may be stored by the bulk ingest.
+     *
+     * @param artifact the artifact
+     * @return {@code true} for pages and area trees
+     */
+    public static boolean isSupported(Artifact artifact)
+    {
+        return artifact instanceof Page || artifact instanceof AreaTree;
+    }
+
+    /**
+     * Rejects the artifacts that cannot be stored by the bulk ingest.
+     *
+     * @param artifact the artifact
+     * @throws IllegalArgumentException when the artifact type is not supported
+     */
+    public void checkSupported(Artifact artifact)
+    {
+        if (!isSupported(artifact))
+            throw new IllegalArgumentException("Unsupported artifact type for bulk ingest: "
+                    + artifact.getClass().getName() + " (use RDFArtifactRepository.addArtifact() instead)");
+    }
+
+    /**
+     * Assigns a new IRI to the artifact unless it already has one.
+     *
+     * @param artifact the artifact
+     */
+    public void assignIri(Artifact artifact)
+    {
+        if (artifact.getIri() == null)
+        {
+            synchronized (repository)
+            {
+                artifact.setIri(repository.createArtifactIri(artifact));
+            }
+        }
+    }
+
+    /**
+     * Stores all the queued artifacts in a single transaction.
+     */
+    public synchronized void flush()
+    {
+        if (queue.isEmpty())
+            return;
+        List<Artifact> batch = new ArrayList<>(queue);
+        queue.clear();
+        store(batch);
+    }
+
+    /**
+     * Stores a list of artifacts in a single transaction. When the transaction fails, no artifacts
+     * from the batch are stored.
+     *
+     * @param batch the list of artifacts to store
+     * @throws IllegalArgumentException when the batch contains an unsupported artifact type; nothing is stored then
+     */
+    public void store(List<Artifact> batch)
+    {
+        // reject the whole batch before anything is stored
+        for (Artifact a : batch)
+            checkSupported(a);
+
+        final long startTime = System.nanoTime();
+        // create the RDF models outside of the transaction
+        List<Artifact> stored = new ArrayList<>(batch.size());
+        List<Model> models = new ArrayList<>(batch.size());
+        for (Artifact a : batch)
+        {
+            assignIri(a);
+            stored.add(a);
+            models.add(createGraph(a));
+        }
+
+        long statements = 0;
+        try (RepositoryConnection conn = repository.getStorage().getConnection()) {
+            conn.begin();
+            try {
+                for (int i = 0; i < stored.size(); i++)
+                {
+                    conn.add(models.get(i), stored.get(i).getIri());
+                    statements += models.get(i).size();
+                }
+                conn.commit();
+            } catch (RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+
+        synchronized (this)
+        {
+            artifactCount += batch.size();
+            statementCount += statements;
+            batchCount++;
+            storeTime += System.nanoTime() - startTime;
+        }
+    }
+
+    /**
+     * Stores the remaining queued artifacts.
+     */
+    @Override
+    public void close()
+    {
+        flush();
+    }
+
+    protected Model createGraph(Artifact artifact)
+    {
+        if (artifact instanceof Page)
+            return new BoxModelBuilder(repository.getIriFactory()).createGraph((Page) artifact);
+        else
+            return new AreaModelBuilder(repository.getIriFactory()).createGraph((AreaTree) artifact);
+    }
+
+    //=========================================================================================
+
+    public synchronized long getArtifactCount()
+    {
+        return artifactCount;
+    }
+
+    public synchronized long getStatementCount()
+    {
+        return statementCount;
+    }
+
+    public synchronized long getBatchCount()
+    {
+        return batchCount;
+    }
+
+    /**
+     * Computes the storing throughput.
+     *
+     * @return the average number of statements stored per second
+     */
+    public synchronized double getStatementsPerSecond()
+    {
+        return (storeTime == 0) ? 0.0 : statementCount / (storeTime / 1e9);
+    }
+
+    /**
+     * Creates a short summary of the ingest statistics.
+     *
+     * @return the summary string
+     */
+    public synchronized String getStatistics()
+    {
+        return String.format("%d artifacts, %d statements in %d batches, %.0f statements/sec",
+                artifactCount, statementCount, batchCount, getStatementsPerSecond());
+    }
+
+}
@@ -5,24 +5,27 @@
  */
 package cz.vutbr.fit.layout.demo.rdf;
 
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 
-import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
 import org.xml.sax.SAXException;
 
 import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
+import cz.vutbr.fit.layout.demo.metrics.PipelineMetrics;
 import cz.vutbr.fit.layout.model.Page;
-import cz.vutbr.fit.layout.rdf.BoxModelBuilder;
 import cz.vutbr.fit.layout.rdf.DefaultIRIFactory;
 import cz.vutbr.fit.layout.rdf.IRIFactory;
-import cz.vutbr.fit.layout.rdf.Serialization;
 
 /**
  * Shows rendering a page and serializing the result in RDF format (turtle serialization).
+ * The statements are written directly by the {@link StreamingRDFExport}. With the {@code -c} option,
+ * the output is compared with the {@code BoxModelBuilder} graph (see {@link StreamingRDFCheck}).
  * 
  * @author burgetr
  */
@@ -34,6 +37,9 @@ public class PageToRDF
      */
     public static void main(String[] args)
     {
+        final boolean check = args.length > 0 && args[0].equals("-c");
+        // collect the stage metrics (exported when the fitlayout.metrics property is set)
+        var metrics = new PipelineMetrics("PageToRDF");
         try {
             URL url = new URL("http://cssbox.sf.net");
             
@@ -42,7 +48,9 @@ public class PageToRDF
             renderer.setIncludeScreenshot(false); // we don't need screen shot in this demo
             
             // perform page rendering
+            var render = metrics.start("render");
             Page page = renderer.getPage();
+            render.end(page);
             
             // read page information
             System.out.println("Rendered page");
@@ -55,12 +63,20 @@ public class PageToRDF
             page.setIri(iriFactory.createArtifactIri(1));
             
             // output to RDF in Turtle serialization
-            OutputStream os = new FileOutputStream("page.ttl");
-            BoxModelBuilder builder = new BoxModelBuilder(iriFactory);
-            Model graph = builder.createGraph(page);
-            Serialization.modelToStream(graph, os, Serialization.TURTLE);
-            os.close();
+            var output = metrics.start("output");
+            try (OutputStream os = new BufferedOutputStream(new FileOutputStream("page.ttl"))) {
+                var export = new StreamingRDFExport(Rio.createWriter(RDFFormat.TURTLE, os), iriFactory);
+                export.start();
+                export.exportPage(page);
+                export.end();
+            }
             System.out.println("Output written to page.ttl");
+            output.end();
+            metrics.exportIfRequested();
+            
+            // optionally compare with the model builder
+            if (check)
+                StreamingRDFCheck.checkPage(page, iriFactory, System.out);
             
         } catch (MalformedURLException e) {
             System.err.println(e.getMessage());
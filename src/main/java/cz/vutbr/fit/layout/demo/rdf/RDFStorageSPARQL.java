@@ -25,7 +25,7 @@ import cz.vutbr.fit.layout.vips.VipsProvider;
 
 /**
  * Shows rendering a page, creating a visual area tree and storing both artifacts in a RDF artifact
- * repository. By default, an in-memory storage is used. See commented options in the code for using
+ * repository in a single batch (see {@link BulkArtifactIngest}). By default, an in-memory storage is used. See commented options in the code for using
  * a native (local filesystem) or remote storage over HTTP.
  * 
  * Next, a SPARQL query is executed in order to get all boxes in the page, their font sizes and
@@ -54,6 +54,9 @@ public class RDFStorageSPARQL
             // -or- an RDF4J storage over HTTP
             //var repository = RDFArtifactRepository.createHTTP("http://localhost:8080/rdf4j", "fitlayout");
             
+            // the artifacts are stored in a single transaction when the ingest is flushed
+            var ingest = new BulkArtifactIngest(repository);
+            
             // setup the renderer
             var renderer = new CSSBoxTreeProvider(url, 1200, 800);
             renderer.setIncludeScreenshot(false); // we don't need screen shot in this demo
@@ -68,7 +71,7 @@ public class RDFStorageSPARQL
             System.out.println("Rendered size: " + page.getWidth() + " x " + page.getHeight() + " px");
             
             // store the page in the repository (includes assigning a new IRI to the page)
-            repository.addArtifact(page);
+            ingest.add(page);
             System.out.println("Page IRI: " + page.getIri());
             
             // setup the VIPS segmentation provider
@@ -79,9 +82,13 @@ public class RDFStorageSPARQL
             AreaTree atree = vips.createAreaTree(page);
             
             // store the area tree in the repository (includes assigning a new IRI to the area tree)
-            repository.addArtifact(atree);
+            ingest.add(atree);
             System.out.println("Area tree IRI: " + atree.getIri());
             
+            // store the queued artifacts
+            ingest.flush();
+            System.out.println("Stored " + ingest.getStatistics());
+            
             // the SPARQL query - get all boxes, their font size and text
             String queryString = "PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>\n"
                     + "PREFIX box: <http://fitlayout.github.io/ontology/render.owl#>\n"
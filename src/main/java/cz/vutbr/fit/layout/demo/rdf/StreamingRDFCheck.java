@@ -0,0 +1,148 @@
+/**
+ * StreamingRDFCheck.java
+ *
+ * Created on 18. 10. 2026, 13:12:40 by agent
+ */
+package cz.vutbr.fit.layout.demo.rdf;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.rio.helpers.StatementCollector;
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.demo.PageCache;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.rdf.AreaModelBuilder;
+import cz.vutbr.fit.layout.rdf.BoxModelBuilder;
+import cz.vutbr.fit.layout.rdf.DefaultIRIFactory;
+import cz.vutbr.fit.layout.rdf.IRIFactory;
+import cz.vutbr.fit.layout.vips.VipsProvider;
+
+/**
+ * Checks that the {@link StreamingRDFExport} produces the same RDF graphs as the {@link BoxModelBuilder}
+ * and {@link AreaModelBuilder} for a rendered and segmented page. The graphs are compared for isomorphism
+ * (the blank nodes may differ); when they differ, the numbers of statements per property are listed
+ * for the properties that differ. The check may be also invoked by the other demos that use the streaming
+ * export (see {@link #checkPage(Page, IRIFactory, PrintStream)} and
+ * {@link #checkAreaTree(AreaTree, IRIFactory, PrintStream)}).
+ *
+ * @author agent
+ */
+public class StreamingRDFCheck
+{
+
+    /**
+     * @param args the page URL (optional)
+     */
+    public static void main(String[] args)
+    {
+        try {
+            URL url = new URL((args.length > 0) ? args[0] : "http://cssbox.sf.net");
+
+            // obtain the rendered page
+            Page page = PageCache.getDefault().getPage(url, 1200, 800, false);
+
+            // assign an IRI to the created page
+            IRIFactory iriFactory = new DefaultIRIFactory();
+            page.setIri(iriFactory.createArtifactIri(1));
+
+            // perform segmentation; produces an area tree
+            var vips = new VipsProvider();
+            vips.setPDoC(9); // the preferred degree of coherence
+            AreaTree atree = vips.createAreaTree(page);
+            atree.setIri(iriFactory.createArtifactIri(2));
+
+            boolean pageOk = checkPage(page, iriFactory, System.out);
+            boolean treeOk = checkAreaTree(atree, iriFactory, System.out);
+            System.out.println((pageOk && treeOk) ? "Result: the graphs are identical" : "Result: the graphs DIFFER");
+
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Compares the streamed RDF graph of a page with the graph created by the {@link BoxModelBuilder}.
+     *
+     * @param page the page to check (it must have an IRI assigned)
+     * @param iriFactory the IRI factory used by both the variants
+     * @param out the destination of the comparison report
+     * @return {@code true} when the graphs are isomorphic
+     */
+    public static boolean checkPage(Page page, IRIFactory iriFactory, PrintStream out)
+    {
+        Model expected = new BoxModelBuilder(iriFactory).createGraph(page);
+        Model actual = new LinkedHashModel();
+        var export = new StreamingRDFExport(new StatementCollector(actual), iriFactory);
+        export.start();
+        export.exportPage(page);
+        export.end();
+        return compare("Page", expected, actual, out);
+    }
+
+    /**
+     * Compares the streamed RDF graph of an area tree with the graph created by the {@link AreaModelBuilder}.
+     *
+     * @param atree the area tree to check (it must have an IRI assigned)
+     * @param iriFactory the IRI factory used by both the variants
+     * @param out the destination of the comparison report
+     * @return {@code true} when the graphs are isomorphic
+     */
+    public static boolean checkAreaTree(AreaTree atree, IRIFactory iriFactory, PrintStream out)
+    {
+        Model expected = new AreaModelBuilder(iriFactory).createGraph(atree);
+        Model actual = new LinkedHashModel();
+        var export = new StreamingRDFExport(new StatementCollector(actual), iriFactory);
+        export.start();
+        export.exportAreaTree(atree);
+        export.end();
+        return compare("Area tree", expected, actual, out);
+    }
+
+    private static boolean compare(String name, Model expected, Model actual, PrintStream out)
+    {
+        final boolean same = Models.isomorphic(expected, actual);
+        out.println(name + ": " + expected.size() + " statements from the model builder, "
+                + actual.size() + " statements streamed, " + (same ? "isomorphic" : "different"));
+        if (!same)
+        {
+            final Map<String, Integer> expCounts = countProperties(expected);
+            final Map<String, Integer> actCounts = countProperties(actual);
+            final Set<String> properties = new TreeSet<>(expCounts.keySet());
+            properties.addAll(actCounts.keySet());
+            for (String property : properties)
+            {
+                final int exp = expCounts.getOrDefault(property, 0);
+                final int act = actCounts.getOrDefault(property, 0);
+                if (exp != act)
+                    out.println("  " + property + ": " + exp + " expected, " + act + " streamed");
+            }
+        }
+        return same;
+    }
+
+    private static Map<String, Integer> countProperties(Model model)
+    {
+        Map<String, Integer> ret = new TreeMap<>();
+        for (Statement st : model)
+            ret.merge(st.getPredicate().stringValue(), 1, Integer::sum);
+        return ret;
+    }
+
+}
@@ -0,0 +1,341 @@
+/**
+ * StreamingRDFExport.java
+ *
+ * Created on 18. 10. 2026, 20:05:37 by agent
+ */
+package cz.vutbr.fit.layout.demo.rdf;
+
+import java.awt.Color;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.Map;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.rio.RDFHandler;
+
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Artifact;
+import cz.vutbr.fit.layout.model.Border;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.ContentImage;
+import cz.vutbr.fit.layout.model.ContentObject;
+import cz.vutbr.fit.layout.model.ContentRect;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.model.Rectangular;
+import cz.vutbr.fit.layout.model.Tag;
+import cz.vutbr.fit.layout.model.TextStyle;
+import cz.vutbr.fit.layout.ontology.BOX;
+import cz.vutbr.fit.layout.ontology.FL;
+import cz.vutbr.fit.layout.ontology.SEGM;
+import cz.vutbr.fit.layout.rdf.IRIFactory;
+
+/**
+ * Exports pages and area trees to RDF without creating an in-memory RDF model. The box or area tree
+ * is traversed and the statements are passed directly to an RDF4J {@link RDFHandler}, typically
+ * an {@code RDFWriter} obtained from {@code Rio.createWriter()} for the Turtle, N-Triples or binary
+ * RDF format. The memory consumption therefore does not depend on the page size.
+ *
+ * The statements describe the artifacts using the FitLayout ontology vocabulary ({@link BOX},
+ * {@link SEGM} and {@link FL}) and the box and area IRIs are created by the given {@link IRIFactory},
+ * with the same properties as the {@code BoxModelBuilder} and {@code AreaModelBuilder} create, so that
+ * the output may be loaded to an artifact repository. {@link StreamingRDFCheck} compares the output
+ * with the model builders for a given page.
+ *
+ * @author agent
+ */
+public class StreamingRDFExport
+{
+    private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    private final RDFHandler handler;
+    private final IRIFactory iriFactory;
+
+
+    /**
+     * Creates an exporter.
+     *
+     * @param handler the RDF handler that receives the statements (e.g. an RDF writer)
+     * @param iriFactory the IRI factory used for creating the box and area IRIs; it should be
+     * the IRI factory of the target repository
+     */
+    public StreamingRDFExport(RDFHandler handler, IRIFactory iriFactory)
+    {
+        this.handler = handler;
+        this.iriFactory = iriFactory;
+    }
+
+    /**
+     * Starts the RDF output and declares the namespace prefixes.
+     */
+    public void start()
+    {
+        handler.startRDF();
+        handler.handleNamespace(BOX.PREFIX, BOX.NAMESPACE);
+        handler.handleNamespace(SEGM.PREFIX, SEGM.NAMESPACE);
+        handler.handleNamespace(FL.PREFIX, FL.NAMESPACE);
+    }
+
+    /**
+     * Ends the RDF output.
+     */
+    public void end()
+    {
+        handler.endRDF();
+    }
+
+    /**
+     * Exports a page and all its boxes. The page must have an IRI assigned.
+     *
+     * @param page the page to export
+     */
+    public void exportPage(Page page)
+    {
+        final IRI pageIri = page.getIri();
+        emit(pageIri, RDF.TYPE, BOX.Page);
+        exportArtifactData(page);
+        if (page.getSourceURL() != null)
+            emit(pageIri, BOX.sourceUrl, vf.createLiteral(page.getSourceURL()));
+        if (page.getTitle() != null)
+            emit(pageIri, BOX.title, vf.createLiteral(page.getTitle()));
+        emit(pageIri, BOX.width, vf.createLiteral(page.getWidth()));
+        emit(pageIri, BOX.height, vf.createLiteral(page.getHeight()));
+        if (page.getPngImage() != null)
+            emit(pageIri, BOX.pngImage, vf.createLiteral(Base64.getEncoder().encodeToString(page.getPngImage())));
+
+        // pre-order traversal with an explicit stack
+        Deque<Box> stack = new ArrayDeque<>();
+        stack.push(page.getRoot());
+        while (!stack.isEmpty())
+        {
+            final Box box = stack.pop();
+            exportBox(pageIri, box);
+            for (int i = box.getChildCount() - 1; i >= 0; i--)
+                stack.push(box.getChildAt(i));
+        }
+    }
+
+    /**
+     * Exports an area tree and all its areas. The area tree must have an IRI assigned.
+     *
+     * @param atree the area tree to export
+     */
+    public void exportAreaTree(AreaTree atree)
+    {
+        final IRI treeIri = atree.getIri();
+        final IRI pageIri = atree.getPageIri();
+        emit(treeIri, RDF.TYPE, SEGM.AreaTree);
+        exportArtifactData(atree);
+        if (pageIri != null)
+            emit(treeIri, SEGM.sourcePage, pageIri);
+
+        Deque<Area> stack = new ArrayDeque<>();
+        stack.push(atree.getRoot());
+        int order = 0;
+        while (!stack.isEmpty())
+        {
+            final Area area = stack.pop();
+            exportArea(treeIri, pageIri, area, order++);
+            for (int i = area.getChildCount() - 1; i >= 0; i--)
+                stack.push(area.getChildAt(i));
+        }
+    }
+
+    //=========================================================================================
+
+    private void exportArtifactData(Artifact artifact)
+    {
+        final IRI iri = artifact.getIri();
+        if (artifact.getParentIri() != null)
+            emit(iri, FL.hasParentArtifact, artifact.getParentIri());
+        if (artifact.getLabel() != null)
+            emit(iri, RDFS.LABEL, vf.createLiteral(artifact.getLabel()));
+        if (artifact.getCreator() != null)
+            emit(iri, FL.creator, vf.createLiteral(artifact.getCreator()));
+        if (artifact.getCreatorParams() != null)
+            emit(iri, FL.creatorParams, vf.createLiteral(artifact.getCreatorParams()));
+        if (artifact.getCreatedOn() != null)
+            emit(iri, FL.createdOn, vf.createLiteral(artifact.getCreatedOn()));
+    }
+
+    private void exportBox(IRI pageIri, Box box)
+    {
+        final IRI boxIri = iriFactory.createBoxURI(pageIri, box);
+        emit(boxIri, RDF.TYPE, BOX.Box);
+        emit(boxIri, BOX.belongsTo, pageIri);
+        emit(boxIri, BOX.documentOrder, vf.createLiteral(box.getOrder()));
+        emit(boxIri, BOX.visible, vf.createLiteral(box.isVisible()));
+        if (box.getParent() != null)
+            emit(boxIri, BOX.isChildOf, iriFactory.createBoxURI(pageIri, box.getParent()));
+        if (box.getDisplayType() != null)
+            emit(boxIri, BOX.displayType, vf.createLiteral(box.getDisplayType().toString()));
+
+        // element properties
+        if (box.getTagName() != null)
+        {
+            emit(boxIri, BOX.htmlTagName, vf.createLiteral(box.getTagName()));
+            if (box.getAttributes() != null)
+            {
+                for (Map.Entry<String, String> attr : box.getAttributes().entrySet())
+                {
+                    final BNode attrNode = vf.createBNode();
+                    emit(boxIri, BOX.hasAttribute, attrNode);
+                    emit(attrNode, RDF.TYPE, BOX.Attribute);
+                    emit(attrNode, RDFS.LABEL, vf.createLiteral(attr.getKey()));
+                    emit(attrNode, RDF.VALUE, vf.createLiteral(attr.getValue()));
+                }
+            }
+        }
+
+        // geometry
+        exportBounds(boxIri, BOX.bounds, box.getBounds());
+        exportBounds(boxIri, BOX.contentBounds, box.getContentBounds());
+        exportBounds(boxIri, BOX.visualBounds, box.getVisualBounds());
+
+        // content
+        if (box.getType() == Box.Type.TEXT_CONTENT)
+            emit(boxIri, BOX.text, vf.createLiteral(box.getText()));
+        else if (box.getType() == Box.Type.REPLACED_CONTENT && box.getContentObject() != null)
+            exportContentObject(boxIri, box.getContentObject());
+
+        // visual style
+        if (box.getFontFamily() != null)
+            emit(boxIri, BOX.fontFamily, vf.createLiteral(box.getFontFamily()));
+        if (box.getColor() != null)
+            emit(boxIri, BOX.color, vf.createLiteral(colorString(box.getColor())));
+        exportVisualStyle(boxIri, box);
+    }
+
+    private void exportArea(IRI treeIri, IRI pageIri, Area area, int order)
+    {
+        final IRI areaIri = iriFactory.createAreaURI(treeIri, area);
+        emit(areaIri, RDF.TYPE, SEGM.Area);
+        emit(areaIri, SEGM.belongsTo, treeIri);
+        emit(areaIri, BOX.documentOrder, vf.createLiteral(order));
+        if (area.getParent() != null)
+            emit(areaIri, SEGM.isChildOf, iriFactory.createAreaURI(treeIri, area.getParent()));
+        if (area.getName() != null)
+            emit(areaIri, SEGM.hasName, vf.createLiteral(area.getName()));
+        exportBounds(areaIri, BOX.bounds, area.getBounds());
+
+        // the boxes and the text of the leaf areas
+        if (area.isLeaf())
+        {
+            if (pageIri != null)
+            {
+                for (Box box : area.getBoxes())
+                    emit(areaIri, SEGM.containsBox, iriFactory.createBoxURI(pageIri, box));
+            }
+            emit(areaIri, BOX.text, vf.createLiteral(area.getText()));
+        }
+
+        // tags
+        if (area.getTags() != null)
+        {
+            for (Map.Entry<Tag, Float> tag : area.getTags().entrySet())
+            {
+                final IRI tagIri = iriFactory.createTagURI(tag.getKey());
+                emit(areaIri, SEGM.hasTag, tagIri);
+                final BNode support = vf.createBNode();
+                emit(areaIri, SEGM.tagSupport, support);
+                emit(support, RDF.TYPE, SEGM.TagSupport);
+                emit(support, SEGM.hasTag, tagIri);
+                emit(support, SEGM.support, vf.createLiteral(tag.getValue()));
+            }
+        }
+
+        exportVisualStyle(areaIri, area);
+    }
+
+    /**
+     * Exports the font, background and border properties common to boxes and areas.
+     */
+    private void exportVisualStyle(IRI subject, ContentRect rect)
+    {
+        final TextStyle style = rect.getTextStyle();
+        if (style != null)
+        {
+            emit(subject, BOX.fontSize, vf.createLiteral(style.getFontSize()));
+            emit(subject, BOX.fontWeight, vf.createLiteral(style.getFontWeight()));
+            emit(subject, BOX.fontStyle, vf.createLiteral(style.getFontStyle()));
+            emit(subject, BOX.underline, vf.createLiteral(style.getUnderline()));
+            emit(subject, BOX.lineThrough, vf.createLiteral(style.getLineThrough()));
+        }
+        if (rect.getBackgroundColor() != null)
+            emit(subject, BOX.backgroundColor, vf.createLiteral(colorString(rect.getBackgroundColor())));
+        if (rect.hasTopBorder())
+            exportBorder(subject, BOX.hasTopBorder, rect.getBorderStyle(Border.Side.TOP));
+        if (rect.hasRightBorder())
+            exportBorder(subject, BOX.hasRightBorder, rect.getBorderStyle(Border.Side.RIGHT));
+        if (rect.hasBottomBorder())
+            exportBorder(subject, BOX.hasBottomBorder, rect.getBorderStyle(Border.Side.BOTTOM));
+        if (rect.hasLeftBorder())
+            exportBorder(subject, BOX.hasLeftBorder, rect.getBorderStyle(Border.Side.LEFT));
+    }
+
+    private void exportBounds(IRI subject, IRI property, Rectangular b)
+    {
+        if (b != null)
+        {
+            final BNode bounds = vf.createBNode();
+            emit(subject, property, bounds);
+            emit(bounds, RDF.TYPE, BOX.Rectangle);
+            emit(bounds, BOX.positionX, vf.createLiteral(b.getX1()));
+            emit(bounds, BOX.positionY, vf.createLiteral(b.getY1()));
+            emit(bounds, BOX.width, vf.createLiteral(b.getWidth()));
+            emit(bounds, BOX.height, vf.createLiteral(b.getHeight()));
+        }
+    }
+
+    private void exportBorder(IRI subject, IRI property, Border border)
+    {
+        if (border != null)
+        {
+            final BNode node = vf.createBNode();
+            emit(subject, property, node);
+            emit(node, RDF.TYPE, BOX.Border);
+            emit(node, BOX.borderWidth, vf.createLiteral(border.getWidth()));
+            emit(node, BOX.borderStyle, vf.createLiteral(border.getStyle().toString()));
+            emit(node, BOX.borderColor, vf.createLiteral(colorString(border.getColor())));
+        }
+    }
+
+    private void exportContentObject(IRI subject, ContentObject obj)
+    {
+        final BNode node = vf.createBNode();
+        emit(subject, BOX.containsObject, node);
+        if (obj instanceof ContentImage)
+        {
+            final ContentImage img = (ContentImage) obj;
+            emit(node, RDF.TYPE, BOX.Image);
+            if (img.getUrl() != null)
+                emit(node, BOX.imageUrl, vf.createLiteral(img.getUrl().toString()));
+            if (img.getPngData() != null)
+                emit(node, BOX.imageData, vf.createLiteral(Base64.getEncoder().encodeToString(img.getPngData())));
+        }
+    }
+
+    private void emit(Resource subject, IRI predicate, Value object)
+    {
+        handler.handleStatement(vf.createStatement(subject, predicate, object));
+    }
+
+    private static String colorString(Color color)
+    {
+        if (color == null)
+            return "";
+        if (color.getAlpha() == 255)
+            return String.format("#%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue());
+        else
+            return String.format("#%02x%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha());
+    }
+
+}
@@ -0,0 +1,346 @@
+/**
+ * CSSBoxBatchRenderer.java
+ *
+ * Created on 19. 10. 2026, 11:58:43 by agent
+ */
+package cz.vutbr.fit.layout.demo.render;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
+import cz.vutbr.fit.layout.demo.OutputUtils;
+import cz.vutbr.fit.layout.demo.rdf.AsyncArtifactIngest;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.rdf.RDFArtifactRepository;
+
+/**
+ * Renders a list of URLs or local HTML files concurrently using the CSSBox renderer. The pages
+ * are rendered by a fixed pool of worker threads; at most twice as many pages as threads are
+ * queued so that the input list is read gradually. The rendered pages are passed to a {@link PageSink}
+ * (see {@link PageSinks}).
+ *
+ * Each page must be rendered within the given time limit, otherwise it is reported as failed.
+ * A page is rendered by a separate rendering thread and the worker thread only waits for the result
+ * until the time limit expires, so a stalled page never blocks the worker. The timed out rendering
+ * thread is interrupted; however, CSSBox does not check the interruption, so the thread keeps
+ * running in the background until the rendering finishes and its result is discarded. The number
+ * of such abandoned renderings is limited: when the limit is reached, the workers wait until some
+ * of them finish before starting a new page. When started using {@link #main(String[])}, the network
+ * connect and read timeouts are set to the same limit, so that a stalled connection terminates
+ * the background rendering as well.
+ *
+ * Usage: CSSBoxBatchRenderer [-o xml|png|rdf] [-t threads] [-T timeout ms] &lt;directory&gt;|&lt;list&gt; &lt;output directory&gt;
+ *
+ * @author agent
+ */
+public class CSSBoxBatchRenderer
+{
+    private final int width;
+    private final int height;
+    private final boolean screenshot;
+    private final long timeout;
+    private final ExecutorService executor;
+    private final ExecutorService renderExecutor;
+    private final Semaphore queued;
+    private final Semaphore renderSlots; // the running renderings including the abandoned ones
+    private final AtomicInteger rendered = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger timedOut = new AtomicInteger();
+
+
+    /**
+     * Creates a new batch renderer that allows as many abandoned renderings as there are worker threads.
+     *
+     * @param width the viewport width
+     * @param height the viewport height
+     * @param screenshot include the page screenshots?
+     * @param threads the number of worker threads
+     * @param timeout the maximal rendering time of a single page in milliseconds
+     */
+    public CSSBoxBatchRenderer(int width, int height, boolean screenshot, int threads, long timeout)
+    {
+        this(width, height, screenshot, threads, timeout, threads);
+    }
+
+    /**
+     * Creates a new batch renderer.
+     *
+     * @param width the viewport width
+     * @param height the viewport height
+     * @param screenshot include the page screenshots?
+     * @param threads the number of worker threads
+     * @param timeout the maximal rendering time of a single page in milliseconds
+     * @param maxAbandoned the maximal number of the timed out renderings that may keep running
+     * in the background
+     */
+    public CSSBoxBatchRenderer(int width, int height, boolean screenshot, int threads, long timeout, int maxAbandoned)
+    {
+        this.width = width;
+        this.height = height;
+        this.screenshot = screenshot;
+        this.timeout = timeout;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.queued = new Semaphore(threads * 2);
+        // the rendering threads are reused; their number is bounded by the render slots
+        this.renderSlots = new Semaphore(threads + maxAbandoned);
+        this.renderExecutor = Executors.newCachedThreadPool(r -> {
+            final Thread thread = new Thread(r, "render");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getRenderedCount()
+    {
+        return rendered.get();
+    }
+
+    public int getFailedCount()
+    {
+        return failed.get();
+    }
+
+    public int getTimedOutCount()
+    {
+        return timedOut.get();
+    }
+
+    /**
+     * Queues a page for rendering. Blocks while the queue is full.
+     *
+     * @param url the page URL
+     * @param sink the sink that receives the rendered page
+     * @throws InterruptedException
+     */
+    public void submit(URL url, PageSink sink) throws InterruptedException
+    {
+        queued.acquire();
+        try {
+            executor.execute(() -> {
+                try {
+                    process(url, sink);
+                } finally {
+                    queued.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            queued.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until all the submitted pages are rendered and stops the worker threads. The abandoned
+     * renderings are not waited for; their threads terminate when the renderings finish.
+     *
+     * @throws InterruptedException
+     */
+    public void finish() throws InterruptedException
+    {
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        renderExecutor.shutdown();
+    }
+
+    /**
+     * Renders a single page in the current thread and passes it to the sink.
+     *
+     * @param url the page URL
+     * @param sink the destination sink
+     */
+    protected void process(URL url, PageSink sink)
+    {
+        // render in a separate thread that may be abandoned when the time limit expires;
+        // wait for a free slot when too many abandoned renderings are still running
+        try {
+            renderSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        final FutureTask<Page> task = new FutureTask<>(() -> {
+            try {
+                return renderPage(url);
+            } finally {
+                renderSlots.release();
+            }
+        });
+        try {
+            renderExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            renderSlots.release();
+            throw e;
+        }
+
+        Page page = null;
+        Exception error = null;
+        try {
+            page = task.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            timedOut.incrementAndGet();
+            error = new TimeoutException("Rendering timed out after " + timeout + " ms");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            error = (Exception) e.getCause();
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (error == null)
+        {
+            try {
+                sink.pageRendered(url, page);
+                rendered.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                sink.pageFailed(url, e);
+            }
+        }
+        else
+        {
+            failed.incrementAndGet();
+            sink.pageFailed(url, error);
+        }
+    }
+
+    /**
+     * Renders a single page.
+     *
+     * @param url the page URL
+     * @return the rendered page
+     * @throws IOException
+     * @throws SAXException
+     */
+    protected Page renderPage(URL url) throws IOException, SAXException
+    {
+        var renderer = new CSSBoxTreeProvider(url, width, height);
+        renderer.setIncludeScreenshot(screenshot);
+        return renderer.getPage();
+    }
+
+    //=========================================================================================
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        String output = "xml";
+        int threads = Runtime.getRuntime().availableProcessors();
+        long timeout = 30000;
+        int i = 0;
+        try {
+            for (; i + 1 < args.length && args[i].startsWith("-"); i += 2)
+            {
+                switch (args[i])
+                {
+                    case "-o": output = args[i + 1]; break;
+                    case "-t": threads = Integer.parseInt(args[i + 1]); break;
+                    case "-T": timeout = Long.parseLong(args[i + 1]); break;
+                    default: throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            i = -1;
+        }
+        if (i < 0 || i != args.length - 2 || !(output.equals("xml") || output.equals("png") || output.equals("rdf")))
+        {
+            System.out.println("Usage: CSSBoxBatchRenderer [-o xml|png|rdf] [-t threads] [-T timeout ms] <directory>|<list> <output directory>");
+            System.exit(1);
+        }
+        Path input = Paths.get(args[i]);
+        Path outputDir = Paths.get(args[i + 1]);
+
+        // don't let the stalled connections keep the abandoned rendering threads running
+        final String netTimeout = String.valueOf(timeout);
+        if (System.getProperty("sun.net.client.defaultConnectTimeout") == null)
+            System.setProperty("sun.net.client.defaultConnectTimeout", netTimeout);
+        if (System.getProperty("sun.net.client.defaultReadTimeout") == null)
+            System.setProperty("sun.net.client.defaultReadTimeout", netTimeout);
+
+        AsyncArtifactIngest ingest = null;
+        try {
+            Files.createDirectories(outputDir);
+            PageSink sink;
+            switch (output)
+            {
+                case "png":
+                    sink = PageSinks.png(outputDir);
+                    break;
+                case "rdf":
+                    var repository = RDFArtifactRepository.createNative(outputDir.toString());
+                    ingest = new AsyncArtifactIngest(repository, threads * 4);
+                    sink = PageSinks.rdf(ingest);
+                    break;
+                default:
+                    sink = PageSinks.xml(outputDir);
+                    break;
+            }
+            var batch = new CSSBoxBatchRenderer(1200, 800, output.equals("png"), threads, timeout);
+
+            long startTime = System.nanoTime();
+            try (Stream<String> sources = RenderPool.listSources(input)) {
+                for (Iterator<String> it = sources.iterator(); it.hasNext(); )
+                    batch.submit(new URL(OutputUtils.toURLString(it.next())), sink);
+            }
+            batch.finish();
+            sink.finish();
+            if (ingest != null)
+            {
+                // wait for the queued artifacts; the finally block closes the ingest only on failures
+                final var pending = ingest;
+                ingest = null;
+                pending.close();
+            }
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+
+            System.out.println("Rendered: " + batch.getRenderedCount() + " pages, "
+                    + batch.getFailedCount() + " failed (" + batch.getTimedOutCount() + " timed out)");
+            System.out.printf("Time: %.1f s, %.1f pages/min using %d threads%n",
+                    seconds, batch.getRenderedCount() * 60 / seconds, threads);
+
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (ingest != null)
+            {
+                try {
+                    ingest.close();
+                } catch (IOException | InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+}
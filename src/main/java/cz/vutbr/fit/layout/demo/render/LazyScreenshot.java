@@ -0,0 +1,335 @@
+/**
+ * LazyScreenshot.java
+ *
+ * Created on 20. 10. 2026, 11:26:40 by agent
+ */
+package cz.vutbr.fit.layout.demo.render;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.playwright.PlaywrightTreeProvider;
+import cz.vutbr.fit.layout.puppeteer.PuppeteerTreeProvider;
+
+/**
+ * A handle of a page screenshot that is obtained only when it is actually used. The pages are
+ * rendered without the screenshot; when the screenshot is requested for the first time, the page
+ * is rendered again by the given source with the screenshot included. Note that the capture is a second
+ * rendering: the page is fetched from its source URL again and it is rendered with the original viewport
+ * size, so the screenshot may differ from the page model when the live page has changed in the meantime
+ * or when its rendering is not deterministic.
+ *
+ * The obtained screenshots (PNG data) are kept in memory within a global memory budget. When the budget
+ * is exceeded, the least recently used screenshots are spilled to temporary files and they are loaded
+ * again on the next access. {@link #release()} drops the screenshot completely, e.g. when it has been
+ * written to the output. The memory budget is set using the {@code fitlayout.screenshot.memory} system
+ * property (in bytes, 64 MB by default). The temporary files are deleted when the screenshot is loaded
+ * again or released; the handles should be therefore always released or closed.
+ *
+ * @author agent
+ */
+public class LazyScreenshot implements AutoCloseable
+{
+    /**
+     * Obtains the page screenshot as PNG data.
+     */
+    public interface ScreenshotSource
+    {
+        public byte[] capture() throws Exception;
+    }
+
+    public static final String MEMORY_PROPERTY = "fitlayout.screenshot.memory";
+    public static final long DEFAULT_MEMORY = 64L * 1024 * 1024;
+
+    /** The screenshots currently kept in memory in the LRU order. */
+    private static final LinkedHashMap<LazyScreenshot, Boolean> inMemory = new LinkedHashMap<>(16, 0.75f, true);
+    private static final long memoryBudget = Long.getLong(MEMORY_PROPERTY, DEFAULT_MEMORY);
+    private static long memoryUsed;
+
+    private final ScreenshotSource source;
+    private final Object captureLock = new Object();
+    private byte[] data;
+    private Path spillFile;
+    private boolean captured;
+    private long accounted; // the size counted in the memory budget, guarded by inMemory
+
+
+    /**
+     * Creates a screenshot handle.
+     *
+     * @param source the source used for obtaining the screenshot when it is requested
+     */
+    public LazyScreenshot(ScreenshotSource source)
+    {
+        this.source = source;
+    }
+
+    /**
+     * Creates a screenshot handle for a page rendered by CSSBox.
+     *
+     * @param page the page rendered without a screenshot
+     * @param width the viewport width used for rendering the page
+     * @param height the viewport height used for rendering the page
+     * @return the screenshot handle
+     */
+    public static LazyScreenshot cssbox(Page page, int width, int height)
+    {
+        return new LazyScreenshot(() -> {
+            var renderer = new CSSBoxTreeProvider(new URL(page.getSourceURL()), width, height);
+            renderer.setIncludeScreenshot(true);
+            return renderer.getPage().getPngImage();
+        });
+    }
+
+    /**
+     * Creates a screenshot handle for a page rendered by the Chromium (puppeteer) backend.
+     *
+     * @param page the page rendered without a screenshot
+     * @param width the viewport width used for rendering the page
+     * @param height the viewport height used for rendering the page
+     * @return the screenshot handle
+     */
+    public static LazyScreenshot puppeteer(Page page, int width, int height)
+    {
+        return new LazyScreenshot(() -> {
+            var renderer = new PuppeteerTreeProvider(new URL(page.getSourceURL()), width, height);
+            renderer.setIncludeScreenshot(true);
+            return renderer.getPage().getPngImage();
+        });
+    }
+
+    /**
+     * Creates a screenshot handle for a page rendered by the Chromium (playwright) backend.
+     *
+     * @param page the page rendered without a screenshot
+     * @param width the viewport width used for rendering the page
+     * @param height the viewport height used for rendering the page
+     * @return the screenshot handle
+     */
+    public static LazyScreenshot playwright(Page page, int width, int height)
+    {
+        return new LazyScreenshot(() -> {
+            var renderer = new PlaywrightTreeProvider(new URL(page.getSourceURL()), width, height);
+            renderer.setIncludeScreenshot(true);
+            return renderer.getPage().getPngImage();
+        });
+    }
+
+    /**
+     * Checks whether the screenshot has been already obtained from the source.
+     *
+     * @return {@code true} when the screenshot has been captured and not released
+     */
+    public synchronized boolean isCaptured()
+    {
+        return captured;
+    }
+
+    /**
+     * Checks whether the screenshot is currently spilled to a temporary file.
+     *
+     * @return {@code true} when the screenshot is spilled
+     */
+    public synchronized boolean isSpilled()
+    {
+        return spillFile != null;
+    }
+
+    /**
+     * Returns the screenshot PNG data. The screenshot is captured on the first access.
+     *
+     * @return the PNG data
+     * @throws IOException when the screenshot could not be obtained
+     */
+    public byte[] getPngImage() throws IOException
+    {
+        byte[] ret;
+        boolean loaded = false;
+        synchronized (captureLock)
+        {
+            Path file;
+            synchronized (this)
+            {
+                ret = data;
+                file = spillFile;
+            }
+            if (ret == null)
+            {
+                if (file != null)
+                    ret = Files.readAllBytes(file);
+                else
+                    ret = capture();
+                synchronized (this)
+                {
+                    data = ret;
+                    captured = true;
+                    deleteSpillFile();
+                }
+                loaded = true;
+            }
+        }
+        if (loaded)
+            addToMemory(this, ret.length);
+        else
+            touch(this);
+        return ret;
+    }
+
+    /**
+     * Writes the screenshot PNG data to a channel. A spilled screenshot is copied from the temporary
+     * file without loading it to memory.
+     *
+     * @param out the destination channel
+     * @throws IOException
+     */
+    public void writeTo(WritableByteChannel out) throws IOException
+    {
+        synchronized (captureLock)
+        {
+            Path file;
+            synchronized (this)
+            {
+                file = (data == null) ? spillFile : null;
+            }
+            if (file != null)
+            {
+                try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                    long pos = 0;
+                    final long size = in.size();
+                    while (pos < size)
+                        pos += in.transferTo(pos, size - pos, out);
+                }
+                return;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(getPngImage());
+        while (buffer.hasRemaining())
+            out.write(buffer);
+    }
+
+    /**
+     * Drops the screenshot from memory and deletes the temporary file. The screenshot will be captured
+     * again when it is requested later.
+     */
+    public void release()
+    {
+        synchronized (captureLock)
+        {
+            removeFromMemory(this);
+            synchronized (this)
+            {
+                data = null;
+                captured = false;
+                deleteSpillFile();
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        release();
+    }
+
+    //=========================================================================================
+
+    private byte[] capture() throws IOException
+    {
+        final byte[] ret;
+        try {
+            ret = source.capture();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Couldn't capture the screenshot: " + e.getMessage(), e);
+        }
+        if (ret == null)
+            throw new IOException("No screenshot obtained");
+        return ret;
+    }
+
+    /**
+     * Moves the screenshot data from memory to a temporary file.
+     *
+     * @return {@code true} when the screenshot is not kept in memory anymore
+     */
+    private synchronized boolean spill()
+    {
+        if (data == null)
+            return true;
+        try {
+            spillFile = Files.createTempFile("fitlayout-screenshot", ".png");
+            Files.write(spillFile, data);
+            data = null;
+            return true;
+        } catch (IOException e) {
+            // keep the data in memory when it cannot be spilled
+            deleteSpillFile();
+            return false;
+        }
+    }
+
+    private void deleteSpillFile()
+    {
+        if (spillFile != null)
+        {
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                // nothing more can be done; the file remains in the temporary directory
+            }
+            spillFile = null;
+        }
+    }
+
+    private static void addToMemory(LazyScreenshot shot, long size)
+    {
+        synchronized (inMemory)
+        {
+            memoryUsed += size - shot.accounted;
+            shot.accounted = size;
+            inMemory.put(shot, Boolean.TRUE);
+            // spill the least recently used screenshots; keep the current one
+            Iterator<LazyScreenshot> it = inMemory.keySet().iterator();
+            while (memoryUsed > memoryBudget && it.hasNext())
+            {
+                final LazyScreenshot eldest = it.next();
+                if (eldest != shot && eldest.spill())
+                {
+                    memoryUsed -= eldest.accounted;
+                    eldest.accounted = 0;
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private static void touch(LazyScreenshot shot)
+    {
+        synchronized (inMemory)
+        {
+            inMemory.get(shot);
+        }
+    }
+
+    private static void removeFromMemory(LazyScreenshot shot)
+    {
+        synchronized (inMemory)
+        {
+            inMemory.remove(shot);
+            memoryUsed -= shot.accounted;
+            shot.accounted = 0;
+        }
+    }
+
+}
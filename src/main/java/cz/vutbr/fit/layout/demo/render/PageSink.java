@@ -0,0 +1,51 @@
+/**
+ * PageSink.java
+ *
+ * Created on 19. 10. 2026, 10:02:36 by agent
+ */
+package cz.vutbr.fit.layout.demo.render;
+
+import java.net.URL;
+
+import cz.vutbr.fit.layout.model.Page;
+
+/**
+ * A consumer of the pages rendered in a batch (e.g. by a {@link RendererPool}). The sink methods
+ * are invoked from the worker threads and the implementations must be thread-safe.
+ *
+ * @author agent
+ */
+public interface PageSink
+{
+
+    /**
+     * Called when a page has been rendered successfully.
+     *
+     * @param url the source URL
+     * @param page the rendered page
+     * @throws Exception when the page could not be processed
+     */
+    public void pageRendered(URL url, Page page) throws Exception;
+
+    /**
+     * Called when rendering or processing a page failed. The default implementation prints
+     * the error message to the standard error output.
+     *
+     * @param url the source URL
+     * @param e the exception thrown
+     */
+    public default void pageFailed(URL url, Exception e)
+    {
+        System.err.println(url + ": " + e.getMessage());
+    }
+
+    /**
+     * Called when the batch has been finished.
+     *
+     * @throws Exception
+     */
+    public default void finish() throws Exception
+    {
+    }
+
+}
@@ -0,0 +1,101 @@
+/**
+ * PageSinks.java
+ *
+ * Created on 19. 10. 2026, 11:36:20 by agent
+ */
+package cz.vutbr.fit.layout.demo.render;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import cz.vutbr.fit.layout.demo.OutputUtils;
+import cz.vutbr.fit.layout.demo.rdf.AsyncArtifactIngest;
+import cz.vutbr.fit.layout.io.ArtifactStreamOutput;
+
+/**
+ * The basic {@link PageSink} implementations for storing the rendered pages.
+ *
+ * @author agent
+ */
+public class PageSinks
+{
+
+    private PageSinks()
+    {
+    }
+
+    /**
+     * Creates a sink that writes the XML description of each page to a separate file.
+     *
+     * @param outputDir the output directory
+     * @return the sink
+     */
+    public static PageSink xml(Path outputDir)
+    {
+        return (url, page) -> {
+            try (OutputStream os = createOutput(outputDir, url, ".xml")) {
+                ArtifactStreamOutput.outputXML(page, os);
+            }
+        };
+    }
+
+    /**
+     * Creates a sink that writes the screenshot of each page to a separate PNG file. The pages
+     * must be rendered with the screenshot included.
+     *
+     * @param outputDir the output directory
+     * @return the sink
+     */
+    public static PageSink png(Path outputDir)
+    {
+        return (url, page) -> {
+            try (OutputStream os = createOutput(outputDir, url, ".png")) {
+                ArtifactStreamOutput.outputPNG(page, os);
+            }
+        };
+    }
+
+    /**
+     * Creates a sink that stores the pages in an RDF repository using a write-behind ingest.
+     * The ingest must be closed after the batch is finished.
+     *
+     * @param ingest the ingest used for storing the pages
+     * @return the sink
+     */
+    public static PageSink rdf(AsyncArtifactIngest ingest)
+    {
+        return (url, page) -> ingest.add(page);
+    }
+
+    /**
+     * Creates the output file name for the given page URL: the last path segment without
+     * the extension (or the host name for the URLs with an empty path) followed by a hash
+     * of the whole URL, so that different pages with the same file name or host are written
+     * to different files.
+     *
+     * @param url the page URL
+     * @param extension the extension of the output file including the dot
+     * @return the output file name
+     */
+    public static String getOutputName(URL url, String extension)
+    {
+        String path = url.getPath();
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        final int dot = name.lastIndexOf('.');
+        if (dot > 0)
+            name = name.substring(0, dot);
+        if (name.isEmpty())
+            name = (url.getHost() == null || url.getHost().isEmpty()) ? "page" : url.getHost();
+        return name + "-" + OutputUtils.hashURL(url) + extension;
+    }
+
+    private static OutputStream createOutput(Path outputDir, URL url, String extension) throws IOException
+    {
+        return new BufferedOutputStream(Files.newOutputStream(outputDir.resolve(getOutputName(url, extension))));
+    }
+
+}
@@ -13,6 +13,7 @@ import org.xml.sax.SAXException;
 
 import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
 import cz.vutbr.fit.layout.demo.OutputUtils;
+import cz.vutbr.fit.layout.demo.metrics.PipelineMetrics;
 import cz.vutbr.fit.layout.model.Page;
 
 /**
@@ -28,6 +29,8 @@ public class RenderCSSBox
      */
     public static void main(String[] args)
     {
+        // collect the stage metrics (exported when the fitlayout.metrics property is set)
+        var metrics = new PipelineMetrics("RenderCSSBox");
         try {
             URL url = new URL("http://cssbox.sf.net");
             
@@ -36,7 +39,9 @@ public class RenderCSSBox
             renderer.setIncludeScreenshot(false); // we don't need screen shot in this demo
             
             // perform page rendering
+            var render = metrics.start("render");
             Page page = renderer.getPage();
+            render.end(page);
             
             // read page information
             System.out.println("Rendered page");
@@ -46,7 +51,10 @@ public class RenderCSSBox
             
             // print boxes
             System.out.println("Text boxes:");
+            var output = metrics.start("output");
             OutputUtils.printTextBoxes(page.getRoot());
+            output.end();
+            metrics.exportIfRequested();
             
         } catch (MalformedURLException e) {
             System.err.println(e.getMessage());
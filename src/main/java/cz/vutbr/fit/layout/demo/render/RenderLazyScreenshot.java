@@ -0,0 +1,72 @@
+/**
+ * RenderLazyScreenshot.java
+ *
+ * Created on 20. 10. 2026, 12:08:15 by agent
+ */
+package cz.vutbr.fit.layout.demo.render;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Paths;
+
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
+import cz.vutbr.fit.layout.demo.TreeWalker;
+import cz.vutbr.fit.layout.demo.io.ImageOutput;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.Page;
+
+/**
+ * Renders a page without a screenshot and obtains the screenshot later only when it turns out
+ * to be needed. The decision is simulated by checking the number of the page images here.
+ * 
+ * @author agent
+ */
+public class RenderLazyScreenshot
+{
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        try {
+            URL url = new URL("http://cssbox.sf.net");
+            
+            // setup the renderer; no screenshot is created during rendering
+            var renderer = new CSSBoxTreeProvider(url, 1200, 800);
+            renderer.setIncludeScreenshot(false);
+            Page page = renderer.getPage();
+            System.out.println("Rendered page " + page.getSourceURL());
+            
+            // the screenshot handle; nothing is captured until the screenshot is used
+            try (LazyScreenshot screenshot = LazyScreenshot.cssbox(page, 1200, 800)) {
+                if (countImages(page) > 0)
+                {
+                    // the screenshot is needed: capture it and write it as is
+                    new ImageOutput().writeScreenshot(screenshot, Paths.get("screenshot.png"));
+                    System.out.println("Screenshot written to screenshot.png");
+                }
+                else
+                    System.out.println("No images on the page, screenshot not needed");
+            } // the screenshot is released here
+            
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static int countImages(Page page)
+    {
+        return new TreeWalker<Box>()
+                .filter(box -> "img".equalsIgnoreCase(box.getTagName()))
+                .count(page.getRoot());
+    }
+
+}
@@ -5,16 +5,16 @@
  */
 package cz.vutbr.fit.layout.demo.render;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Paths;
 
 import org.xml.sax.SAXException;
 
 import cz.vutbr.fit.layout.demo.OutputUtils;
-import cz.vutbr.fit.layout.io.ArtifactStreamOutput;
+import cz.vutbr.fit.layout.demo.io.ImageOutput;
+import cz.vutbr.fit.layout.demo.metrics.PipelineMetrics;
 import cz.vutbr.fit.layout.model.Page;
 import cz.vutbr.fit.layout.pdf.PDFBoxTreeProvider;
 
@@ -39,6 +39,8 @@ public class RenderPDF
         if (!urlString.contains("://"))
             urlString = "file://" + urlString;
         
+        // collect the stage metrics (exported when the fitlayout.metrics property is set)
+        var metrics = new PipelineMetrics("RenderPDF");
         try {
             URL url = new URL(urlString);
             
@@ -47,7 +49,9 @@ public class RenderPDF
             var renderer = new PDFBoxTreeProvider(url, true, true, 1.5f, 0, Integer.MAX_VALUE);
             
             // perform page rendering
+            var render = metrics.start("render");
             Page page = renderer.getPage();
+            render.end(page);
             
             // read page information
             System.out.println("Rendered page");
@@ -57,19 +61,21 @@ public class RenderPDF
             
             // print boxes
             System.out.println("Text boxes:");
+            var stage = metrics.start("output");
             OutputUtils.printTextBoxes(page.getRoot());
+            stage.end();
             
-            // output to PNG (screen shot)
-            OutputStream os = new FileOutputStream("pdf_page.png");
-            ArtifactStreamOutput.outputPNG(page, os);
-            os.close();
+            // output to PNG (screen shot); the screen shot is written without re-encoding
+            stage = metrics.start("images");
+            var output = new ImageOutput();
+            output.writeScreenshot(page, Paths.get("pdf_page.png"));
             System.out.println("Output written to pdf_page.png (page screen shot)");
             
             // output to PNG (internal model)
-            OutputStream osi = new FileOutputStream("pdf_page_i.png");
-            ArtifactStreamOutput.outputPNGi(page, osi);
-            osi.close();
+            output.writeModel(page, Paths.get("pdf_page_i.png"));
             System.out.println("Output written to pdf_page_i.png (internal model of the page)");
+            stage.end();
+            metrics.exportIfRequested();
             
         } catch (MalformedURLException e) {
             System.err.println(e.getMessage());
@@ -10,6 +10,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 
 import cz.vutbr.fit.layout.demo.OutputUtils;
+import cz.vutbr.fit.layout.demo.metrics.PipelineMetrics;
 import cz.vutbr.fit.layout.model.Page;
 import cz.vutbr.fit.layout.playwright.PlaywrightTreeProvider;
 
@@ -28,6 +29,8 @@ public class RenderPlaywright
      */
     public static void main(String[] args)
     {
+        // collect the stage metrics (exported when the fitlayout.metrics property is set)
+        var metrics = new PipelineMetrics("RenderPlaywright");
         try {
             URL url = new URL("http://cssbox.sf.net");
             
@@ -37,7 +40,9 @@ public class RenderPlaywright
             renderer.setPersist(3);
             
             // perform page rendering
+            var render = metrics.start("render");
             Page page = renderer.getPage();
+            render.end(page);
             
             // read page information
             System.out.println("Rendered page");
@@ -47,7 +52,10 @@ public class RenderPlaywright
             
             // print boxes
             System.out.println("Text boxes:");
+            var output = metrics.start("output");
             OutputUtils.printTextBoxes(page.getRoot());
+            output.end();
+            metrics.exportIfRequested();
             
         } catch (MalformedURLException e) {
             System.err.println(e.getMessage());
@@ -0,0 +1,129 @@
+/**
+ * RenderPool.java
+ *
+ * Created on 19. 10. 2026, 10:48:05 by agent
+ */
+package cz.vutbr.fit.layout.demo.render;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import cz.vutbr.fit.layout.demo.OutputUtils;
+import cz.vutbr.fit.layout.model.Page;
+
+/**
+ * Renders a set of pages using a {@link RendererPool}. The pages are taken from a directory
+ * (all the *.html files, e.g. a local file:// corpus) or from a manifest file that contains a single
+ * file name or URL per line. For each page, the title and the rendered size are printed.
+ *
+ * Usage: RenderPool [-b puppeteer|playwright|cssbox] [-n pool size] [-k pages per renderer] &lt;directory&gt;|&lt;manifest&gt;
+ *
+ * @author agent
+ */
+public class RenderPool
+{
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        String backend = "puppeteer";
+        int size = Runtime.getRuntime().availableProcessors();
+        int maxPages = RendererPool.DEFAULT_MAX_PAGES;
+        int i = 0;
+        try {
+            for (; i + 1 < args.length && args[i].startsWith("-"); i += 2)
+            {
+                switch (args[i])
+                {
+                    case "-b": backend = args[i + 1]; break;
+                    case "-n": size = Integer.parseInt(args[i + 1]); break;
+                    case "-k": maxPages = Integer.parseInt(args[i + 1]); break;
+                    default: throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            i = -1;
+        }
+        if (i < 0 || i != args.length - 1 || size < 1 || maxPages < 1)
+        {
+            System.out.println("Usage: RenderPool [-b puppeteer|playwright|cssbox] [-n pool size] [-k pages per renderer] <directory>|<manifest>");
+            System.exit(1);
+        }
+        Path input = Paths.get(args[i]);
+
+        RendererPool.RendererFactory factory;
+        switch (backend)
+        {
+            case "playwright": factory = RendererPool.playwright(1200, 800); break;
+            case "cssbox": factory = RendererPool.cssbox(1200, 800); break;
+            default: factory = RendererPool.puppeteer(1200, 800); break;
+        }
+
+        PageSink sink = (url, page) -> printPage(url, page);
+
+        try (var pool = new RendererPool(factory, size)) {
+            pool.setMaxPages(maxPages);
+            long startTime = System.nanoTime();
+            try (Stream<String> sources = listSources(input)) {
+                for (Iterator<String> it = sources.iterator(); it.hasNext(); )
+                    pool.submit(new URL(OutputUtils.toURLString(it.next())), sink);
+            }
+            pool.finish();
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+
+            System.out.println("Rendered: " + pool.getRenderedCount() + " pages, "
+                    + pool.getFailedCount() + " failed, " + pool.getRecycledCount() + " renderers replaced");
+            System.out.printf("Time: %.1f s, %.2f pages/sec using %d renderers%n",
+                    seconds, pool.getRenderedCount() / seconds, size);
+
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static synchronized void printPage(URL url, Page page)
+    {
+        System.out.println(url + ": " + page.getTitle() + " (" + page.getWidth() + " x " + page.getHeight() + " px)");
+    }
+
+    /**
+     * Lists the source pages: all the HTML files when the input is a directory or all the
+     * non-empty lines (except the comments starting with #) when the input is a manifest file.
+     *
+     * @param input the input directory or manifest file
+     * @return a stream of source file names or URLs
+     * @throws IOException
+     */
+    public static Stream<String> listSources(Path input) throws IOException
+    {
+        if (Files.isDirectory(input))
+        {
+            return Files.list(input)
+                    .filter(p -> {
+                        final String name = p.getFileName().toString().toLowerCase();
+                        return name.endsWith(".html") || name.endsWith(".htm");
+                    })
+                    .sorted()
+                    .map(Path::toString);
+        }
+        else
+        {
+            return Files.lines(input)
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"));
+        }
+    }
+
+}
@@ -10,6 +10,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 
 import cz.vutbr.fit.layout.demo.OutputUtils;
+import cz.vutbr.fit.layout.demo.metrics.PipelineMetrics;
 import cz.vutbr.fit.layout.model.Page;
 import cz.vutbr.fit.layout.puppeteer.PuppeteerTreeProvider;
 
@@ -31,6 +32,8 @@ public class RenderPuppeteer
      */
     public static void main(String[] args)
     {
+        // collect the stage metrics (exported when the fitlayout.metrics property is set)
+        var metrics = new PipelineMetrics("RenderPuppeteer");
         try {
             URL url = new URL("http://cssbox.sf.net");
             
@@ -40,7 +43,9 @@ public class RenderPuppeteer
             renderer.setPersist(3);
             
             // perform page rendering
+            var render = metrics.start("render");
             Page page = renderer.getPage();
+            render.end(page);
             
             // read page information
             System.out.println("Rendered page");
@@ -50,7 +55,10 @@ public class RenderPuppeteer
             
             // print boxes
             System.out.println("Text boxes:");
+            var output = metrics.start("output");
             OutputUtils.printTextBoxes(page.getRoot());
+            output.end();
+            metrics.exportIfRequested();
             
         } catch (MalformedURLException e) {
             System.err.println(e.getMessage());
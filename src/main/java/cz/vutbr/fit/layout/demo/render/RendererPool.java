@@ -0,0 +1,338 @@
+/**
+ * RendererPool.java
+ *
+ * Created on 19. 10. 2026, 10:14:51 by agent
+ */
+package cz.vutbr.fit.layout.demo.render;
+
+import java.net.URL;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cz.vutbr.fit.layout.api.ParametrizedOperation;
+import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.playwright.PlaywrightTreeProvider;
+import cz.vutbr.fit.layout.puppeteer.PuppeteerTreeProvider;
+
+/**
+ * A pool of page renderers. The pool keeps a fixed number of long-lived renderer instances (configured
+ * Puppeteer, Playwright or CSSBox tree providers) and hands them out to the worker threads, so the number
+ * of the concurrently running rendering backends is limited by the pool size. A renderer is not created
+ * for each page: each renderer is reused for the consecutive pages (only the page URL is changed) and
+ * it keeps its backend and configuration between the pages. A renderer is closed and replaced by a new one
+ * after a given number of pages (see {@link #setMaxPages(int)}), so that the resources leaked
+ * by a long-running backend are released, and after any rendering failure, so that a crashed backend
+ * is not used for the following pages. The replacement renderers are created lazily when the next page
+ * is rendered.
+ *
+ * The URLs submitted for rendering are queued and processed by the worker threads; the rendered
+ * pages are passed to a {@link PageSink}.
+ *
+ * @author agent
+ */
+public class RendererPool implements AutoCloseable
+{
+    /**
+     * A single page renderer instance. A renderer is used by a single thread at a time.
+     */
+    public interface Renderer
+    {
+        public Page render(URL url) throws Exception;
+
+        /**
+         * Releases the renderer resources (e.g. stops the backend). The renderer is not used anymore.
+         */
+        public default void close()
+        {
+        }
+    }
+
+    /**
+     * Creates new renderer instances for the pool.
+     */
+    public interface RendererFactory
+    {
+        public Renderer create();
+    }
+
+    /** The default number of pages rendered by a single renderer before it is replaced. */
+    public static final int DEFAULT_MAX_PAGES = 100;
+
+    private final RendererFactory factory;
+    private final int size;
+    private final BlockingQueue<Slot> idle;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger rendered = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger recycled = new AtomicInteger();
+    private volatile int maxPages = DEFAULT_MAX_PAGES;
+
+
+    /**
+     * Creates a new pool and creates all the renderer instances.
+     *
+     * @param factory the factory used for creating the renderer instances
+     * @param size the number of renderer instances and worker threads
+     */
+    public RendererPool(RendererFactory factory, int size)
+    {
+        this.factory = factory;
+        this.size = size;
+        this.idle = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++)
+            idle.add(new Slot(factory.create()));
+        // the URL queue is bounded so that we don't read the whole input in advance; when the queue
+        // is full, the submitting thread waits for a free renderer and renders the page itself
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(size * 2),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public int getSize()
+    {
+        return size;
+    }
+
+    public int getRenderedCount()
+    {
+        return rendered.get();
+    }
+
+    public int getFailedCount()
+    {
+        return failed.get();
+    }
+
+    /**
+     * Returns the number of renderers replaced so far (after reaching the page limit or after a failure).
+     */
+    public int getRecycledCount()
+    {
+        return recycled.get();
+    }
+
+    public int getMaxPages()
+    {
+        return maxPages;
+    }
+
+    /**
+     * Sets the number of pages rendered by a single renderer instance before it is replaced by a new one.
+     *
+     * @param maxPages the number of pages ({@value #DEFAULT_MAX_PAGES} by default)
+     */
+    public void setMaxPages(int maxPages)
+    {
+        if (maxPages < 1)
+            throw new IllegalArgumentException("The number of pages must be positive");
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * Renders a page synchronously in the current thread. Waits until a renderer instance is available.
+     *
+     * @param url the page URL
+     * @return the rendered page
+     * @throws Exception when rendering fails
+     */
+    public Page render(URL url) throws Exception
+    {
+        Slot slot = idle.take();
+        try {
+            if (slot.renderer == null)
+                slot.renderer = factory.create();
+            Page page = slot.renderer.render(url);
+            rendered.incrementAndGet();
+            if (++slot.pages >= maxPages)
+                slot.recycle();
+            return page;
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            slot.recycle(); // the backend may be broken
+            throw e;
+        } finally {
+            idle.add(slot);
+        }
+    }
+
+    /**
+     * Queues a page for rendering. The rendered page is passed to the sink.
+     *
+     * @param url the page URL
+     * @param sink the sink that receives the rendered page
+     */
+    public void submit(URL url, PageSink sink)
+    {
+        executor.execute(() -> {
+            try {
+                sink.pageRendered(url, render(url));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                sink.pageFailed(url, e);
+            }
+        });
+    }
+
+    /**
+     * Waits until all the submitted pages are rendered and stops the worker threads.
+     *
+     * @throws InterruptedException
+     */
+    public void finish() throws InterruptedException
+    {
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits for the submitted pages, stops the worker threads and closes the renderers.
+     */
+    @Override
+    public void close() throws InterruptedException
+    {
+        finish();
+        for (Slot slot : idle)
+        {
+            if (slot.renderer != null)
+            {
+                slot.renderer.close();
+                slot.renderer = null;
+            }
+        }
+    }
+
+    //=========================================================================================
+
+    /**
+     * A renderer instance together with the number of pages it has rendered. Used by a single thread
+     * at a time (it is taken from the idle queue).
+     */
+    private class Slot
+    {
+        public Renderer renderer;
+        public int pages;
+
+        public Slot(Renderer renderer)
+        {
+            this.renderer = renderer;
+        }
+
+        /**
+         * Closes the current renderer; a new one is created when the slot is used next time.
+         */
+        public void recycle()
+        {
+            try {
+                renderer.close();
+            } catch (RuntimeException e) {
+                // the renderer is dropped anyway
+            }
+            renderer = null;
+            pages = 0;
+            recycled.incrementAndGet();
+        }
+    }
+
+    //=========================================================================================
+
+    /**
+     * Creates renderers that use the Chromium (puppeteer) backend.
+     *
+     * @param width the viewport width
+     * @param height the viewport height
+     * @return the renderer factory
+     */
+    public static RendererFactory puppeteer(int width, int height)
+    {
+        return () -> {
+            var provider = new PuppeteerTreeProvider(null, width, height);
+            provider.setIncludeScreenshot(false);
+            provider.setPersist(3);
+            return new ProviderRenderer(provider, provider::getPage);
+        };
+    }
+
+    /**
+     * Creates renderers that use the Chromium (playwright) backend.
+     *
+     * @param width the viewport width
+     * @param height the viewport height
+     * @return the renderer factory
+     */
+    public static RendererFactory playwright(int width, int height)
+    {
+        return () -> {
+            var provider = new PlaywrightTreeProvider(null, width, height);
+            provider.setIncludeScreenshot(false);
+            provider.setPersist(3);
+            return new ProviderRenderer(provider, provider::getPage);
+        };
+    }
+
+    /**
+     * Creates renderers that use the built-in CSSBox engine. No external backend is required.
+     *
+     * @param width the viewport width
+     * @param height the viewport height
+     * @return the renderer factory
+     */
+    public static RendererFactory cssbox(int width, int height)
+    {
+        return () -> {
+            var provider = new CSSBoxTreeProvider(null, width, height);
+            provider.setIncludeScreenshot(false);
+            return new ProviderRenderer(provider, provider::getPage);
+        };
+    }
+
+    /**
+     * Obtains a page from a configured tree provider.
+     */
+    private interface PageSource
+    {
+        public Page getPage() throws Exception;
+    }
+
+    /**
+     * A renderer that reuses a single tree provider for all the pages; only the URL parameter
+     * is changed for each page. The provider is closed when it implements {@link AutoCloseable}.
+     */
+    private static class ProviderRenderer implements Renderer
+    {
+        private final ParametrizedOperation provider;
+        private final PageSource source;
+
+        public ProviderRenderer(ParametrizedOperation provider, PageSource source)
+        {
+            this.provider = provider;
+            this.source = source;
+        }
+
+        @Override
+        public Page render(URL url) throws Exception
+        {
+            if (!provider.setParam("url", url.toString()))
+                throw new IllegalArgumentException("Couldn't set the URL " + url);
+            return source.getPage();
+        }
+
+        @Override
+        public void close()
+        {
+            if (provider instanceof AutoCloseable)
+            {
+                try {
+                    ((AutoCloseable) provider).close();
+                } catch (Exception e) {
+                    // the provider is not used anymore
+                }
+            }
+        }
+    }
+
+}
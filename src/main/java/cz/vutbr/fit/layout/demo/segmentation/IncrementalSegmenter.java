@@ -0,0 +1,427 @@
+/**
+ * IncrementalSegmenter.java
+ *
+ * Created on 19. 10. 2026, 15:07:44 by agent
+ */
+package cz.vutbr.fit.layout.demo.segmentation;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import cz.vutbr.fit.layout.impl.DefaultArea;
+import cz.vutbr.fit.layout.impl.DefaultAreaTree;
+import cz.vutbr.fit.layout.impl.DefaultBox;
+import cz.vutbr.fit.layout.impl.DefaultPage;
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Border;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.model.Rectangular;
+import cz.vutbr.fit.layout.model.Tag;
+
+/**
+ * Segments a new version of a page incrementally using the segmentation of its previous version.
+ *
+ * Both page versions are split to regions: starting from the root box, we descend while the box
+ * has a single child; the children of the resulting box are the regions. The regions are compared using
+ * their {@link PageFingerprint}s computed relatively to the region position. For the unchanged regions,
+ * the areas of the previous area tree are reused (moved to the new region position and mapped to the new
+ * boxes). The changed regions are segmented separately and the results are merged to a single area tree
+ * where the region areas are the children of the root area.
+ *
+ * When the pages cannot be split or no region is unchanged, the whole page is segmented.
+ *
+ * @author agent
+ */
+public class IncrementalSegmenter
+{
+    private static final int NONE = -1;
+    private static final int MIXED = -2;
+
+    private final Segmenter segmenter;
+    private int reusedRegions;
+    private int segmentedRegions;
+
+
+    /**
+     * Creates the incremental segmenter.
+     *
+     * @param segmenter the segmenter used for the whole pages and the changed regions
+     */
+    public IncrementalSegmenter(Segmenter segmenter)
+    {
+        this.segmenter = segmenter;
+    }
+
+    /**
+     * Returns the number of regions reused from the previous versions so far.
+     */
+    public int getReusedRegions()
+    {
+        return reusedRegions;
+    }
+
+    /**
+     * Returns the number of regions segmented so far.
+     */
+    public int getSegmentedRegions()
+    {
+        return segmentedRegions;
+    }
+
+    /**
+     * Segments a page from scratch.
+     *
+     * @param page the page to segment
+     * @return the resulting area tree
+     */
+    public AreaTree segment(Page page)
+    {
+        segmentedRegions++;
+        return segmenter.createAreaTree(page);
+    }
+
+    /**
+     * Segments a new version of a page.
+     *
+     * @param page the new page version
+     * @param previousPage the previous page version
+     * @param previousTree the area tree of the previous page version
+     * @return the resulting area tree
+     */
+    public AreaTree segment(Page page, Page previousPage, AreaTree previousTree)
+    {
+        final List<Box> regions = getRegions(page.getRoot());
+        final List<Box> previousRegions = getRegions(previousPage.getRoot());
+        if (regions.size() < 2 || previousRegions.isEmpty())
+            return segment(page);
+
+        // index the previous regions by their fingerprints
+        final Map<String, ArrayDeque<Integer>> fingerprints = new HashMap<>();
+        for (int i = 0; i < previousRegions.size(); i++)
+        {
+            fingerprints.computeIfAbsent(PageFingerprint.computeRelative(previousRegions.get(i)),
+                    fp -> new ArrayDeque<>()).add(i);
+        }
+
+        // assign the previous areas to the previous regions
+        final Map<Box, Integer> boxRegions = new IdentityHashMap<>();
+        for (int i = 0; i < previousRegions.size(); i++)
+            assignRegion(previousRegions.get(i), i, boxRegions);
+        final List<List<Area>> regionAreas = new ArrayList<>(previousRegions.size());
+        for (int i = 0; i < previousRegions.size(); i++)
+            regionAreas.add(new ArrayList<>());
+        final boolean[] dirty = new boolean[previousRegions.size()];
+        final Map<Area, Integer> areaRegions = new IdentityHashMap<>();
+        findRegion(previousTree.getRoot(), boxRegions, areaRegions);
+        collectAreas(previousTree.getRoot(), boxRegions, areaRegions, regionAreas, dirty);
+
+        // match the new regions
+        final int[] matches = new int[regions.size()];
+        int reused = 0;
+        for (int i = 0; i < regions.size(); i++)
+        {
+            final ArrayDeque<Integer> candidates = fingerprints.get(PageFingerprint.computeRelative(regions.get(i)));
+            final Integer match = (candidates == null) ? null : candidates.poll();
+            if (match != null && !dirty[match])
+            {
+                matches[i] = match;
+                reused++;
+            }
+            else
+                matches[i] = NONE;
+        }
+        if (reused == 0)
+            return segment(page);
+
+        // build the resulting tree
+        final DefaultAreaTree atree = createAreaTree(page);
+        final DefaultArea root = (DefaultArea) atree.getRoot();
+        for (int i = 0; i < regions.size(); i++)
+        {
+            final Box region = regions.get(i);
+            if (matches[i] != NONE)
+            {
+                final Box previousRegion = previousRegions.get(matches[i]);
+                final Map<Box, Box> boxMap = new IdentityHashMap<>();
+                mapBoxes(previousRegion, region, boxMap);
+                final int dx = region.getBounds().getX1() - previousRegion.getBounds().getX1();
+                final int dy = region.getBounds().getY1() - previousRegion.getBounds().getY1();
+                for (Area area : regionAreas.get(matches[i]))
+                    root.appendChild(copyArea(area, atree, boxMap, dx, dy));
+                reusedRegions++;
+            }
+            else
+            {
+                appendRegionTree(segmenter.createAreaTree(createRegionPage(page, region)), null, root, atree);
+                segmentedRegions++;
+            }
+        }
+        return atree;
+    }
+
+    //=========================================================================================
+
+    /**
+     * Splits the box tree to regions.
+     *
+     * @param root the root box
+     * @return the list of region roots
+     */
+    public static List<Box> getRegions(Box root)
+    {
+        Box box = root;
+        while (box.getChildCount() == 1)
+            box = box.getChildAt(0);
+        if (box.getChildCount() == 0)
+            return Collections.singletonList(box);
+        else
+            return new ArrayList<>(box.getChildren());
+    }
+
+    private static void assignRegion(Box regionRoot, int region, Map<Box, Integer> boxRegions)
+    {
+        ArrayDeque<Box> stack = new ArrayDeque<>();
+        stack.push(regionRoot);
+        while (!stack.isEmpty())
+        {
+            final Box box = stack.pop();
+            boxRegions.put(box, region);
+            for (Box child : box.getChildren())
+                stack.push(child);
+        }
+    }
+
+    /**
+     * Finds the region of each area: the region index when all the area boxes belong to
+     * the same region, {@code MIXED} when they belong to different regions and {@code NONE}
+     * when the area has no boxes.
+     */
+    private static int findRegion(Area area, Map<Box, Integer> boxRegions, Map<Area, Integer> areaRegions)
+    {
+        int region = NONE;
+        for (Box box : area.getBoxes())
+            region = merge(region, boxRegions.getOrDefault(box, MIXED));
+        for (Area child : area.getChildren())
+            region = merge(region, findRegion(child, boxRegions, areaRegions));
+        areaRegions.put(area, region);
+        return region;
+    }
+
+    private static int merge(int r1, int r2)
+    {
+        if (r1 == NONE)
+            return r2;
+        else if (r2 == NONE)
+            return r1;
+        else
+            return (r1 == r2) ? r1 : MIXED;
+    }
+
+    /**
+     * Collects the topmost areas of each region. The regions whose boxes are shared with
+     * an area of another region are marked as dirty and they cannot be reused.
+     */
+    private static void collectAreas(Area area, Map<Box, Integer> boxRegions, Map<Area, Integer> areaRegions,
+            List<List<Area>> regionAreas, boolean[] dirty)
+    {
+        final int region = areaRegions.get(area);
+        if (region >= 0)
+            regionAreas.get(region).add(area);
+        else if (region == MIXED)
+        {
+            for (Box box : area.getBoxes())
+            {
+                final Integer boxRegion = boxRegions.get(box);
+                if (boxRegion != null)
+                    dirty[boxRegion] = true;
+            }
+            for (Area child : area.getChildren())
+                collectAreas(child, boxRegions, areaRegions, regionAreas, dirty);
+        }
+    }
+
+    /**
+     * Maps the boxes of two subtrees with identical structure to each other.
+     */
+    private static void mapBoxes(Box src, Box dest, Map<Box, Box> boxMap)
+    {
+        ArrayDeque<Box> srcStack = new ArrayDeque<>();
+        ArrayDeque<Box> destStack = new ArrayDeque<>();
+        srcStack.push(src);
+        destStack.push(dest);
+        while (!srcStack.isEmpty())
+        {
+            final Box s = srcStack.pop();
+            final Box d = destStack.pop();
+            boxMap.put(s, d);
+            for (int i = 0; i < s.getChildCount(); i++)
+            {
+                srcStack.push(s.getChildAt(i));
+                destStack.push(d.getChildAt(i));
+            }
+        }
+    }
+
+    /**
+     * Creates a copy of an area subtree in the given area tree. The copied areas keep all the
+     * properties of the source areas (the name, level, background, borders, effective bounds and tags);
+     * the bounds are shifted and the boxes are replaced using the box mapping. The text style
+     * is derived from the boxes.
+     *
+     * @param src the source subtree root
+     * @param atree the destination area tree
+     * @param boxMap the mapping of the source boxes to the destination boxes or {@code null}
+     * when the boxes should be kept
+     * @param dx the horizontal shift of the areas
+     * @param dy the vertical shift of the areas
+     * @return the copied subtree root
+     */
+    static Area copyArea(Area src, AreaTree atree, Map<Box, Box> boxMap, int dx, int dy)
+    {
+        final DefaultArea ret = new DefaultArea(shift(src.getBounds(), dx, dy));
+        ret.setAreaTree(atree);
+        for (Box box : src.getBoxes())
+            ret.addBox(boxMap == null ? box : boxMap.get(box));
+        // area properties
+        ret.setName(src.getName());
+        ret.setLevel(src.getLevel());
+        if (src.getEffectiveBounds() != null)
+            ret.setEffectiveBounds(shift(src.getEffectiveBounds(), dx, dy));
+        ret.setBackgroundColor(src.getBackgroundColor());
+        ret.setBackgroundSeparated(src.isBackgroundSeparated());
+        if (src.hasTopBorder())
+            ret.setBorderStyle(Border.Side.TOP, src.getBorderStyle(Border.Side.TOP));
+        if (src.hasRightBorder())
+            ret.setBorderStyle(Border.Side.RIGHT, src.getBorderStyle(Border.Side.RIGHT));
+        if (src.hasBottomBorder())
+            ret.setBorderStyle(Border.Side.BOTTOM, src.getBorderStyle(Border.Side.BOTTOM));
+        if (src.hasLeftBorder())
+            ret.setBorderStyle(Border.Side.LEFT, src.getBorderStyle(Border.Side.LEFT));
+        if (src.getTags() != null)
+        {
+            for (Map.Entry<Tag, Float> tag : src.getTags().entrySet())
+                ret.addTag(tag.getKey(), tag.getValue());
+        }
+        // subtree
+        for (Area child : src.getChildren())
+            ret.appendChild(copyArea(child, atree, boxMap, dx, dy));
+        return ret;
+    }
+
+    private static Rectangular shift(Rectangular b, int dx, int dy)
+    {
+        return new Rectangular(b.getX1() + dx, b.getY1() + dy, b.getX2() + dx, b.getY2() + dy);
+    }
+
+    /**
+     * Creates an empty area tree for the page; the root area covers the whole page.
+     */
+    static DefaultAreaTree createAreaTree(Page page)
+    {
+        final DefaultAreaTree atree = new DefaultAreaTree(page.getIri());
+        final DefaultArea root = new DefaultArea(new Rectangular(page.getRoot().getBounds()));
+        root.setAreaTree(atree);
+        atree.setRoot(root);
+        return atree;
+    }
+
+    /**
+     * Appends the areas of a separately segmented region to the root area of the resulting tree.
+     * The region root area is omitted unless it is a leaf.
+     *
+     * @param boxMap the mapping of the region tree boxes to the boxes of the resulting tree or {@code null}
+     * when the boxes should be kept
+     */
+    static void appendRegionTree(AreaTree regionTree, Map<Box, Box> boxMap, DefaultArea root, AreaTree atree)
+    {
+        final Area regionRoot = regionTree.getRoot();
+        if (regionRoot.isLeaf())
+            root.appendChild(copyArea(regionRoot, atree, boxMap, 0, 0));
+        else
+        {
+            for (Area area : regionRoot.getChildren())
+                root.appendChild(copyArea(area, atree, boxMap, 0, 0));
+        }
+    }
+
+    /**
+     * Creates a detached copy of a box subtree. The copied boxes keep all the properties
+     * of the source boxes including their IDs.
+     *
+     * @param src the source subtree root
+     * @param boxMap the map where the mapping of the copied boxes to the source boxes is stored
+     * @return the copied subtree root
+     */
+    static Box copyBoxes(Box src, Map<Box, Box> boxMap)
+    {
+        final DefaultBox ret = new DefaultBox();
+        ret.setId(src.getId());
+        ret.setOrder(src.getOrder());
+        ret.setType(src.getType());
+        ret.setDisplayType(src.getDisplayType());
+        ret.setTagName(src.getTagName());
+        ret.setVisible(src.isVisible());
+        ret.setBounds(new Rectangular(src.getBounds()));
+        if (src.getContentBounds() != null)
+            ret.setContentBounds(new Rectangular(src.getContentBounds()));
+        if (src.getVisualBounds() != null)
+            ret.setVisualBounds(new Rectangular(src.getVisualBounds()));
+        ret.setTextStyle(src.getTextStyle());
+        ret.setFontFamily(src.getFontFamily());
+        ret.setColor(src.getColor());
+        ret.setBackgroundColor(src.getBackgroundColor());
+        ret.setOwnText(src.getOwnText());
+        ret.setContentObject(src.getContentObject());
+        if (src.getAttributes() != null)
+        {
+            for (Map.Entry<String, String> attr : src.getAttributes().entrySet())
+                ret.setAttribute(attr.getKey(), attr.getValue());
+        }
+        for (Border.Side side : Border.Side.values())
+        {
+            final Border border = src.getBorderStyle(side);
+            if (border != null)
+                ret.setBorderStyle(side, border);
+        }
+        boxMap.put(ret, src);
+        for (Box child : src.getChildren())
+            ret.appendChild(copyBoxes(child, boxMap));
+        return ret;
+    }
+
+    /**
+     * Creates a page that contains a single region of the source page.
+     *
+     * The region box is not copied. When it is a box of the source page, it is shared with the source
+     * page and it remains attached to its parent box in the source page. Then, the resulting page is only
+     * suitable for the read-only processing of the region box subtree in a single thread (such as
+     * the segmentation that does not modify the boxes); it must not be modified or stored in a repository.
+     * The concurrent processing should use a copy of the region boxes (see {@link #copyBoxes(Box, Map)}).
+     */
+    static Page createRegionPage(Page page, Box region)
+    {
+        URL url = null;
+        try {
+            if (page.getSourceURL() != null)
+                url = new URL(page.getSourceURL());
+        } catch (MalformedURLException e) {
+            // the source URL is informative only
+        }
+        var ret = new DefaultPage(url);
+        ret.setTitle(page.getTitle());
+        ret.setWidth(page.getWidth());
+        ret.setHeight(page.getHeight());
+        ret.setRoot(region);
+        return ret;
+    }
+
+}
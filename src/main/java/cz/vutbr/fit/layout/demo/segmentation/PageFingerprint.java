@@ -0,0 +1,192 @@
+/**
+ * PageFingerprint.java
+ *
+ * Created on 19. 10. 2026, 13:20:14 by agent
+ */
+package cz.vutbr.fit.layout.demo.segmentation;
+
+import java.awt.Color;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import cz.vutbr.fit.layout.demo.TreeWalker;
+import cz.vutbr.fit.layout.model.Border;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.model.Rectangular;
+import cz.vutbr.fit.layout.model.TextStyle;
+
+/**
+ * Computes content fingerprints of rendered pages. The fingerprint is a SHA-256 hash of all the box
+ * properties read by the segmentation algorithms: the box tree structure (the box types, display types,
+ * tag names and child counts), the visibility, the box bounds including the content and visual bounds,
+ * the text content, the font properties, the text and background colors and the borders. Identical pages
+ * (e.g. mirrors or unchanged snapshots) therefore get identical fingerprints regardless of their URL
+ * while the pages that differ in any of these properties get different fingerprints.
+ *
+ * @author agent
+ */
+public class PageFingerprint
+{
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final MessageDigest digest;
+    private final ByteBuffer buffer;
+    private final int originX;
+    private final int originY;
+
+
+    private PageFingerprint(int originX, int originY)
+    {
+        this.originX = originX;
+        this.originY = originY;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        buffer = ByteBuffer.allocate(256);
+    }
+
+    /**
+     * Computes the fingerprint of a page.
+     *
+     * @param page the rendered page
+     * @return the fingerprint as a hexadecimal string
+     */
+    public static String compute(Page page)
+    {
+        return compute(page.getRoot());
+    }
+
+    /**
+     * Computes the fingerprint of a box subtree.
+     *
+     * @param root the subtree root
+     * @return the fingerprint as a hexadecimal string
+     */
+    public static String compute(Box root)
+    {
+        return compute(root, 0, 0);
+    }
+
+    /**
+     * Computes the fingerprint of a box subtree with the box positions relative to the subtree root.
+     * Identical subtrees placed at different positions (e.g. shifted by a changed content above them)
+     * get identical fingerprints.
+     *
+     * @param root the subtree root
+     * @return the fingerprint as a hexadecimal string
+     */
+    public static String computeRelative(Box root)
+    {
+        return compute(root, root.getBounds().getX1(), root.getBounds().getY1());
+    }
+
+    private static String compute(Box root, int originX, int originY)
+    {
+        var fp = new PageFingerprint(originX, originY);
+        new TreeWalker<Box>().preOrder(root, fp::update);
+        return toHex(fp.digest.digest());
+    }
+
+    private void update(Box box)
+    {
+        final TextStyle style = box.getTextStyle();
+        buffer.clear();
+        // structure
+        buffer.putInt(box.getChildCount());
+        buffer.putInt(box.getType() == null ? -1 : box.getType().ordinal());
+        buffer.putInt(box.getDisplayType() == null ? -1 : box.getDisplayType().ordinal());
+        buffer.put((byte) (box.isVisible() ? 1 : 0));
+        // geometry
+        putBounds(box.getBounds());
+        putBounds(box.getContentBounds());
+        putBounds(box.getVisualBounds());
+        // visual style
+        if (style != null)
+        {
+            buffer.put((byte) 1);
+            buffer.putFloat(style.getFontSize()).putFloat(style.getFontWeight()).putFloat(style.getFontStyle())
+                .putFloat(style.getUnderline()).putFloat(style.getLineThrough());
+        }
+        else
+            buffer.put((byte) 0);
+        putColor(box.getColor());
+        putColor(box.getBackgroundColor());
+        putBorder(box.hasTopBorder(), box, Border.Side.TOP);
+        putBorder(box.hasRightBorder(), box, Border.Side.RIGHT);
+        putBorder(box.hasBottomBorder(), box, Border.Side.BOTTOM);
+        putBorder(box.hasLeftBorder(), box, Border.Side.LEFT);
+        buffer.flip();
+        digest.update(buffer);
+        updateString(box.getTagName());
+        updateString(box.getFontFamily());
+        updateString(box.getType() == Box.Type.TEXT_CONTENT ? box.getText() : null);
+    }
+
+    private void putBounds(Rectangular b)
+    {
+        if (b != null)
+        {
+            buffer.put((byte) 1);
+            buffer.putInt(b.getX1() - originX).putInt(b.getY1() - originY)
+                .putInt(b.getX2() - originX).putInt(b.getY2() - originY);
+        }
+        else
+            buffer.put((byte) 0);
+    }
+
+    private void putColor(Color color)
+    {
+        if (color != null)
+            buffer.put((byte) 1).putInt(color.getRGB());
+        else
+            buffer.put((byte) 0);
+    }
+
+    private void putBorder(boolean present, Box box, Border.Side side)
+    {
+        final Border border = present ? box.getBorderStyle(side) : null;
+        if (border != null)
+        {
+            buffer.put((byte) 1);
+            buffer.putInt(border.getWidth());
+            buffer.putInt(border.getStyle() == null ? -1 : border.getStyle().ordinal());
+            putColor(border.getColor());
+        }
+        else
+            buffer.put((byte) 0);
+    }
+
+    private void updateString(String s)
+    {
+        buffer.clear();
+        if (s == null)
+        {
+            buffer.putInt(-1).flip();
+            digest.update(buffer);
+        }
+        else
+        {
+            final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(bytes.length).flip();
+            digest.update(buffer);
+            digest.update(bytes);
+        }
+    }
+
+    private static String toHex(byte[] bytes)
+    {
+        final char[] ret = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            ret[2 * i] = HEX[(bytes[i] >> 4) & 0x0f];
+            ret[2 * i + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return new String(ret);
+    }
+
+}
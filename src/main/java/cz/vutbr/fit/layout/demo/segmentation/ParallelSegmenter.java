@@ -0,0 +1,331 @@
+/**
+ * ParallelSegmenter.java
+ *
+ * Created on 20. 10. 2026, 19:22:40 by agent
+ */
+package cz.vutbr.fit.layout.demo.segmentation;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+import cz.vutbr.fit.layout.demo.TreeWalker;
+import cz.vutbr.fit.layout.impl.DefaultArea;
+import cz.vutbr.fit.layout.impl.DefaultAreaTree;
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.model.Rectangular;
+
+/**
+ * Segments large pages in parallel. The page is split to independent regions in the same way
+ * as in the {@link IncrementalSegmenter}; the consecutive regions are grouped to chunks of a similar
+ * size (several chunks per pool thread) and the chunks are segmented in a fork/join pool. A single
+ * segmenter is obtained from the given factory for each chunk and it segments the chunk regions one
+ * by one (the segmentation providers are not thread-safe). Each region is segmented on its own copy
+ * of the region boxes, so the concurrently running segmenters never share any box; the resulting
+ * areas are mapped back to the boxes of the source page. The areas of the region trees are merged
+ * to a single area tree in the same way as in the {@link IncrementalSegmenter}: the children
+ * of the region root areas become the children of the root area.
+ *
+ * The algorithms such as VIPS or BCS compute their thresholds over the whole page and they may join
+ * the areas across the regions, so the split result is not guaranteed to equal the sequential
+ * segmentation. Therefore, splitting is opt-in (see {@link #setSplitRegions(boolean)}); by default,
+ * the whole page is segmented in the calling thread. When the verification is enabled
+ * (see {@link #setVerify(boolean)}), the page is segmented sequentially as well, the results are
+ * compared using {@link #findDifference(Area, Area)} and the sequential result is returned when
+ * they differ.
+ *
+ * Small pages (see {@link #setMinBoxes(int)}) and the pages that cannot be split are always segmented
+ * as a whole in the calling thread.
+ *
+ * @author agent
+ */
+public class ParallelSegmenter implements Segmenter
+{
+    /** The default minimal number of boxes of a page that is segmented in parallel. */
+    public static final int DEFAULT_MIN_BOXES = 2000;
+    /** The number of chunks created for each thread of the pool. */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final Supplier<Segmenter> factory;
+    private final ForkJoinPool pool;
+    private int minBoxes = DEFAULT_MIN_BOXES;
+    private boolean splitRegions = false;
+    private boolean verify = false;
+    private int verifiedCount;
+    private int mismatchCount;
+    private String lastDifference;
+
+
+    /**
+     * Creates the segmenter that uses the common fork/join pool.
+     *
+     * @param factory the factory of the segmenters used for the individual chunks
+     */
+    public ParallelSegmenter(Supplier<Segmenter> factory)
+    {
+        this(factory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates the segmenter that uses the given fork/join pool.
+     *
+     * @param factory the factory of the segmenters used for the individual chunks
+     * @param pool the pool used for segmenting the chunks
+     */
+    public ParallelSegmenter(Supplier<Segmenter> factory, ForkJoinPool pool)
+    {
+        this.factory = factory;
+        this.pool = pool;
+    }
+
+    public int getMinBoxes()
+    {
+        return minBoxes;
+    }
+
+    /**
+     * Sets the minimal number of boxes of a page that is segmented in parallel. Smaller pages
+     * are segmented as a whole.
+     *
+     * @param minBoxes the number of boxes
+     */
+    public void setMinBoxes(int minBoxes)
+    {
+        this.minBoxes = minBoxes;
+    }
+
+    public boolean isSplitRegions()
+    {
+        return splitRegions;
+    }
+
+    /**
+     * Enables splitting the pages to regions segmented in parallel. The result may differ from
+     * the sequential segmentation (see {@link #setVerify(boolean)}).
+     *
+     * @param splitRegions {@code true} for splitting the pages (disabled by default)
+     */
+    public void setSplitRegions(boolean splitRegions)
+    {
+        this.splitRegions = splitRegions;
+    }
+
+    public boolean isVerify()
+    {
+        return verify;
+    }
+
+    /**
+     * Enables comparing the split result with the sequential segmentation of each page. When they differ,
+     * the sequential result is used. This guarantees the sequential result at the cost of segmenting
+     * each split page twice.
+     *
+     * @param verify {@code true} for verifying the split results (disabled by default)
+     */
+    public void setVerify(boolean verify)
+    {
+        this.verify = verify;
+    }
+
+    /**
+     * Returns the number of split results verified so far.
+     */
+    public synchronized int getVerifiedCount()
+    {
+        return verifiedCount;
+    }
+
+    /**
+     * Returns the number of verified split results that differed from the sequential result.
+     */
+    public synchronized int getMismatchCount()
+    {
+        return mismatchCount;
+    }
+
+    /**
+     * Returns the description of the last difference found by the verification.
+     *
+     * @return the difference description or {@code null} when no difference has been found
+     */
+    public synchronized String getLastDifference()
+    {
+        return lastDifference;
+    }
+
+    @Override
+    public AreaTree createAreaTree(Page page)
+    {
+        final AreaTree split = splitRegions ? createSplitAreaTree(page) : null;
+        if (split == null)
+            return factory.get().createAreaTree(page);
+        if (verify)
+        {
+            final AreaTree sequential = factory.get().createAreaTree(page);
+            final String difference = findDifference(sequential.getRoot(), split.getRoot());
+            synchronized (this)
+            {
+                verifiedCount++;
+                if (difference != null)
+                {
+                    mismatchCount++;
+                    lastDifference = difference;
+                }
+            }
+            return (difference == null) ? split : sequential;
+        }
+        return split;
+    }
+
+    /**
+     * Compares two area subtrees recursively: the bounds and the number of child areas of each area
+     * and the texts of the leaf areas.
+     *
+     * @param expected the expected subtree root (e.g. the sequential result)
+     * @param actual the compared subtree root
+     * @return the description of the first difference found or {@code null} when the subtrees are identical
+     */
+    public static String findDifference(Area expected, Area actual)
+    {
+        return findDifference(expected, actual, "/");
+    }
+
+    //=========================================================================================
+
+    /**
+     * Splits the page to regions and segments them in parallel.
+     *
+     * @return the merged area tree or {@code null} when the page should be segmented as a whole
+     */
+    private AreaTree createSplitAreaTree(Page page)
+    {
+        final List<Box> regions = IncrementalSegmenter.getRegions(page.getRoot());
+        if (regions.size() < 2)
+            return null;
+        final TreeWalker<Box> walker = new TreeWalker<>();
+        final int[] sizes = new int[regions.size()];
+        int total = 0;
+        for (int i = 0; i < regions.size(); i++)
+        {
+            sizes[i] = walker.count(regions.get(i));
+            total += sizes[i];
+        }
+        if (total < minBoxes)
+            return null;
+
+        // group the consecutive regions to chunks of a similar number of boxes
+        final int chunkSize = Math.max(1, total / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        final List<Integer> chunkStarts = new ArrayList<>();
+        int boxes = 0;
+        for (int i = 0; i < regions.size(); i++)
+        {
+            if (i == 0 || boxes >= chunkSize)
+            {
+                chunkStarts.add(i);
+                boxes = 0;
+            }
+            boxes += sizes[i];
+        }
+        chunkStarts.add(regions.size());
+
+        // segment the chunks
+        final AreaTree[] regionTrees = new AreaTree[regions.size()];
+        @SuppressWarnings("unchecked")
+        final Map<Box, Box>[] boxMaps = new Map[regions.size()];
+        pool.invoke(new ChunkTask(page, regions, chunkStarts, regionTrees, boxMaps, 0, chunkStarts.size() - 1));
+
+        // merge the results in the region order
+        final DefaultAreaTree atree = IncrementalSegmenter.createAreaTree(page);
+        final DefaultArea root = (DefaultArea) atree.getRoot();
+        for (int i = 0; i < regionTrees.length; i++)
+            IncrementalSegmenter.appendRegionTree(regionTrees[i], boxMaps[i], root, atree);
+        return atree;
+    }
+
+    private static String findDifference(Area expected, Area actual, String path)
+    {
+        final String e = describe(expected);
+        final String a = describe(actual);
+        if (!e.equals(a))
+            return "at " + path + ": expected " + e + ", found " + a;
+        for (int i = 0; i < expected.getChildCount(); i++)
+        {
+            final String ret = findDifference(expected.getChildAt(i), actual.getChildAt(i), path + i + "/");
+            if (ret != null)
+                return ret;
+        }
+        return null;
+    }
+
+    /**
+     * Describes a single area: its bounds, the number of its child areas and the text of a leaf area.
+     */
+    private static String describe(Area area)
+    {
+        final Rectangular b = area.getBounds();
+        return "[" + b.getX1() + "," + b.getY1() + "," + b.getX2() + "," + b.getY2() + "] "
+                + area.getChildCount() + " children" + (area.isLeaf() ? " \"" + area.getText() + "\"" : "");
+    }
+
+    //=========================================================================================
+
+    /**
+     * Segments a range of chunks; the range is split in halves until single chunks remain.
+     */
+    private class ChunkTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Page page;
+        private final List<Box> regions;
+        private final List<Integer> chunkStarts;
+        private final AreaTree[] results;
+        private final Map<Box, Box>[] boxMaps;
+        private final int from;
+        private final int to;
+
+        public ChunkTask(Page page, List<Box> regions, List<Integer> chunkStarts, AreaTree[] results,
+                Map<Box, Box>[] boxMaps, int from, int to)
+        {
+            this.page = page;
+            this.regions = regions;
+            this.chunkStarts = chunkStarts;
+            this.results = results;
+            this.boxMaps = boxMaps;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from == 1)
+            {
+                final Segmenter segmenter = factory.get();
+                for (int i = chunkStarts.get(from); i < chunkStarts.get(from + 1); i++)
+                {
+                    // segment a private copy of the region boxes
+                    final Map<Box, Box> boxMap = new IdentityHashMap<>();
+                    final Box copy = IncrementalSegmenter.copyBoxes(regions.get(i), boxMap);
+                    final Page regionPage = IncrementalSegmenter.createRegionPage(page, copy);
+                    results[i] = segmenter.createAreaTree(regionPage);
+                    boxMaps[i] = boxMap;
+                }
+            }
+            else
+            {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new ChunkTask(page, regions, chunkStarts, results, boxMaps, from, mid),
+                        new ChunkTask(page, regions, chunkStarts, results, boxMaps, mid, to));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * SegmDedup.java
+ *
+ * Created on 19. 10. 2026, 14:25:08 by agent
+ */
+package cz.vutbr.fit.layout.demo.segmentation;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.rdf.RDFArtifactRepository;
+import cz.vutbr.fit.layout.vips.VipsProvider;
+
+/**
+ * Renders a list of pages and segments them using VIPS. The segmentation results are stored
+ * in a native RDF repository together with a {@link SegmentationIndex}, so that the identical pages
+ * are segmented only once, even across multiple runs.
+ *
+ * Usage: SegmDedup &lt;storage directory&gt; &lt;url&gt;...
+ *
+ * @author agent
+ */
+public class SegmDedup
+{
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        if (args.length < 2)
+        {
+            System.out.println("Usage: SegmDedup <storage directory> <url>...");
+            System.exit(1);
+        }
+        try {
+            Path dir = Paths.get(args[0]);
+            Files.createDirectories(dir);
+            var repository = RDFArtifactRepository.createNative(dir.resolve("repository").toString());
+            var index = new SegmentationIndex(repository, dir.resolve("segmentation.properties"));
+
+            // setup the VIPS segmentation provider
+            final int pdoc = 9; // the preferred degree of coherence
+            var vips = new VipsProvider();
+            vips.setPDoC(pdoc);
+
+            for (int i = 1; i < args.length; i++)
+            {
+                URL url = new URL(args[i]);
+
+                // perform page rendering
+                var renderer = new CSSBoxTreeProvider(url, 1200, 800);
+                renderer.setIncludeScreenshot(false);
+                Page page = renderer.getPage();
+
+                // segment the page unless an identical page has been segmented before
+                AreaTree atree = index.getAreaTree(page, "FitLayout.VIPS", Map.of("pDoC", pdoc), vips::createAreaTree);
+                System.out.println(url + ": " + atree.getIri() + ", "
+                        + atree.getRoot().getChildCount() + " top-level areas");
+            }
+            System.out.println("Segmentation index: " + index.getHits() + " reused, " + index.getMisses() + " segmented");
+
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+/**
+ * SegmIncremental.java
+ *
+ * Created on 19. 10. 2026, 15:58:21 by agent
+ */
+package cz.vutbr.fit.layout.demo.segmentation;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.cssbox.CSSBoxTreeProvider;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.vips.VipsProvider;
+
+/**
+ * Shows the incremental segmentation of a changed page. The previous version of the page is segmented
+ * using VIPS; the new version is then segmented incrementally using the {@link IncrementalSegmenter}
+ * that re-segments the changed regions only.
+ *
+ * Usage: SegmIncremental [&lt;previous version url&gt; &lt;new version url&gt;]
+ *
+ * @author agent
+ */
+public class SegmIncremental
+{
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        try {
+            URL previousUrl = new URL(args.length == 2 ? args[0] : "http://cssbox.sf.net");
+            URL url = new URL(args.length == 2 ? args[1] : "http://cssbox.sf.net");
+
+            // setup the VIPS segmentation provider
+            var vips = new VipsProvider();
+            vips.setPDoC(9); // the preferred degree of coherence
+            var segmenter = new IncrementalSegmenter(vips::createAreaTree);
+
+            // segment the previous version
+            Page previousPage = render(previousUrl);
+            long startTime = System.nanoTime();
+            AreaTree previousTree = segmenter.segment(previousPage);
+            System.out.printf("Previous version: %d top-level areas, %.1f ms%n",
+                    previousTree.getRoot().getChildCount(), (System.nanoTime() - startTime) / 1e6);
+
+            // segment the new version incrementally
+            Page page = render(url);
+            startTime = System.nanoTime();
+            AreaTree atree = segmenter.segment(page, previousPage, previousTree);
+            System.out.printf("New version: %d top-level areas, %.1f ms%n",
+                    atree.getRoot().getChildCount(), (System.nanoTime() - startTime) / 1e6);
+            System.out.println("Regions: " + segmenter.getReusedRegions() + " reused, "
+                    + segmenter.getSegmentedRegions() + " segmented");
+
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Page render(URL url) throws IOException, SAXException
+    {
+        var renderer = new CSSBoxTreeProvider(url, 1200, 800);
+        renderer.setIncludeScreenshot(false);
+        return renderer.getPage();
+    }
+
+}
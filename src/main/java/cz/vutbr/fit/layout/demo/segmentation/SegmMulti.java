@@ -0,0 +1,83 @@
+/**
+ * SegmMulti.java
+ *
+ * Created on 18. 10. 2026, 14:52:09 by agent
+ */
+package cz.vutbr.fit.layout.demo.segmentation;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.bcs.BCSProvider;
+import cz.vutbr.fit.layout.demo.PageCache;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.segm.BasicSegmProvider;
+import cz.vutbr.fit.layout.vips.VipsProvider;
+
+/**
+ * This demo renders a page once and performs several different segmentation algorithms
+ * (basic visual areas, VIPS and BCS) on the same rendered page. The rendered page is obtained
+ * from the {@link PageCache} so that it can be reused by other demos running in the same JVM
+ * or, when the cache directory is configured, by later runs.
+ *
+ * @author agent
+ */
+public class SegmMulti
+{
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        try {
+            URL url = new URL("http://cssbox.sf.net");
+
+            // render the page (or reuse the page cached on disk by a previous run)
+            PageCache cache = PageCache.getDefault();
+            Page page = cache.getPage(url, 1200, 800, false);
+
+            // read page information
+            System.out.println("Rendered page");
+            System.out.println("Url: " + page.getSourceURL());
+            System.out.println("Title: " + page.getTitle());
+            System.out.println("Rendered size: " + page.getWidth() + " x " + page.getHeight() + " px");
+
+            // basic visual areas
+            // each algorithm obtains the page from the cache as a separate demo would do;
+            // the page is not rendered again
+            var basic = new BasicSegmProvider(false);
+            AreaTree atree1 = basic.createAreaTree(cache.getPage(url, 1200, 800, false));
+            System.out.println("Basic areas: " + atree1.getRoot().getChildCount() + " top-level areas");
+
+            // VIPS
+            var vips = new VipsProvider();
+            vips.setPDoC(9); // the preferred degree of coherence
+            AreaTree atree2 = vips.createAreaTree(cache.getPage(url, 1200, 800, false));
+            System.out.println("VIPS: " + atree2.getRoot().getChildCount() + " top-level areas");
+
+            // BCS
+            var bcs = new BCSProvider();
+            bcs.setThreshold(0.3f); // set the similarity threshold
+            AreaTree atree3 = bcs.createAreaTree(cache.getPage(url, 1200, 800, false));
+            System.out.println("BCS: " + atree3.getRoot().getChildCount() + " top-level areas");
+
+            // the page is rendered at most once: 1 render or 1 disk hit, then 3 memory hits
+            System.out.println("Page cache: " + cache.getHits() + " memory hits, " + cache.getDiskHits()
+                    + " disk hits, " + cache.getMisses() + " rendered");
+
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        }
+
+    }
+
+}
@@ -0,0 +1,115 @@
+/**
+ * SegmParallel.java
+ *
+ * Created on 20. 10. 2026, 19:58:13 by agent
+ */
+package cz.vutbr.fit.layout.demo.segmentation;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.xml.sax.SAXException;
+
+import cz.vutbr.fit.layout.demo.PageCache;
+import cz.vutbr.fit.layout.demo.TreeWalker;
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.model.Rectangular;
+import cz.vutbr.fit.layout.vips.VipsProvider;
+
+/**
+ * Segments a page using VIPS sequentially and in parallel using the {@link ParallelSegmenter}
+ * and compares the duration and the resulting area trees. The complete tree structures are compared
+ * (the bounds and the number of child areas of each area and the texts of the leaf areas); the first
+ * difference is reported together with a comparison of the leaf areas.
+ *
+ * Usage: SegmParallel [&lt;url&gt; [&lt;page height&gt;]]
+ *
+ * @author agent
+ */
+public class SegmParallel
+{
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        try {
+            URL url = new URL(args.length >= 1 ? args[0] : "http://cssbox.sf.net");
+            int height = (args.length >= 2) ? Integer.parseInt(args[1]) : 800;
+
+            // render the page (or reuse the cached one)
+            Page page = PageCache.getDefault().getPage(url, 1200, height, false);
+
+            // sequential segmentation
+            long startTime = System.nanoTime();
+            AreaTree sequential = createVips().createAreaTree(page);
+            System.out.printf("Sequential: %.1f ms%n", (System.nanoTime() - startTime) / 1e6);
+
+            // parallel segmentation
+            var segmenter = new ParallelSegmenter(SegmParallel::createVips);
+            segmenter.setSplitRegions(true); // the split is opt-in
+            segmenter.setMinBoxes(0); // split even small pages for the comparison
+            startTime = System.nanoTime();
+            AreaTree parallel = segmenter.createAreaTree(page);
+            System.out.printf("Parallel: %.1f ms%n", (System.nanoTime() - startTime) / 1e6);
+
+            // compare the complete tree structures
+            final TreeWalker<Area> walker = new TreeWalker<>();
+            System.out.println("Sequential tree: " + walker.count(sequential.getRoot()) + " areas");
+            System.out.println("Parallel tree: " + walker.count(parallel.getRoot()) + " areas");
+            String difference = ParallelSegmenter.findDifference(sequential.getRoot(), parallel.getRoot());
+            if (difference == null)
+                System.out.println("The area trees are identical");
+            else
+            {
+                System.out.println("The area trees DIFFER, the first difference: " + difference);
+
+                // compare the leaf areas
+                List<String> expected = getLeaves(sequential);
+                List<String> actual = getLeaves(parallel);
+                List<String> missing = new ArrayList<>(expected);
+                missing.removeAll(actual);
+                List<String> extra = new ArrayList<>(actual);
+                extra.removeAll(expected);
+                System.out.println("Leaf areas: " + expected.size() + " sequential, " + actual.size() + " parallel, "
+                        + missing.size() + " missing, " + extra.size() + " extra");
+            }
+
+        } catch (MalformedURLException e) {
+            System.err.println(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Segmenter createVips()
+    {
+        var vips = new VipsProvider();
+        vips.setPDoC(9); // the preferred degree of coherence
+        return vips::createAreaTree;
+    }
+
+    /**
+     * Lists the bounds and texts of the leaf areas in a canonical order.
+     */
+    private static List<String> getLeaves(AreaTree atree)
+    {
+        List<String> ret = new ArrayList<>();
+        new TreeWalker<Area>().filter(TreeWalker.leaves()).preOrder(atree.getRoot(), area -> {
+            final Rectangular b = area.getBounds();
+            ret.add(b.getX1() + "," + b.getY1() + "," + b.getX2() + "," + b.getY2() + " " + area.getText());
+        });
+        Collections.sort(ret);
+        return ret;
+    }
+
+}
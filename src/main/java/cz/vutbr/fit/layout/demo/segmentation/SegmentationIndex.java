@@ -0,0 +1,209 @@
+/**
+ * SegmentationIndex.java
+ *
+ * Created on 19. 10. 2026, 13:52:30 by agent
+ */
+package cz.vutbr.fit.layout.demo.segmentation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+import cz.vutbr.fit.layout.model.Artifact;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.rdf.RDFArtifactRepository;
+
+/**
+ * A content-addressed index of the segmentation results. The rendered pages are identified by their
+ * {@link PageFingerprint}s. When a page with the same fingerprint has been already segmented by the same
+ * segmenter with the same parametres, the stored area tree is obtained from the artifact repository
+ * and the segmentation is skipped. Otherwise, the page is segmented and both the page and the resulting
+ * area tree are stored in the repository.
+ *
+ * The index is kept in a properties file that maps the fingerprints to the page IRIs and the fingerprint,
+ * segmenter and parametres combinations to the area tree IRIs. The index may be used by multiple threads;
+ * when the same page is requested concurrently, it is segmented only once and the other threads wait
+ * for the result.
+ *
+ * @author agent
+ */
+public class SegmentationIndex
+{
+    private final RDFArtifactRepository repository;
+    private final Path indexFile;
+    private final Properties index;
+    private final Map<String, CompletableFuture<AreaTree>> segmenting;
+    private int hits;
+    private int misses;
+
+
+    /**
+     * Creates the index.
+     *
+     * @param repository the repository used for storing the pages and area trees
+     * @param indexFile the index file; the existing index is loaded when the file exists
+     * @throws IOException
+     */
+    public SegmentationIndex(RDFArtifactRepository repository, Path indexFile) throws IOException
+    {
+        this.repository = repository;
+        this.indexFile = indexFile;
+        this.index = new Properties();
+        this.segmenting = new HashMap<>();
+        if (Files.exists(indexFile))
+        {
+            try (InputStream is = Files.newInputStream(indexFile)) {
+                index.load(is);
+            }
+        }
+    }
+
+    public synchronized int getHits()
+    {
+        return hits;
+    }
+
+    public synchronized int getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Obtains the area tree for the given page: either the stored result for an identical page
+     * or a new result of the segmenter. When an identical page is just being segmented by another
+     * thread, waits for its result.
+     *
+     * @param page the rendered page
+     * @param segmenterId the segmenter identification (e.g. the service ID)
+     * @param params the segmenter parametres
+     * @param segmenter the segmenter used when no stored result is available
+     * @return the area tree
+     * @throws IOException when the index could not be saved
+     */
+    public AreaTree getAreaTree(Page page, String segmenterId, Map<String, Object> params, Segmenter segmenter)
+            throws IOException
+    {
+        final String fingerprint = PageFingerprint.compute(page);
+        final String key = fingerprint + "/" + segmenterId + "/" + new TreeMap<>(params);
+
+        final CompletableFuture<AreaTree> pending;
+        final CompletableFuture<AreaTree> result;
+        synchronized (this)
+        {
+            AreaTree stored = findAreaTree(key);
+            if (stored != null)
+            {
+                hits++;
+                assignPage(fingerprint, page);
+                return stored;
+            }
+            pending = segmenting.get(key);
+            if (pending != null)
+            {
+                hits++;
+                result = null;
+            }
+            else
+            {
+                misses++;
+                result = new CompletableFuture<>();
+                segmenting.put(key, result);
+            }
+        }
+
+        if (pending != null)
+        {
+            // an identical page is being segmented by another thread
+            AreaTree atree = await(pending);
+            assignPage(fingerprint, page);
+            return atree;
+        }
+
+        try {
+            // the identical page may have been already stored for another segmenter
+            assignPage(fingerprint, page);
+            AreaTree atree = segmenter.createAreaTree(page);
+            synchronized (this)
+            {
+                repository.addArtifact(atree);
+                index.setProperty(key, atree.getIri().stringValue());
+                segmenting.remove(key);
+                save();
+            }
+            result.complete(atree);
+            return atree;
+        } catch (IOException | RuntimeException e) {
+            synchronized (this)
+            {
+                segmenting.remove(key);
+            }
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private synchronized AreaTree findAreaTree(String key)
+    {
+        final String iri = index.getProperty(key);
+        if (iri != null)
+        {
+            Artifact art = repository.getArtifact(createIri(iri));
+            if (art instanceof AreaTree)
+                return (AreaTree) art;
+        }
+        return null;
+    }
+
+    private synchronized void assignPage(String fingerprint, Page page) throws IOException
+    {
+        final String iri = index.getProperty(fingerprint);
+        if (iri != null)
+            page.setIri(createIri(iri));
+        else
+        {
+            repository.addArtifact(page);
+            index.setProperty(fingerprint, page.getIri().stringValue());
+            save();
+        }
+    }
+
+    private static AreaTree await(CompletableFuture<AreaTree> pending) throws IOException
+    {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            else if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            else
+                throw e;
+        }
+    }
+
+    private void save() throws IOException
+    {
+        try (OutputStream os = Files.newOutputStream(indexFile)) {
+            index.store(os, "FitLayout segmentation index");
+        }
+    }
+
+    private static IRI createIri(String iri)
+    {
+        return SimpleValueFactory.getInstance().createIRI(iri);
+    }
+
+}
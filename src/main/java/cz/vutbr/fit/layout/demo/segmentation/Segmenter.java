@@ -0,0 +1,22 @@
+/**
+ * Segmenter.java
+ *
+ * Created on 19. 10. 2026, 13:41:52 by agent
+ */
+package cz.vutbr.fit.layout.demo.segmentation;
+
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Page;
+
+/**
+ * A page segmentation algorithm that creates an area tree from a rendered page,
+ * e.g. {@code vips::createAreaTree} for a configured {@code VipsProvider}.
+ *
+ * @author agent
+ */
+public interface Segmenter
+{
+
+    public AreaTree createAreaTree(Page page);
+
+}
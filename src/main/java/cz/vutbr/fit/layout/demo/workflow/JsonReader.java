@@ -0,0 +1,224 @@
+/**
+ * JsonReader.java
+ *
+ * Created on 18. 10. 2026, 16:02:33 by agent
+ */
+package cz.vutbr.fit.layout.demo.workflow;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal JSON parser used for reading the workflow definitions. The JSON values are mapped
+ * to Java objects as follows: objects to {@link Map}, arrays to {@link List}, strings to {@link String},
+ * integer numbers to {@link Integer} (or {@link Long} for large values), decimal numbers to {@link Float}
+ * and booleans to {@link Boolean}. The number types correspond to the usual types of service parametres.
+ *
+ * @author agent
+ */
+public class JsonReader
+{
+    private final String src;
+    private int pos;
+
+
+    private JsonReader(String src)
+    {
+        this.src = src;
+        this.pos = 0;
+    }
+
+    /**
+     * Parses a JSON document.
+     *
+     * @param src the source JSON text
+     * @return the parsed value
+     * @throws IllegalArgumentException when the source is not a valid JSON document
+     */
+    public static Object parse(String src)
+    {
+        JsonReader reader = new JsonReader(src);
+        Object ret = reader.readValue();
+        reader.skipWhitespace();
+        if (reader.pos < src.length())
+            throw reader.error("Unexpected content after the JSON value");
+        return ret;
+    }
+
+    private Object readValue()
+    {
+        skipWhitespace();
+        if (pos >= src.length())
+            throw error("Unexpected end of input");
+        final char c = src.charAt(pos);
+        switch (c)
+        {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                expect("true");
+                return Boolean.TRUE;
+            case 'f':
+                expect("false");
+                return Boolean.FALSE;
+            case 'n':
+                expect("null");
+                return null;
+            default:
+                if (c == '-' || Character.isDigit(c))
+                    return readNumber();
+                else
+                    throw error("Unexpected character '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> readObject()
+    {
+        Map<String, Object> ret = new LinkedHashMap<>();
+        pos++; // {
+        skipWhitespace();
+        if (peek() == '}')
+        {
+            pos++;
+            return ret;
+        }
+        while (true)
+        {
+            skipWhitespace();
+            if (peek() != '"')
+                throw error("Property name expected");
+            String name = readString();
+            skipWhitespace();
+            if (peek() != ':')
+                throw error("':' expected");
+            pos++;
+            ret.put(name, readValue());
+            skipWhitespace();
+            final char c = peek();
+            pos++;
+            if (c == '}')
+                return ret;
+            else if (c != ',')
+                throw error("',' or '}' expected");
+        }
+    }
+
+    private List<Object> readArray()
+    {
+        List<Object> ret = new ArrayList<>();
+        pos++; // [
+        skipWhitespace();
+        if (peek() == ']')
+        {
+            pos++;
+            return ret;
+        }
+        while (true)
+        {
+            ret.add(readValue());
+            skipWhitespace();
+            final char c = peek();
+            pos++;
+            if (c == ']')
+                return ret;
+            else if (c != ',')
+                throw error("',' or ']' expected");
+        }
+    }
+
+    private String readString()
+    {
+        StringBuilder ret = new StringBuilder();
+        pos++; // "
+        while (true)
+        {
+            if (pos >= src.length())
+                throw error("Unterminated string");
+            char c = src.charAt(pos++);
+            if (c == '"')
+                return ret.toString();
+            else if (c == '\\')
+            {
+                if (pos >= src.length())
+                    throw error("Unterminated string");
+                c = src.charAt(pos++);
+                switch (c)
+                {
+                    case 'b': ret.append('\b'); break;
+                    case 'f': ret.append('\f'); break;
+                    case 'n': ret.append('\n'); break;
+                    case 'r': ret.append('\r'); break;
+                    case 't': ret.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > src.length())
+                            throw error("Invalid unicode escape");
+                        ret.append((char) Integer.parseInt(src.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: ret.append(c); // \" \\ \/
+                }
+            }
+            else
+                ret.append(c);
+        }
+    }
+
+    private Object readNumber()
+    {
+        final int start = pos;
+        boolean decimal = false;
+        while (pos < src.length())
+        {
+            final char c = src.charAt(pos);
+            if (c == '.' || c == 'e' || c == 'E')
+                decimal = true;
+            else if (!(Character.isDigit(c) || c == '-' || c == '+'))
+                break;
+            pos++;
+        }
+        final String num = src.substring(start, pos);
+        try {
+            if (decimal)
+                return Float.valueOf(num);
+            final long value = Long.parseLong(num);
+            if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE)
+                return (int) value;
+            else
+                return value;
+        } catch (NumberFormatException e) {
+            throw error("Invalid number " + num);
+        }
+    }
+
+    private void expect(String word)
+    {
+        if (!src.startsWith(word, pos))
+            throw error("'" + word + "' expected");
+        pos += word.length();
+    }
+
+    private char peek()
+    {
+        if (pos >= src.length())
+            throw error("Unexpected end of input");
+        return src.charAt(pos);
+    }
+
+    private void skipWhitespace()
+    {
+        while (pos < src.length() && Character.isWhitespace(src.charAt(pos)))
+            pos++;
+    }
+
+    private IllegalArgumentException error(String message)
+    {
+        return new IllegalArgumentException(message + " at position " + pos);
+    }
+
+}
@@ -0,0 +1,297 @@
+/**
+ * ParallelServiceExecutor.java
+ *
+ * Created on 18. 10. 2026, 15:24:48 by agent
+ */
+package cz.vutbr.fit.layout.demo.workflow;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import cz.vutbr.fit.layout.api.ArtifactRepository;
+import cz.vutbr.fit.layout.api.ServiceManager;
+import cz.vutbr.fit.layout.demo.rdf.BulkArtifactIngest;
+import cz.vutbr.fit.layout.model.Artifact;
+import cz.vutbr.fit.layout.rdf.RDFArtifactRepository;
+
+/**
+ * Applies the artifact services of a {@link ServiceManager} in parallel. Independent services
+ * (e.g. several segmentation algorithms) may be applied on the same input artifact at the same time
+ * and the resulting artifacts may be stored in the repository together when all of them are available.
+ *
+ * The service manager keeps a single instance of each service and the services are configured
+ * by setting their parametres before processing. Therefore, the invocations of the same service
+ * are serialized while different services run concurrently.
+ *
+ * The service invocations may be limited in time. The time limit starts when the service actually
+ * starts processing (i.e. the time spent waiting for a worker thread or for another invocation
+ * of the same service is not counted). When the limit is exceeded, the invocation fails with
+ * a {@link TimeoutException} and the worker thread is interrupted. A service that does not respond
+ * to the interruption keeps its worker thread (and blocks the other invocations of the same service)
+ * until it finishes; its result is discarded.
+ *
+ * @author agent
+ */
+public class ParallelServiceExecutor implements AutoCloseable
+{
+    private final ServiceManager manager;
+    private final ExecutorService executor;
+    private final Map<String, Object> serviceLocks;
+    private final ScheduledExecutorService timer;
+
+
+    /**
+     * Creates a new executor.
+     *
+     * @param manager the service manager used for invoking the services
+     * @param threads the number of worker threads
+     */
+    public ParallelServiceExecutor(ServiceManager manager, int threads)
+    {
+        this.manager = manager;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.serviceLocks = new ConcurrentHashMap<>();
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "service-timeout");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public ServiceManager getServiceManager()
+    {
+        return manager;
+    }
+
+    /**
+     * Applies a service synchronously in the current thread. The call waits while the same service
+     * is being used by another thread.
+     *
+     * @param serviceId the service ID
+     * @param params the service parametres
+     * @param input the input artifact or {@code null} for the services that do not require any input
+     * @return the created artifact
+     */
+    public Artifact apply(String serviceId, Map<String, Object> params, Artifact input)
+    {
+        final Object lock = serviceLocks.computeIfAbsent(serviceId, id -> new Object());
+        synchronized (lock)
+        {
+            return manager.applyArtifactService(serviceId, params, input);
+        }
+    }
+
+    /**
+     * Schedules a service invocation on the worker threads.
+     *
+     * @param serviceId the service ID
+     * @param params the service parametres
+     * @param input the input artifact or {@code null} for the services that do not require any input
+     * @return a future for the created artifact
+     */
+    public CompletableFuture<Artifact> submit(String serviceId, Map<String, Object> params, Artifact input)
+    {
+        return CompletableFuture.supplyAsync(() -> apply(serviceId, params, input), executor);
+    }
+
+    /**
+     * Schedules a service invocation on the worker threads with a time limit. The limit is measured
+     * from the moment when the service starts processing. When the limit is exceeded, the returned
+     * future completes with a {@link TimeoutException} and the worker thread is interrupted.
+     * Cancelling the returned future interrupts the running service as well.
+     *
+     * @param serviceId the service ID
+     * @param params the service parametres
+     * @param input the input artifact or {@code null} for the services that do not require any input
+     * @param timeout the maximal processing time or {@code 0} for no limit
+     * @param unit the time unit of the timeout
+     * @return a future for the created artifact
+     */
+    public CompletableFuture<Artifact> submit(String serviceId, Map<String, Object> params, Artifact input,
+            long timeout, TimeUnit unit)
+    {
+        if (timeout <= 0)
+            return submit(serviceId, params, input);
+        final TimedInvocation invocation = new TimedInvocation(serviceId, params, input, timeout, unit);
+        executor.execute(invocation.task);
+        return invocation.result;
+    }
+
+    /**
+     * Applies several services on the same input artifact in parallel and waits for all the results.
+     *
+     * @param input the input artifact
+     * @param calls the service invocations
+     * @return the created artifacts in the same order as the corresponding invocations
+     * @throws InterruptedException
+     */
+    public List<Artifact> applyAll(Artifact input, List<ServiceCall> calls) throws InterruptedException
+    {
+        List<CompletableFuture<Artifact>> futures = new ArrayList<>(calls.size());
+        for (ServiceCall call : calls)
+            futures.add(submit(call.getServiceId(), call.getParams(), input));
+
+        List<Artifact> ret = new ArrayList<>(calls.size());
+        try {
+            for (CompletableFuture<Artifact> future : futures)
+                ret.add(future.get());
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(false));
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            else
+                throw new RuntimeException(cause);
+        }
+        return ret;
+    }
+
+    /**
+     * Stores a batch of artifacts in the artifact repository of the service manager. The artifacts
+     * are stored in the given order, so the parent artifacts should precede their children.
+     * For RDF repositories, the pages and area trees are stored in a single transaction; the remaining
+     * artifacts are stored one by one after the transaction is committed.
+     *
+     * @param artifacts the artifacts to store
+     */
+    public void commit(Collection<? extends Artifact> artifacts)
+    {
+        ArtifactRepository repo = manager.getArtifactRepository();
+        if (repo instanceof RDFArtifactRepository)
+        {
+            List<Artifact> others = new ArrayList<>();
+            try (var ingest = new BulkArtifactIngest((RDFArtifactRepository) repo, Math.max(1, artifacts.size()))) {
+                for (Artifact a : artifacts)
+                {
+                    if (BulkArtifactIngest.isSupported(a))
+                        ingest.add(a);
+                    else
+                        others.add(a);
+                }
+            }
+            synchronized (repo)
+            {
+                for (Artifact a : others)
+                    repo.addArtifact(a);
+            }
+        }
+        else
+        {
+            synchronized (repo)
+            {
+                for (Artifact a : artifacts)
+                    repo.addArtifact(a);
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        executor.shutdown();
+        timer.shutdownNow();
+    }
+
+    //=========================================================================================
+
+    /**
+     * A service invocation whose processing time is limited. The invocation runs in a {@link FutureTask},
+     * so the worker thread is only interrupted while it is still executing this invocation.
+     */
+    private class TimedInvocation implements Runnable
+    {
+        private final String serviceId;
+        private final Map<String, Object> params;
+        private final Artifact input;
+        private final long timeout;
+        private final TimeUnit unit;
+        private final CompletableFuture<Artifact> result;
+        private final FutureTask<Void> task;
+
+        public TimedInvocation(String serviceId, Map<String, Object> params, Artifact input, long timeout, TimeUnit unit)
+        {
+            this.serviceId = serviceId;
+            this.params = params;
+            this.input = input;
+            this.timeout = timeout;
+            this.unit = unit;
+            this.result = new CompletableFuture<>();
+            this.task = new FutureTask<>(this, null);
+            // cancelling the result by the caller stops the processing
+            result.whenComplete((a, e) -> {
+                if (result.isCancelled())
+                    task.cancel(true);
+            });
+        }
+
+        @Override
+        public void run()
+        {
+            final Object lock = serviceLocks.computeIfAbsent(serviceId, id -> new Object());
+            synchronized (lock)
+            {
+                if (result.isDone())
+                    return; // cancelled while waiting
+                // the time limit starts now
+                final ScheduledFuture<?> timeoutTask = timer.schedule(() -> {
+                    if (result.completeExceptionally(new TimeoutException(serviceId + " exceeded the time limit of "
+                            + timeout + " " + unit.toString().toLowerCase())))
+                        task.cancel(true);
+                }, timeout, unit);
+                try {
+                    result.complete(manager.applyArtifactService(serviceId, params, input));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    timeoutTask.cancel(false);
+                }
+            }
+        }
+    }
+
+    //=========================================================================================
+
+    /**
+     * A single service invocation: the service ID and its parametres.
+     */
+    public static class ServiceCall
+    {
+        private final String serviceId;
+        private final Map<String, Object> params;
+
+        public ServiceCall(String serviceId, Map<String, Object> params)
+        {
+            this.serviceId = serviceId;
+            this.params = params;
+        }
+
+        public String getServiceId()
+        {
+            return serviceId;
+        }
+
+        public Map<String, Object> getParams()
+        {
+            return params;
+        }
+
+        @Override
+        public String toString()
+        {
+            return serviceId + " " + params;
+        }
+    }
+
+}
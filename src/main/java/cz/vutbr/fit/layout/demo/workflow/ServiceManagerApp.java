@@ -5,6 +5,8 @@
  */
 package cz.vutbr.fit.layout.demo.workflow;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import cz.vutbr.fit.layout.api.ServiceManager;
@@ -47,19 +49,23 @@ public class ServiceManagerApp
                         "width", 1200,
                         "height", 800),
                 null);
-        Artifact atree1 = manager.applyArtifactService(
-                "FitLayout.BasicAreas", 
-                Map.of("preserveAuxAreas", false),
-                page);
-        Artifact atree2 = manager.applyArtifactService(
-                "FitLayout.VIPS", 
-                Map.of("pDoC", 9),
-                page);
         
-        // store the artifacts
-        manager.getArtifactRepository().addArtifact(page);
-        manager.getArtifactRepository().addArtifact(atree1);
-        manager.getArtifactRepository().addArtifact(atree2);
+        // the segmentation services are independent, so they may be applied in parallel
+        try (var executor = new ParallelServiceExecutor(manager, 2)) {
+            List<Artifact> atrees = executor.applyAll(page, List.of(
+                    new ParallelServiceExecutor.ServiceCall("FitLayout.BasicAreas", 
+                            Map.of("preserveAuxAreas", false)),
+                    new ParallelServiceExecutor.ServiceCall("FitLayout.VIPS", 
+                            Map.of("pDoC", 9))));
+            
+            // store the artifacts
+            List<Artifact> batch = new ArrayList<>();
+            batch.add(page);
+            batch.addAll(atrees);
+            executor.commit(batch);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
         
         // print the info about stored artifacts
         System.out.println("Stored artifacts:");
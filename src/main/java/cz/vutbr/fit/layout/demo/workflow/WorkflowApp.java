@@ -0,0 +1,78 @@
+/**
+ * WorkflowApp.java
+ *
+ * Created on 18. 10. 2026, 17:55:04 by agent
+ */
+package cz.vutbr.fit.layout.demo.workflow;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import cz.vutbr.fit.layout.api.ServiceManager;
+import cz.vutbr.fit.layout.model.Artifact;
+import cz.vutbr.fit.layout.rdf.RDFArtifactRepository;
+
+/**
+ * Demonstrates executing a page processing workflow defined in an external JSON file
+ * (see {@link WorkflowDefinition} for the file format). The workflow is executed by the
+ * {@link WorkflowEngine} that runs the independent services concurrently. When no file is
+ * specified, the bundled {@code workflow/pipeline.json} definition is used.
+ *
+ * @author agent
+ */
+public class WorkflowApp
+{
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        if (args.length > 1)
+        {
+            System.out.println("Usage: WorkflowApp [workflow.json]");
+            System.exit(1);
+        }
+
+        try {
+            // read the workflow definition
+            WorkflowDefinition workflow;
+            if (args.length == 1)
+                workflow = WorkflowDefinition.load(Paths.get(args[0]));
+            else
+            {
+                try (InputStream is = WorkflowApp.class.getResourceAsStream("/workflow/pipeline.json")) {
+                    workflow = WorkflowDefinition.parse(new String(is.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+
+            // setup an RDF repository and the service manager
+            var repository = RDFArtifactRepository.createMemory(null);
+            ServiceManager manager = ServiceManagerApp.createServiceManager(repository);
+
+            // execute the workflow
+            try (var executor = new ParallelServiceExecutor(manager, workflow.getThreads())) {
+                var engine = new WorkflowEngine(executor);
+                long startTime = System.currentTimeMillis();
+                WorkflowEngine.Result result = engine.execute(workflow);
+                System.out.println("Workflow finished in " + (System.currentTimeMillis() - startTime) + " ms");
+
+                for (Map.Entry<String, Artifact> entry : result.getArtifacts().entrySet())
+                    System.out.println(entry.getKey() + ": " + entry.getValue().getIri());
+                for (Map.Entry<String, Throwable> entry : result.getFailures().entrySet())
+                    System.out.println(entry.getKey() + ": FAILED " + entry.getValue());
+            }
+
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid workflow definition: " + e.getMessage());
+        }
+    }
+
+}
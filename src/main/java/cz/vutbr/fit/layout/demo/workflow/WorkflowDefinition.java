@@ -0,0 +1,238 @@
+/**
+ * WorkflowDefinition.java
+ *
+ * Created on 18. 10. 2026, 16:40:15 by agent
+ */
+package cz.vutbr.fit.layout.demo.workflow;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A definition of a page processing workflow. The workflow consists of nodes; each node represents
+ * an invocation of an artifact service with the given parametres. A node may have a parent node
+ * whose resulting artifact is used as the service input. The nodes therefore form a directed acyclic
+ * graph that is executed by the {@link WorkflowEngine}.
+ *
+ * The definition is read from a JSON document of the following form:
+ * <pre>
+ * {
+ *   "threads": 4,
+ *   "nodes": [
+ *     { "id": "page", "service": "FitLayout.CSSBox",
+ *       "params": { "url": "http://cssbox.sf.net", "width": 1200, "height": 800 } },
+ *     { "id": "vips", "service": "FitLayout.VIPS", "params": { "pDoC": 9 },
+ *       "parent": "page", "timeout": 60 },
+ *     { "id": "basic", "service": "FitLayout.BasicAreas", "parent": "page", "store": false }
+ *   ]
+ * }
+ * </pre>
+ * The {@code timeout} (in seconds of the service processing time, no timeout by default) and
+ * {@code store} (default {@code true}) node properties are optional.
+ *
+ * @author agent
+ */
+public class WorkflowDefinition
+{
+    private final int threads;
+    private final List<Node> nodes;
+
+
+    /**
+     * Creates a workflow definition.
+     *
+     * @param threads the number of worker threads used for the execution
+     * @param nodes the workflow nodes
+     * @throws IllegalArgumentException when the node IDs are not unique, a parent node is missing
+     * or the nodes form a cycle
+     */
+    public WorkflowDefinition(int threads, List<Node> nodes)
+    {
+        this.threads = threads;
+        this.nodes = Collections.unmodifiableList(sortNodes(nodes));
+    }
+
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    /**
+     * Returns the workflow nodes ordered so that each parent node precedes its child nodes.
+     *
+     * @return the list of nodes
+     */
+    public List<Node> getNodes()
+    {
+        return nodes;
+    }
+
+    /**
+     * Reads a workflow definition from a JSON file.
+     *
+     * @param file the source file
+     * @return the workflow definition
+     * @throws IOException
+     */
+    public static WorkflowDefinition load(Path file) throws IOException
+    {
+        return parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a workflow definition in JSON.
+     *
+     * @param json the source JSON text
+     * @return the workflow definition
+     * @throws IllegalArgumentException when the definition is invalid
+     */
+    @SuppressWarnings("unchecked")
+    public static WorkflowDefinition parse(String json)
+    {
+        Object root = JsonReader.parse(json);
+        if (!(root instanceof Map))
+            throw new IllegalArgumentException("The workflow definition must be a JSON object");
+        Map<String, Object> def = (Map<String, Object>) root;
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (def.get("threads") instanceof Number)
+            threads = ((Number) def.get("threads")).intValue();
+
+        if (!(def.get("nodes") instanceof List))
+            throw new IllegalArgumentException("The 'nodes' array is missing");
+        List<Node> nodes = new ArrayList<>();
+        for (Object item : (List<Object>) def.get("nodes"))
+        {
+            if (!(item instanceof Map))
+                throw new IllegalArgumentException("Each node must be a JSON object");
+            Map<String, Object> n = (Map<String, Object>) item;
+            final String id = (String) n.get("id");
+            final String service = (String) n.get("service");
+            if (id == null || service == null)
+                throw new IllegalArgumentException("Each node must specify the 'id' and 'service'");
+            final Map<String, Object> params = (n.get("params") instanceof Map)
+                    ? (Map<String, Object>) n.get("params") : Collections.emptyMap();
+            final String parent = (String) n.get("parent");
+            final long timeout = (n.get("timeout") instanceof Number) ? ((Number) n.get("timeout")).longValue() : 0;
+            final boolean store = !Boolean.FALSE.equals(n.get("store"));
+            nodes.add(new Node(id, service, params, parent, timeout, store));
+        }
+        return new WorkflowDefinition(threads, nodes);
+    }
+
+    /**
+     * Checks the node consistency and sorts the nodes topologically.
+     */
+    private static List<Node> sortNodes(List<Node> nodes)
+    {
+        Map<String, Node> index = new LinkedHashMap<>();
+        for (Node node : nodes)
+        {
+            if (index.put(node.getId(), node) != null)
+                throw new IllegalArgumentException("Duplicate node ID: " + node.getId());
+        }
+        Map<String, List<Node>> children = new HashMap<>();
+        List<Node> ret = new ArrayList<>(nodes.size());
+        for (Node node : nodes)
+        {
+            if (node.getParent() == null)
+                ret.add(node);
+            else if (!index.containsKey(node.getParent()))
+                throw new IllegalArgumentException("Unknown parent '" + node.getParent() + "' of node " + node.getId());
+            else
+                children.computeIfAbsent(node.getParent(), p -> new ArrayList<>()).add(node);
+        }
+        // breadth-first expansion from the root nodes
+        Set<String> visited = new HashSet<>();
+        for (int i = 0; i < ret.size(); i++)
+        {
+            visited.add(ret.get(i).getId());
+            ret.addAll(children.getOrDefault(ret.get(i).getId(), Collections.emptyList()));
+        }
+        if (visited.size() != nodes.size())
+            throw new IllegalArgumentException("The workflow nodes contain a cycle");
+        return ret;
+    }
+
+    //=========================================================================================
+
+    /**
+     * A single workflow node.
+     */
+    public static class Node
+    {
+        private final String id;
+        private final String serviceId;
+        private final Map<String, Object> params;
+        private final String parent;
+        private final long timeout;
+        private final boolean store;
+
+        /**
+         * Creates a node.
+         *
+         * @param id the node ID
+         * @param serviceId the ID of the artifact service to invoke
+         * @param params the service parametres
+         * @param parent the parent node ID or {@code null}
+         * @param timeout the maximal execution time in seconds or {@code 0} for no limit
+         * @param store store the resulting artifact in the repository?
+         */
+        public Node(String id, String serviceId, Map<String, Object> params, String parent, long timeout, boolean store)
+        {
+            this.id = id;
+            this.serviceId = serviceId;
+            this.params = params;
+            this.parent = parent;
+            this.timeout = timeout;
+            this.store = store;
+        }
+
+        public String getId()
+        {
+            return id;
+        }
+
+        public String getServiceId()
+        {
+            return serviceId;
+        }
+
+        public Map<String, Object> getParams()
+        {
+            return params;
+        }
+
+        public String getParent()
+        {
+            return parent;
+        }
+
+        public long getTimeout()
+        {
+            return timeout;
+        }
+
+        public boolean isStore()
+        {
+            return store;
+        }
+
+        @Override
+        public String toString()
+        {
+            return id + ": " + serviceId + " " + params + (parent == null ? "" : " <- " + parent);
+        }
+    }
+
+}
@@ -0,0 +1,160 @@
+/**
+ * WorkflowEngine.java
+ *
+ * Created on 18. 10. 2026, 17:18:50 by agent
+ */
+package cz.vutbr.fit.layout.demo.workflow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import cz.vutbr.fit.layout.model.Artifact;
+
+/**
+ * Executes a {@link WorkflowDefinition} using a {@link ParallelServiceExecutor}. Each node is scheduled
+ * as soon as its parent artifact is available, so the independent branches of the workflow run
+ * concurrently. The nodes that invoke the same service with the same parametres on the same input
+ * are executed only once and share the resulting artifact.
+ *
+ * The node timeouts are measured from the moment when the service starts processing its input. A node
+ * that exceeds its timeout fails with a {@link java.util.concurrent.TimeoutException}, its service is
+ * interrupted and its child nodes are not executed.
+ *
+ * @author agent
+ */
+public class WorkflowEngine
+{
+    private final ParallelServiceExecutor executor;
+
+
+    /**
+     * Creates a workflow engine.
+     *
+     * @param executor the executor used for invoking the services
+     */
+    public WorkflowEngine(ParallelServiceExecutor executor)
+    {
+        this.executor = executor;
+    }
+
+    /**
+     * Executes a workflow and stores the resulting artifacts of the nodes marked for storing
+     * in the artifact repository.
+     *
+     * @param workflow the workflow definition
+     * @return the execution result
+     * @throws InterruptedException
+     */
+    public Result execute(WorkflowDefinition workflow) throws InterruptedException
+    {
+        final List<WorkflowDefinition.Node> nodes = workflow.getNodes();
+        final Map<String, CompletableFuture<Artifact>> futures = new HashMap<>();
+        final Map<String, String> signatures = new HashMap<>();
+        final Map<String, CompletableFuture<Artifact>> reused = new HashMap<>();
+
+        // schedule the nodes; the parent nodes always precede their children
+        for (WorkflowDefinition.Node node : nodes)
+        {
+            final String parentSignature = (node.getParent() == null) ? "" : signatures.get(node.getParent());
+            final String signature = node.getServiceId() + new TreeMap<>(node.getParams()) + "<-(" + parentSignature + ")";
+            signatures.put(node.getId(), signature);
+
+            CompletableFuture<Artifact> future = reused.get(signature);
+            if (future == null)
+            {
+                if (node.getParent() == null)
+                    future = schedule(node, null);
+                else
+                    future = futures.get(node.getParent()).thenCompose(parent -> schedule(node, parent));
+                reused.put(signature, future);
+            }
+            futures.put(node.getId(), future);
+        }
+
+        // collect the results
+        final Map<String, Artifact> artifacts = new LinkedHashMap<>();
+        final Map<String, Throwable> failures = new LinkedHashMap<>();
+        for (WorkflowDefinition.Node node : nodes)
+        {
+            try {
+                artifacts.put(node.getId(), futures.get(node.getId()).get());
+            } catch (ExecutionException e) {
+                failures.put(node.getId(), e.getCause());
+            }
+        }
+
+        // store the artifacts in a single batch
+        final Set<Artifact> stored = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<Artifact> batch = new ArrayList<>();
+        for (WorkflowDefinition.Node node : nodes)
+        {
+            final Artifact a = artifacts.get(node.getId());
+            if (node.isStore() && a != null && stored.add(a))
+                batch.add(a);
+        }
+        executor.commit(batch);
+
+        return new Result(artifacts, failures);
+    }
+
+    private CompletableFuture<Artifact> schedule(WorkflowDefinition.Node node, Artifact parent)
+    {
+        // the timeout counts from the start of the service; the timed out service is interrupted
+        return executor.submit(node.getServiceId(), node.getParams(), parent, node.getTimeout(), TimeUnit.SECONDS);
+    }
+
+    //=========================================================================================
+
+    /**
+     * The workflow execution result: the artifacts created by the individual nodes
+     * and the failures of the nodes that could not be executed.
+     */
+    public static class Result
+    {
+        private final Map<String, Artifact> artifacts;
+        private final Map<String, Throwable> failures;
+
+        public Result(Map<String, Artifact> artifacts, Map<String, Throwable> failures)
+        {
+            this.artifacts = artifacts;
+            this.failures = failures;
+        }
+
+        /**
+         * Returns the artifacts created by the successfully executed nodes.
+         *
+         * @return a map of node IDs to the created artifacts
+         */
+        public Map<String, Artifact> getArtifacts()
+        {
+            return artifacts;
+        }
+
+        /**
+         * Returns the failures of the nodes that have not been executed successfully
+         * including the nodes whose parent node failed.
+         *
+         * @return a map of node IDs to the failure causes
+         */
+        public Map<String, Throwable> getFailures()
+        {
+            return failures;
+        }
+
+        public boolean isSuccessful()
+        {
+            return failures.isEmpty();
+        }
+    }
+
+}
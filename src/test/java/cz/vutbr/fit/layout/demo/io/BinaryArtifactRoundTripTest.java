@@ -0,0 +1,356 @@
+/**
+ * BinaryArtifactRoundTripTest.java
+ *
+ * Created on 20. 10. 2026, 10:14:52 by agent
+ */
+package cz.vutbr.fit.layout.demo.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.Test;
+
+import cz.vutbr.fit.layout.impl.DefaultArea;
+import cz.vutbr.fit.layout.impl.DefaultAreaTree;
+import cz.vutbr.fit.layout.impl.DefaultBox;
+import cz.vutbr.fit.layout.impl.DefaultContentImage;
+import cz.vutbr.fit.layout.impl.DefaultPage;
+import cz.vutbr.fit.layout.impl.DefaultTag;
+import cz.vutbr.fit.layout.model.Area;
+import cz.vutbr.fit.layout.model.AreaTree;
+import cz.vutbr.fit.layout.model.Artifact;
+import cz.vutbr.fit.layout.model.Border;
+import cz.vutbr.fit.layout.model.Box;
+import cz.vutbr.fit.layout.model.ContentImage;
+import cz.vutbr.fit.layout.model.Page;
+import cz.vutbr.fit.layout.model.Rectangular;
+import cz.vutbr.fit.layout.model.Tag;
+import cz.vutbr.fit.layout.model.TextStyle;
+
+/**
+ * Writes pages and area trees using the {@link BinaryArtifactWriter}, reads them back using
+ * the {@link BinaryArtifactReader} and compares the results with the original artifacts.
+ *
+ * @author agent
+ */
+public class BinaryArtifactRoundTripTest
+{
+    private static final IRI PAGE_IRI = SimpleValueFactory.getInstance().createIRI("http://fitlayout.github.io/resource/art1");
+    private static final IRI TREE_IRI = SimpleValueFactory.getInstance().createIRI("http://fitlayout.github.io/resource/art2");
+
+
+    @Test
+    public void pageRoundTrip() throws IOException
+    {
+        final Page page = createPage();
+        final List<Artifact> result = readAll(write(page, null));
+        assertEquals(1, result.size());
+        final Page read = (Page) result.get(0);
+        assertEquals(PAGE_IRI, read.getIri());
+        assertEquals(page.getSourceURL(), read.getSourceURL());
+        assertEquals(page.getTitle(), read.getTitle());
+        assertEquals(page.getWidth(), read.getWidth());
+        assertEquals(page.getHeight(), read.getHeight());
+        assertArrayEquals(page.getPngImage(), read.getPngImage());
+        assertBoxEquals(page.getRoot(), read.getRoot());
+    }
+
+    @Test
+    public void areaTreeRoundTrip() throws IOException
+    {
+        final Page page = createPage();
+        final AreaTree atree = createAreaTree(page);
+        final List<Artifact> result = readAll(write(page, atree));
+        assertEquals(2, result.size());
+        final Page readPage = (Page) result.get(0);
+        final AreaTree read = (AreaTree) result.get(1);
+        assertEquals(TREE_IRI, read.getIri());
+        assertEquals(PAGE_IRI, read.getPageIri());
+        // the areas must refer to the boxes of the page read from the same stream
+        assertAreaEquals(atree.getRoot(), read.getRoot(), mapBoxes(readPage.getRoot(), new HashMap<>()));
+    }
+
+    @Test
+    public void areaTreeWithRegisteredPage() throws IOException
+    {
+        final Page page = createPage();
+        final AreaTree atree = createAreaTree(page);
+        final byte[] data = write(null, atree);
+        try (var reader = new BinaryArtifactReader(new ByteArrayInputStream(data))) {
+            reader.registerPage(page);
+            final AreaTree read = (AreaTree) reader.read();
+            assertNull(reader.read());
+            assertAreaEquals(atree.getRoot(), read.getRoot(), mapBoxes(page.getRoot(), new HashMap<>()));
+        }
+    }
+
+    @Test
+    public void truncatedStream() throws IOException
+    {
+        final Page page = createPage();
+        final byte[] data = write(page, createAreaTree(page));
+        // any prefix must be either read completely (when cut between the records) or rejected by an EOFException
+        for (int len = 0; len < data.length; len++)
+        {
+            try (var reader = new BinaryArtifactReader(new ByteArrayInputStream(data, 0, len))) {
+                while (reader.read() != null)
+                    ;
+            } catch (EOFException e) {
+                // expected for most of the prefixes
+            }
+        }
+    }
+
+    //=========================================================================================
+
+    private static byte[] write(Page page, AreaTree atree) throws IOException
+    {
+        final var os = new ByteArrayOutputStream();
+        try (var writer = new BinaryArtifactWriter(os)) {
+            if (page != null)
+                writer.write(page);
+            if (atree != null)
+                writer.write(atree);
+        }
+        return os.toByteArray();
+    }
+
+    private static List<Artifact> readAll(byte[] data) throws IOException
+    {
+        final List<Artifact> ret = new ArrayList<>();
+        try (var reader = new BinaryArtifactReader(new ByteArrayInputStream(data))) {
+            Artifact art;
+            while ((art = reader.read()) != null)
+                ret.add(art);
+        }
+        return ret;
+    }
+
+    private static Page createPage() throws IOException
+    {
+        DefaultPage page = new DefaultPage(new URL("http://cssbox.sf.net/"));
+        page.setIri(PAGE_IRI);
+        page.setTitle("CSSBox \u2013 test page");
+        page.setWidth(1200);
+        page.setHeight(800);
+        page.setPngImage(new byte[] { (byte) 0x89, 'P', 'N', 'G', 0, -1 });
+
+        DefaultBox root = createBox(1, Box.Type.ELEMENT, Box.DisplayType.BLOCK, "body", new Rectangular(0, 0, 1199, 799));
+        root.setBackgroundColor(Color.WHITE);
+        root.setAttribute("class", "main");
+        root.setAttribute("id", null);
+        root.setBorderStyle(Border.Side.TOP, new Border(2, Border.Style.SOLID, Color.BLACK));
+        root.setBorderStyle(Border.Side.LEFT, new Border(1, Border.Style.DASHED, new Color(0x80102030, true)));
+        page.setRoot(root);
+
+        DefaultBox para = createBox(2, Box.Type.ELEMENT, Box.DisplayType.BLOCK, "p", new Rectangular(10, 10, 600, 60));
+        para.setContentBounds(new Rectangular(12, 12, 598, 58));
+        para.setVisualBounds(new Rectangular(11, 11, 599, 59));
+        root.appendChild(para);
+
+        DefaultBox text = createBox(3, Box.Type.TEXT_CONTENT, Box.DisplayType.INLINE, null, new Rectangular(12, 12, 300, 30));
+        text.setOwnText("Hello \"world\"\n\u017elu\u0165ou\u010dk\u00fd k\u016f\u0148");
+        text.setColor(Color.RED);
+        para.appendChild(text);
+
+        // a box outside of its parent (negative relative position)
+        DefaultBox shifted = createBox(4, Box.Type.TEXT_CONTENT, Box.DisplayType.INLINE, null, new Rectangular(-5, 2, 40, 20));
+        shifted.setOwnText("shifted");
+        para.appendChild(shifted);
+
+        DefaultBox image = createBox(5, Box.Type.REPLACED_CONTENT, Box.DisplayType.INLINE, "img", new Rectangular(700, 10, 799, 109));
+        DefaultContentImage img = new DefaultContentImage();
+        img.setUrl(new URL("http://cssbox.sf.net/logo.png"));
+        img.setPngData(new byte[] { 1, 2, 3, 4 });
+        image.setContentObject(img);
+        image.setVisible(false);
+        root.appendChild(image);
+
+        DefaultBox empty = createBox(6, Box.Type.ELEMENT, null, null, new Rectangular(0, 700, 1199, 799));
+        empty.setTextStyle(null);
+        root.appendChild(empty);
+
+        return page;
+    }
+
+    private static DefaultBox createBox(int id, Box.Type type, Box.DisplayType displayType, String tagName, Rectangular bounds)
+    {
+        DefaultBox box = new DefaultBox();
+        box.setId(id);
+        box.setType(type);
+        box.setDisplayType(displayType);
+        box.setTagName(tagName);
+        box.setFontFamily("Serif");
+        box.setBounds(bounds);
+        box.setContentBounds(new Rectangular(bounds));
+        box.setVisualBounds(new Rectangular(bounds));
+        TextStyle style = new TextStyle();
+        style.setFontSize(16.5f);
+        style.setFontWeight(0.7f);
+        style.setUnderline(1.0f);
+        box.setTextStyle(style);
+        box.setColor(Color.BLACK);
+        return box;
+    }
+
+    private static AreaTree createAreaTree(Page page)
+    {
+        final Map<Integer, Box> boxes = mapBoxes(page.getRoot(), new HashMap<>());
+        DefaultAreaTree atree = new DefaultAreaTree(PAGE_IRI);
+        atree.setIri(TREE_IRI);
+
+        DefaultArea root = createArea(10, new Rectangular(0, 0, 1199, 799));
+        root.addBox(boxes.get(1));
+        root.setBackgroundColor(Color.WHITE);
+        root.setBackgroundSeparated(true);
+        atree.setRoot(root);
+
+        DefaultArea para = createArea(11, new Rectangular(10, 10, 600, 60));
+        para.addBox(boxes.get(3));
+        para.addBox(boxes.get(4));
+        para.setName("paragraph");
+        para.setLevel(2);
+        para.setEffectiveBounds(new Rectangular(5, 5, 610, 70));
+        para.setBorderStyle(Border.Side.BOTTOM, new Border(3, Border.Style.DOTTED, Color.BLUE));
+        para.addTag(new DefaultTag("FitLayout.Segm", "heading"), 0.75f);
+        para.addTag(new DefaultTag("FitLayout.Segm", "para"), 0.25f);
+        root.appendChild(para);
+
+        DefaultArea image = createArea(12, new Rectangular(700, 10, 799, 109));
+        image.addBox(boxes.get(5));
+        root.appendChild(image);
+
+        return atree;
+    }
+
+    private static DefaultArea createArea(int id, Rectangular bounds)
+    {
+        DefaultArea area = new DefaultArea(bounds);
+        area.setId(id);
+        return area;
+    }
+
+    private static Map<Integer, Box> mapBoxes(Box root, Map<Integer, Box> dest)
+    {
+        dest.put(root.getId(), root);
+        for (Box child : root.getChildren())
+            mapBoxes(child, dest);
+        return dest;
+    }
+
+    //=========================================================================================
+
+    private static void assertBoxEquals(Box expected, Box actual)
+    {
+        final String id = "box " + expected.getId();
+        assertEquals(id, expected.getId(), actual.getId());
+        assertEquals(id, expected.getType(), actual.getType());
+        assertEquals(id, expected.getDisplayType(), actual.getDisplayType());
+        assertEquals(id, expected.getTagName(), actual.getTagName());
+        assertEquals(id, expected.getFontFamily(), actual.getFontFamily());
+        assertRectEquals(id, expected.getBounds(), actual.getBounds());
+        assertRectEquals(id, expected.getContentBounds(), actual.getContentBounds());
+        assertRectEquals(id, expected.getVisualBounds(), actual.getVisualBounds());
+        assertEquals(id, expected.isVisible(), actual.isVisible());
+        assertEquals(id, expected.getOwnText(), actual.getOwnText());
+        assertEquals(id, expected.getColor(), actual.getColor());
+        assertEquals(id, expected.getBackgroundColor(), actual.getBackgroundColor());
+        assertStyleEquals(id, expected.getTextStyle(), actual.getTextStyle());
+        assertEquals(id, new TreeMap<>(expected.getAttributes()), new TreeMap<>(actual.getAttributes()));
+        for (Border.Side side : Border.Side.values())
+            assertBorderEquals(id + " " + side, expected.getBorderStyle(side), actual.getBorderStyle(side));
+        if (expected.getContentObject() instanceof ContentImage)
+        {
+            final ContentImage eimg = (ContentImage) expected.getContentObject();
+            assertTrue(id, actual.getContentObject() instanceof ContentImage);
+            final ContentImage aimg = (ContentImage) actual.getContentObject();
+            assertEquals(id, eimg.getUrl().toString(), aimg.getUrl().toString());
+            assertArrayEquals(id, eimg.getPngData(), aimg.getPngData());
+        }
+        assertEquals(id, expected.getChildCount(), actual.getChildCount());
+        for (int i = 0; i < expected.getChildCount(); i++)
+        {
+            assertSame(id, actual, actual.getChildAt(i).getParent());
+            assertBoxEquals(expected.getChildAt(i), actual.getChildAt(i));
+        }
+    }
+
+    private static void assertAreaEquals(Area expected, Area actual, Map<Integer, Box> boxes)
+    {
+        final String id = "area " + expected.getId();
+        assertEquals(id, expected.getId(), actual.getId());
+        assertRectEquals(id, expected.getBounds(), actual.getBounds());
+        if (expected.getEffectiveBounds() != null)
+            assertRectEquals(id, expected.getEffectiveBounds(), actual.getEffectiveBounds());
+        assertEquals(id, expected.getName(), actual.getName());
+        assertEquals(id, expected.getLevel(), actual.getLevel());
+        assertEquals(id, expected.getBackgroundColor(), actual.getBackgroundColor());
+        assertEquals(id, expected.isBackgroundSeparated(), actual.isBackgroundSeparated());
+        for (Border.Side side : Border.Side.values())
+            assertBorderEquals(id + " " + side, expected.getBorderStyle(side), actual.getBorderStyle(side));
+        assertEquals(id, tagStrings(expected.getTags()), tagStrings(actual.getTags()));
+        assertEquals(id, expected.getBoxes().size(), actual.getBoxes().size());
+        for (int i = 0; i < expected.getBoxes().size(); i++)
+            assertSame(id, boxes.get(expected.getBoxes().get(i).getId()), actual.getBoxes().get(i));
+        assertEquals(id, expected.getChildCount(), actual.getChildCount());
+        for (int i = 0; i < expected.getChildCount(); i++)
+            assertAreaEquals(expected.getChildAt(i), actual.getChildAt(i), boxes);
+    }
+
+    private static void assertRectEquals(String message, Rectangular expected, Rectangular actual)
+    {
+        assertNotNull(message, actual);
+        assertEquals(message, expected.toString(), actual.toString());
+    }
+
+    private static void assertStyleEquals(String message, TextStyle expected, TextStyle actual)
+    {
+        // a missing style is read as a default (zero) style
+        final TextStyle e = (expected == null) ? new TextStyle() : expected;
+        assertEquals(message, e.getFontSize(), actual.getFontSize(), 0.0f);
+        assertEquals(message, e.getFontWeight(), actual.getFontWeight(), 0.0f);
+        assertEquals(message, e.getFontStyle(), actual.getFontStyle(), 0.0f);
+        assertEquals(message, e.getUnderline(), actual.getUnderline(), 0.0f);
+        assertEquals(message, e.getLineThrough(), actual.getLineThrough(), 0.0f);
+    }
+
+    private static void assertBorderEquals(String message, Border expected, Border actual)
+    {
+        if (expected == null)
+            assertNull(message, actual);
+        else
+        {
+            assertNotNull(message, actual);
+            assertEquals(message, expected.getWidth(), actual.getWidth());
+            assertEquals(message, expected.getStyle(), actual.getStyle());
+            assertEquals(message, expected.getColor(), actual.getColor());
+        }
+    }
+
+    private static Map<String, Float> tagStrings(Map<Tag, Float> tags)
+    {
+        final Map<String, Float> ret = new TreeMap<>();
+        for (Map.Entry<Tag, Float> entry : tags.entrySet())
+            ret.put(entry.getKey().getType() + ":" + entry.getKey().getName(), entry.getValue());
+        return ret;
+    }
+
+}